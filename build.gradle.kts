@@ -7,6 +7,7 @@ plugins {
     id("io.spring.dependency-management") version "1.1.7"
     id("org.sonarqube") version "6.0.1.5171"
     id("com.google.protobuf") version "0.9.5"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "id.ac.ui.cs.advprog"
@@ -42,6 +43,7 @@ val webdrivermanagerVersion = "5.6.3"
 val junitJupiterVersion = "5.9.1"
 val protobufVersion = "4.30.2"
 val grpcVersion = "1.72.0"
+val nimbusJoseJwtVersion = "9.47"
 
 dependencies {
     // Springboot Starters
@@ -63,6 +65,9 @@ dependencies {
     implementation("io.grpc:grpc-protobuf:$grpcVersion")
     implementation("io.grpc:grpc-stub:$grpcVersion")
 
+    // Signed token verification
+    implementation("com.nimbusds:nimbus-jose-jwt:$nimbusJoseJwtVersion")
+
     // H2 Database (for testing/dev)
     runtimeOnly("com.h2database:h2")
 
@@ -75,6 +80,9 @@ dependencies {
     // dotenv-java
     implementation("io.github.cdimascio:dotenv-java:3.2.0")
 
+    // In-process caching
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     // Monitoring and Metrics
     implementation("io.micrometer:micrometer-registry-prometheus")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
@@ -82,6 +90,7 @@ dependencies {
     // Test Dependencies
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("io.grpc:grpc-inprocess:$grpcVersion")
 
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
@@ -121,6 +130,17 @@ protobuf {
     }
 }
 
+jmh {
+    // Run with: ./gradlew jmh -PjmhIncludes=AuthenticationInterceptorBenchmark
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes").toString()))
+    }
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    zip64.set(true)
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
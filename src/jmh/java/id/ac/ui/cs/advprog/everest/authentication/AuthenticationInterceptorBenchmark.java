@@ -0,0 +1,90 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of deciding whether a handler needs authentication and whether the
+ * caller's role is allowed.
+ *
+ * <p>{@code reflectionAndSpel} is what a request paid before the metadata registry: the
+ * annotation checks in the interceptor plus Spring Security evaluating the
+ * {@code @PreAuthorize} expression. {@code registryLookup} is the current path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthenticationInterceptorBenchmark {
+
+    public static class SampleController {
+        @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+        public void handle(@CurrentUser AuthenticatedUser user, String id, int page) {}
+    }
+
+    private Method method;
+    private SampleController controller;
+    private Authentication authentication;
+    private DefaultMethodSecurityExpressionHandler expressionHandler;
+    private Expression expression;
+    private HandlerSecurityMetadataRegistry registry;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        controller = new SampleController();
+        method = SampleController.class.getMethod("handle", AuthenticatedUser.class, String.class, int.class);
+        authentication = new UsernamePasswordAuthenticationToken(
+                "user", null, List.of(new SimpleGrantedAuthority("ROLE_" + UserRole.CUSTOMER.name())));
+
+        expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        // Spring Security parses each expression once and caches it, only evaluation is per request
+        expression = expressionHandler.getExpressionParser()
+                .parseExpression(method.getAnnotation(PreAuthorize.class).value());
+
+        registry = new HandlerSecurityMetadataRegistry();
+        registry.register(List.of(new HandlerMethod(controller, method)));
+    }
+
+    @Benchmark
+    public boolean reflectionAndSpel() {
+        boolean hasPreAuthorize = method.isAnnotationPresent(PreAuthorize.class);
+        boolean hasCurrentUserParam = Arrays.stream(method.getParameters())
+                .anyMatch(parameter -> parameter.isAnnotationPresent(CurrentUser.class));
+        if (!hasPreAuthorize && !hasCurrentUserParam) {
+            return true;
+        }
+
+        EvaluationContext context = expressionHandler.createEvaluationContext(
+                () -> authentication, new SimpleMethodInvocation(controller, method));
+        return ExpressionUtils.evaluateAsBoolean(expression, context);
+    }
+
+    @Benchmark
+    public boolean registryLookup() {
+        HandlerSecurityMetadata metadata = registry.get(method);
+        if (!metadata.authenticationRequired()) {
+            return true;
+        }
+        return metadata.allows(UserRole.CUSTOMER);
+    }
+}
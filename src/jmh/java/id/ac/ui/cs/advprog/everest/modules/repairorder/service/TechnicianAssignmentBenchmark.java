@@ -0,0 +1,73 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.LeastLoadedAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.PowerOfTwoChoicesAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.RandomAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.TechnicianAssignmentStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of choosing a technician under concurrent order creation.
+ *
+ * <p>Each operation assigns an order and, to keep the fleet at a steady state, completes
+ * an order of a random technician, so selection runs against constantly changing counts
+ * from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class TechnicianAssignmentBenchmark {
+
+    @Param({RandomAssignmentStrategy.NAME, LeastLoadedAssignmentStrategy.NAME, PowerOfTwoChoicesAssignmentStrategy.NAME})
+    public String strategyName;
+
+    @Param({"100", "5000"})
+    public int technicianCount;
+
+    private TechnicianAssignmentStrategy strategy;
+    private TechnicianLoadTracker loads;
+    private List<UUID> technicianIds;
+
+    @Setup
+    public void setUp() {
+        strategy = switch (strategyName) {
+            case RandomAssignmentStrategy.NAME -> new RandomAssignmentStrategy();
+            case LeastLoadedAssignmentStrategy.NAME -> new LeastLoadedAssignmentStrategy();
+            default -> new PowerOfTwoChoicesAssignmentStrategy();
+        };
+
+        technicianIds = new ArrayList<>();
+        for (int i = 0; i < technicianCount; i++) {
+            technicianIds.add(UUID.randomUUID());
+        }
+        loads = new TechnicianLoadTracker();
+        loads.reset(technicianIds, Map.of());
+        for (int i = 0; i < technicianCount * 5; i++) {
+            loads.increment(technicianIds.get(ThreadLocalRandom.current().nextInt(technicianCount)));
+        }
+    }
+
+    @Benchmark
+    public UUID assignAndComplete() {
+        UUID technicianId = strategy.select(technicianIds, loads).orElseThrow();
+        loads.increment(technicianId);
+        loads.decrement(technicianIds.get(ThreadLocalRandom.current().nextInt(technicianCount)));
+        return technicianId;
+    }
+}
@@ -6,6 +6,12 @@ import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * The user behind the current request.
+ * When {@code identityOnly} is true only the identity fields are populated and
+ * the profile fields (address, workExperience, totalJobsDone, totalIncome) are null.
+ * A null {@code identityOnly} is treated as a fully loaded user.
+ */
 public record AuthenticatedUser(
         UUID id,
         String email,
@@ -17,5 +23,45 @@ public record AuthenticatedUser(
         String address,
         String workExperience,
         Integer totalJobsDone,
-        Long totalIncome
-) {}
+        Long totalIncome,
+        Boolean identityOnly
+) {
+    public AuthenticatedUser(
+            UUID id,
+            String email,
+            String fullName,
+            UserRole role,
+            String phoneNumber,
+            Instant createdAt,
+            Instant updatedAt,
+            String address,
+            String workExperience,
+            Integer totalJobsDone,
+            Long totalIncome
+    ) {
+        this(id, email, fullName, role, phoneNumber, createdAt, updatedAt,
+                address, workExperience, totalJobsDone, totalIncome, false);
+    }
+
+    public static AuthenticatedUser ofIdentity(
+            UUID id,
+            String email,
+            String fullName,
+            UserRole role,
+            String phoneNumber,
+            Instant createdAt,
+            Instant updatedAt
+    ) {
+        return new AuthenticatedUser(id, email, fullName, role, phoneNumber, createdAt, updatedAt,
+                null, null, null, null, true);
+    }
+
+    public AuthenticatedUser withProfile(String address, String workExperience, Integer totalJobsDone, Long totalIncome) {
+        return new AuthenticatedUser(id, email, fullName, role, phoneNumber, createdAt, updatedAt,
+                address, workExperience, totalJobsDone, totalIncome, false);
+    }
+
+    public boolean profileLoaded() {
+        return !Boolean.TRUE.equals(identityOnly);
+    }
+}
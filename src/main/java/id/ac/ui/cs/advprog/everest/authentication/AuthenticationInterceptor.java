@@ -7,23 +7,31 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.List;
 
 @Component
-public class AuthenticationInterceptor implements HandlerInterceptor {
+public class AuthenticationInterceptor implements AsyncHandlerInterceptor {
     private final AuthServiceGrpcClient authServiceGrpcClient;
+    private final TokenValidationCache tokenValidationCache;
+    private final LocalTokenVerifier localTokenVerifier;
+    private final HandlerSecurityMetadataRegistry securityMetadataRegistry;
 
-    public AuthenticationInterceptor(AuthServiceGrpcClient authServiceGrpcClient) {
+    public AuthenticationInterceptor(AuthServiceGrpcClient authServiceGrpcClient,
+                                     TokenValidationCache tokenValidationCache,
+                                     LocalTokenVerifier localTokenVerifier,
+                                     HandlerSecurityMetadataRegistry securityMetadataRegistry) {
         this.authServiceGrpcClient = authServiceGrpcClient;
+        this.tokenValidationCache = tokenValidationCache;
+        this.localTokenVerifier = localTokenVerifier;
+        this.securityMetadataRegistry = securityMetadataRegistry;
     }
 
     @Override
@@ -35,17 +43,11 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        Method method = handlerMethod.getMethod();
+        // Annotations are resolved once at startup, see HandlerSecurityMetadataRegistry
+        HandlerSecurityMetadata metadata = securityMetadataRegistry.get(handlerMethod.getMethod());
 
-        // Check if method has @PreAuthorize annotation
-        boolean hasPreAuthorize = method.isAnnotationPresent(org.springframework.security.access.prepost.PreAuthorize.class);
-
-        // Check if method has any parameters with @CurrentUser annotation
-        boolean hasCurrentUserParam = Arrays.stream(method.getParameters())
-                .anyMatch(parameter -> parameter.isAnnotationPresent(CurrentUser.class));
-
-        // If neither annotation is present, skip authentication
-        if (!hasPreAuthorize && !hasCurrentUserParam) {
+        // If neither @PreAuthorize nor @CurrentUser is present, skip authentication
+        if (!metadata.authenticationRequired()) {
             return true;
         }
 
@@ -57,15 +59,15 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         }
 
         String token = authHeader.substring(7);
+        AuthenticatedUser user;
         try {
-            AuthenticatedUser user = authServiceGrpcClient.validateToken(token);
+            boolean needsProfile = metadata.profileRequired();
+            user = tokenValidationCache.get(token, needsProfile, t -> validateToken(t, needsProfile));
             UserContext.setUser(user);
 
             var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.role().name()));
             var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
             SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            return true;
         } catch (InvalidTokenException e) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
             return false;
@@ -76,6 +78,19 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Unexpected error during authentication");
             return false;
         }
+
+        if (!metadata.allows(user.role())) {
+            // Handled by GlobalExceptionHandler like a @PreAuthorize denial
+            throw new AccessDeniedException("Access denied");
+        }
+        return true;
+    }
+
+    private AuthenticatedUser validateToken(String token, boolean needsProfile) {
+        // Signed tokens are verified locally when enabled; anything else goes to the auth service.
+        // A locally verified user carries no profile, it is loaded on first access if needed.
+        return localTokenVerifier.verify(token)
+                .orElseGet(() -> authServiceGrpcClient.validateToken(token, needsProfile));
     }
 
     @Override
@@ -86,4 +101,13 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         // Clean up after handling the request
         UserContext.clear();
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        // Streaming and event stream responses complete later, and afterCompletion is not
+        // called on the thread that handled the request, so the user is cleared from it here
+        UserContext.clear();
+    }
 }
\ No newline at end of file
@@ -5,4 +5,11 @@ import java.lang.annotation.*;
 @Target({ ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
-public @interface CurrentUser {}
+public @interface CurrentUser {
+    /**
+     * Whether the handler reads the profile fields of the user.
+     * Handlers that only need the identity (id, role, ...) are authenticated with a slim
+     * validation; the profile is loaded when a handler asks for it.
+     */
+    boolean profile() default false;
+}
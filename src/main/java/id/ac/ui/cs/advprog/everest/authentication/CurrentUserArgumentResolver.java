@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.everest.authentication;
 
+import id.ac.ui.cs.advprog.everest.common.service.AuthServiceGrpcClient;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
@@ -11,6 +12,11 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 
 @Component
 public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    private final AuthServiceGrpcClient authServiceGrpcClient;
+
+    public CurrentUserArgumentResolver(AuthServiceGrpcClient authServiceGrpcClient) {
+        this.authServiceGrpcClient = authServiceGrpcClient;
+    }
 
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
@@ -23,6 +29,14 @@ public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolve
                                   @Nullable ModelAndViewContainer mavContainer,
                                   @NonNull NativeWebRequest webRequest,
                                   WebDataBinderFactory binderFactory) {
-        return UserContext.getUser();
+        AuthenticatedUser user = UserContext.getUser();
+        CurrentUser currentUser = parameter.getParameterAnnotation(CurrentUser.class);
+
+        // Resolve the profile lazily for handlers that need it but were authenticated without it
+        if (user != null && currentUser != null && currentUser.profile() && !user.profileLoaded()) {
+            user = authServiceGrpcClient.loadProfile(user);
+            UserContext.setUser(user);
+        }
+        return user;
     }
 }
\ No newline at end of file
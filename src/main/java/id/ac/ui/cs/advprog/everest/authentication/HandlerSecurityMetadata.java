@@ -0,0 +1,114 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the authentication interceptor needs to know about a handler method,
+ * derived once from its {@code @PreAuthorize} and {@code @CurrentUser} annotations.
+ *
+ * <p>Only the expressions used by the controllers are understood: {@code isAuthenticated()},
+ * {@code hasRole('X')} and {@code hasAnyRole('X', 'Y', ...)}. Anything else is rejected
+ * so that an endpoint is never left unenforced.
+ *
+ * @param authenticationRequired whether the request must carry a valid token
+ * @param allowedRoles bitmask of the roles allowed to call the handler
+ * @param profileRequired whether a {@code @CurrentUser} parameter asks for the profile
+ */
+public record HandlerSecurityMetadata(
+        boolean authenticationRequired,
+        int allowedRoles,
+        boolean profileRequired
+) {
+    public static final int ANY_ROLE = -1;
+
+    public static final HandlerSecurityMetadata PUBLIC = new HandlerSecurityMetadata(false, ANY_ROLE, false);
+
+    private static final Pattern ROLE_EXPRESSION = Pattern.compile("^(hasRole|hasAnyRole)\\((.*)\\)$");
+
+    public boolean allows(UserRole role) {
+        return (allowedRoles & mask(role)) != 0;
+    }
+
+    public static int mask(UserRole role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Builds the metadata for a handler method.
+     *
+     * @param method the handler method
+     * @return the security metadata
+     * @throws IllegalStateException if the {@code @PreAuthorize} expression is not supported
+     */
+    public static HandlerSecurityMetadata of(Method method) {
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), PreAuthorize.class);
+        }
+
+        boolean hasCurrentUserParam = false;
+        boolean profileRequired = false;
+        for (Parameter parameter : method.getParameters()) {
+            CurrentUser currentUser = parameter.getAnnotation(CurrentUser.class);
+            if (currentUser != null) {
+                hasCurrentUserParam = true;
+                profileRequired |= currentUser.profile();
+            }
+        }
+
+        if (preAuthorize == null && !hasCurrentUserParam) {
+            return PUBLIC;
+        }
+
+        int allowedRoles = preAuthorize == null ? ANY_ROLE : parseRoles(preAuthorize.value(), method);
+        return new HandlerSecurityMetadata(true, allowedRoles, profileRequired);
+    }
+
+    private static int parseRoles(String expression, Method method) {
+        String trimmed = expression.trim();
+        if (trimmed.equals("isAuthenticated()")) {
+            return ANY_ROLE;
+        }
+
+        Matcher matcher = ROLE_EXPRESSION.matcher(trimmed);
+        if (!matcher.matches()) {
+            throw unsupported(expression, method);
+        }
+
+        String[] arguments = matcher.group(2).split(",");
+        if (matcher.group(1).equals("hasRole") && arguments.length != 1) {
+            throw unsupported(expression, method);
+        }
+
+        int allowedRoles = 0;
+        for (String argument : arguments) {
+            String role = argument.trim();
+            if (role.length() < 2 || role.charAt(0) != '\'' || role.charAt(role.length() - 1) != '\'') {
+                throw unsupported(expression, method);
+            }
+            role = role.substring(1, role.length() - 1);
+            if (role.startsWith("ROLE_")) {
+                role = role.substring("ROLE_".length());
+            }
+            try {
+                allowedRoles |= mask(UserRole.valueOf(role));
+            } catch (IllegalArgumentException e) {
+                throw unsupported(expression, method);
+            }
+        }
+        return allowedRoles;
+    }
+
+    private static IllegalStateException unsupported(String expression, Method method) {
+        return new IllegalStateException(String.format(
+                "Unsupported @PreAuthorize expression \"%s\" on %s.%s",
+                expression, method.getDeclaringClass().getSimpleName(), method.getName()));
+    }
+}
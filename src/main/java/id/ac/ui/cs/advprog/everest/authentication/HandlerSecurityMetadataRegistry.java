@@ -0,0 +1,71 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of {@link HandlerSecurityMetadata} for every mapped handler method, built once
+ * when the context is refreshed so requests only pay for an identity-map lookup.
+ *
+ * <p>Handler methods resolved per request share the {@link Method} instance registered
+ * with the handler mapping, so the table is keyed by identity. Methods that were not
+ * registered (e.g. handlers created outside the mapping) are computed on first use.
+ */
+@Component
+public class HandlerSecurityMetadataRegistry implements ApplicationListener<ContextRefreshedEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(HandlerSecurityMetadataRegistry.class);
+
+    private volatile Map<Method, HandlerSecurityMetadata> table = Collections.emptyMap();
+    private final Map<Method, HandlerSecurityMetadata> computed = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(@NonNull ContextRefreshedEvent event) {
+        // Looked up here rather than injected, the handler mapping depends on the interceptor
+        Map<String, RequestMappingHandlerMapping> mappings =
+                event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class);
+        for (RequestMappingHandlerMapping mapping : mappings.values()) {
+            register(mapping.getHandlerMethods().values());
+        }
+    }
+
+    /**
+     * Adds the given handler methods to the table.
+     *
+     * @param handlerMethods the handler methods
+     * @throws IllegalStateException if a handler uses an unsupported {@code @PreAuthorize} expression
+     */
+    public void register(Collection<HandlerMethod> handlerMethods) {
+        Map<Method, HandlerSecurityMetadata> updated = new IdentityHashMap<>(table);
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            Method method = handlerMethod.getMethod();
+            updated.computeIfAbsent(method, HandlerSecurityMetadata::of);
+        }
+        table = Collections.unmodifiableMap(updated);
+        logger.info("Registered security metadata for {} handler methods", updated.size());
+    }
+
+    public HandlerSecurityMetadata get(Method method) {
+        HandlerSecurityMetadata metadata = table.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+        return computed.computeIfAbsent(method, HandlerSecurityMetadata::of);
+    }
+
+    public int size() {
+        return table.size();
+    }
+}
@@ -0,0 +1,281 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies signed (JWS) access tokens locally against a configured public key set,
+ * so the auth service is not called on the hot path.
+ *
+ * <p>The verifier only answers for tokens it can fully vouch for. Opaque tokens, tokens
+ * signed with an unknown key and tokens whose {@code jti} is on the revocation list
+ * return {@link Optional#empty()} so the caller can fall back to the auth service.
+ * Tokens with a bad signature or outside their validity window are rejected outright.
+ *
+ * <p>The key set (JWKS JSON) and the revocation list (one {@code jti} per line) are
+ * re-read when their modification time changes, checked at most once per reload interval.
+ */
+@Component
+public class LocalTokenVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(LocalTokenVerifier.class);
+
+    static final String MODE_LOCAL = "local";
+
+    private final boolean enabled;
+    private final Path keySetPath;
+    private final Path revocationListPath;
+    private final Duration reloadInterval;
+    private final Duration clockSkew;
+    private final String issuer;
+    private final Clock clock;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile Instant lastReloadCheck = Instant.MIN;
+
+    @Autowired
+    public LocalTokenVerifier(
+            @Value("${auth.token-verification.mode:remote}") String mode,
+            @Value("${auth.token-verification.key-set-path:}") String keySetPath,
+            @Value("${auth.token-verification.revocation-list-path:}") String revocationListPath,
+            @Value("${auth.token-verification.reload-interval:30s}") Duration reloadInterval,
+            @Value("${auth.token-verification.clock-skew:30s}") Duration clockSkew,
+            @Value("${auth.token-verification.issuer:}") String issuer
+    ) {
+        this(mode, keySetPath, revocationListPath, reloadInterval, clockSkew, issuer, Clock.systemUTC());
+    }
+
+    LocalTokenVerifier(String mode, String keySetPath, String revocationListPath, Duration reloadInterval,
+                       Duration clockSkew, String issuer, Clock clock) {
+        this.enabled = MODE_LOCAL.equalsIgnoreCase(mode);
+        this.keySetPath = keySetPath == null || keySetPath.isBlank() ? null : Path.of(keySetPath);
+        this.revocationListPath = revocationListPath == null || revocationListPath.isBlank()
+                ? null
+                : Path.of(revocationListPath);
+        this.reloadInterval = reloadInterval;
+        this.clockSkew = clockSkew;
+        this.issuer = issuer == null || issuer.isBlank() ? null : issuer;
+        this.clock = clock;
+
+        if (enabled && this.keySetPath == null) {
+            throw new IllegalStateException("auth.token-verification.key-set-path is required in local mode");
+        }
+        if (enabled) {
+            reload();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Verifies the token locally.
+     *
+     * @param token the raw bearer token
+     * @return the authenticated user, or empty if the token must be validated by the auth service
+     * @throws InvalidTokenException if the token is signed by a known key but is not valid
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        SignedJWT jwt;
+        try {
+            jwt = SignedJWT.parse(token);
+        } catch (ParseException e) {
+            // Opaque or otherwise non-JWS token
+            return Optional.empty();
+        }
+
+        reloadIfDue();
+        Snapshot current = snapshot;
+
+        JWK key = current.keys().getKeyByKeyId(jwt.getHeader().getKeyID());
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        JWSVerifier verifier = createVerifier(key);
+        if (verifier == null) {
+            return Optional.empty();
+        }
+
+        JWTClaimsSet claims;
+        try {
+            if (!jwt.verify(verifier)) {
+                throw new InvalidTokenException("Invalid token signature");
+            }
+            claims = jwt.getJWTClaimsSet();
+        } catch (JOSEException | ParseException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        validateClaims(claims);
+
+        if (claims.getJWTID() != null && current.revokedIds().contains(claims.getJWTID())) {
+            return Optional.empty();
+        }
+
+        return toAuthenticatedUser(claims);
+    }
+
+    private JWSVerifier createVerifier(JWK key) {
+        try {
+            if (key instanceof RSAKey rsaKey) {
+                return new RSASSAVerifier(rsaKey);
+            }
+            if (key instanceof ECKey ecKey) {
+                return new ECDSAVerifier(ecKey);
+            }
+        } catch (JOSEException e) {
+            logger.warn("Unusable verification key {}: {}", key.getKeyID(), e.getMessage());
+        }
+        return null;
+    }
+
+    private void validateClaims(JWTClaimsSet claims) {
+        Instant now = clock.instant();
+        Date expiration = claims.getExpirationTime();
+        if (expiration == null || now.minus(clockSkew).isAfter(expiration.toInstant())) {
+            throw new InvalidTokenException("Token has expired");
+        }
+
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && now.plus(clockSkew).isBefore(notBefore.toInstant())) {
+            throw new InvalidTokenException("Token is not valid yet");
+        }
+
+        if (issuer != null && !issuer.equals(claims.getIssuer())) {
+            throw new InvalidTokenException("Invalid token issuer");
+        }
+    }
+
+    private Optional<AuthenticatedUser> toAuthenticatedUser(JWTClaimsSet claims) {
+        try {
+            String role = claims.getStringClaim("role");
+            if (claims.getSubject() == null || role == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(AuthenticatedUser.ofIdentity(
+                    UUID.fromString(claims.getSubject()),
+                    claims.getStringClaim("email"),
+                    claims.getStringClaim("full_name"),
+                    UserRole.valueOf(role),
+                    claims.getStringClaim("phone_number"),
+                    toInstant(claims.getLongClaim("created_at")),
+                    toInstant(claims.getLongClaim("updated_at"))
+            ));
+        } catch (ParseException | IllegalArgumentException e) {
+            // Claims we do not understand, let the auth service decide
+            return Optional.empty();
+        }
+    }
+
+    private static Instant toInstant(Long epochSeconds) {
+        return epochSeconds == null ? null : Instant.ofEpochSecond(epochSeconds);
+    }
+
+    private void reloadIfDue() {
+        Instant now = clock.instant();
+        if (lastReloadCheck.plus(reloadInterval).isAfter(now) || !reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            lastReloadCheck = now;
+            Snapshot current = snapshot;
+            if (!current.keySetModified().equals(lastModified(keySetPath))
+                    || !current.revocationListModified().equals(lastModified(revocationListPath))) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads the key set and revocation list from disk. If either file cannot be read,
+     * the previously loaded values are kept, along with their modification times so the
+     * next check retries it.
+     */
+    public void reload() {
+        Snapshot current = snapshot;
+        JWKSet keys = current.keys();
+        Instant keySetModified = current.keySetModified();
+        Set<String> revokedIds = current.revokedIds();
+        Instant revocationListModified = current.revocationListModified();
+
+        try {
+            // Taken before reading, so a write that lands during the read is picked up next time
+            Instant modified = lastModified(keySetPath);
+            keys = JWKSet.load(keySetPath.toFile());
+            keySetModified = modified;
+        } catch (IOException | ParseException e) {
+            logger.error("Failed to load token verification key set from {}: {}", keySetPath, e.getMessage());
+        }
+
+        if (revocationListPath != null) {
+            try {
+                Instant modified = lastModified(revocationListPath);
+                revokedIds = Files.readAllLines(revocationListPath).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .collect(Collectors.toUnmodifiableSet());
+                revocationListModified = modified;
+            } catch (IOException e) {
+                logger.error("Failed to load token revocation list from {}: {}", revocationListPath, e.getMessage());
+            }
+        }
+
+        snapshot = new Snapshot(keys, keySetModified, revokedIds, revocationListModified);
+        logger.info("Loaded {} token verification keys and {} revoked token IDs",
+                keys.getKeys().size(), revokedIds.size());
+    }
+
+    private static Instant lastModified(Path path) {
+        if (path == null) {
+            return Instant.EPOCH;
+        }
+        try {
+            return Files.getLastModifiedTime(path).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private record Snapshot(JWKSet keys, Instant keySetModified, Set<String> revokedIds,
+                            Instant revocationListModified) {
+        static final Snapshot EMPTY = new Snapshot(new JWKSet(), Instant.EPOCH, Set.of(), Instant.EPOCH);
+    }
+}
@@ -0,0 +1,176 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring cache of validated bearer tokens.
+ * Entries are keyed by the SHA-256 hash of the token so raw tokens are never kept in memory.
+ * Only successful validations are cached; invalid tokens always go back to the validator.
+ * An entry is kept for the TTL, or until the token's own {@code exp} if that comes first.
+ */
+@Component
+public class TokenValidationCache {
+    public static final String CACHE_NAME = "auth.token.cache";
+
+    private final Cache<String, Entry> cache;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public TokenValidationCache(
+            @Value("${auth.token-cache.ttl:30s}") Duration ttl,
+            @Value("${auth.token-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this(ttl, maxSize, Clock.systemUTC(), Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    TokenValidationCache(Duration ttl, long maxSize, Clock clock, Ticker ticker) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new EntryExpiry())
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached user for the token, validating and caching it on a miss.
+     *
+     * @param token the raw bearer token
+     * @param validator the function used to validate the token on a cache miss
+     * @return the authenticated user
+     */
+    public AuthenticatedUser get(String token, Function<String, AuthenticatedUser> validator) {
+        return get(token, false, validator);
+    }
+
+    /**
+     * Returns the cached user for the token, validating and caching it on a miss.
+     * An identity-only entry does not satisfy a lookup that requires the profile.
+     *
+     * @param token the raw bearer token
+     * @param requireProfile whether the returned user must have its profile loaded
+     * @param validator the function used to validate the token on a cache miss
+     * @return the authenticated user
+     */
+    public AuthenticatedUser get(String token, boolean requireProfile, Function<String, AuthenticatedUser> validator) {
+        String key = hash(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && (!requireProfile || cached.user().profileLoaded())) {
+            return cached.user();
+        }
+
+        // The validator is a remote call, so it runs outside the cache's compute lock
+        AuthenticatedUser user = validator.apply(token);
+        Duration lifetime = lifetime(token);
+        if (lifetime.isPositive()) {
+            cache.put(key, new Entry(user, lifetime.toNanos()));
+        }
+        return user;
+    }
+
+    /**
+     * Removes a single token from the cache, e.g. after logout.
+     *
+     * @param token the raw bearer token
+     */
+    public void invalidate(String token) {
+        cache.invalidate(hash(token));
+    }
+
+    /**
+     * Removes every cached token belonging to the given user, e.g. after a role change.
+     *
+     * @param userId the user ID
+     */
+    public void invalidateUser(UUID userId) {
+        cache.asMap().values().removeIf(entry -> entry.user().id().equals(userId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    // A token that is not a JWT or has no exp claim is kept for the full TTL
+    private Duration lifetime(String token) {
+        Instant expiresAt = expiresAt(token);
+        if (expiresAt == null) {
+            return ttl;
+        }
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+
+    private static Instant expiresAt(String token) {
+        try {
+            JWTClaimsSet claims = JWTParser.parse(token).getJWTClaimsSet();
+            Date expiration = claims == null ? null : claims.getExpirationTime();
+            return expiration == null ? null : expiration.toInstant();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(AuthenticatedUser user, long lifetimeNanos) {}
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.everest.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 
 import java.time.Instant;
@@ -12,11 +13,19 @@ public class GenericResponse<T> {
     private final String message;
     private final String timestamp;
     private final T data;
+    // Continuation token of a paginated listing, omitted on the last page and elsewhere
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String nextCursor;
 
     public GenericResponse(boolean success, String message, T data) {
+        this(success, message, data, null);
+    }
+
+    public GenericResponse(boolean success, String message, T data, String nextCursor) {
         this.success = success;
         this.message = message;
         this.data = data;
+        this.nextCursor = nextCursor;
         this.timestamp = formatTimestamp(Instant.now());
     }
 
@@ -0,0 +1,155 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * <p>While closed, the outcome of the last {@code windowSize} calls is kept. Once at least
+ * {@code minimumCalls} were seen, the breaker opens when the failure rate or the slow-call
+ * rate reaches its threshold. An open breaker rejects calls for {@code openDuration}, then
+ * lets {@code halfOpenCalls} trial calls through: if all succeed it closes, the first
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int position;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(GrpcClientProperties.CircuitBreaker properties) {
+        this(properties.getWindowSize(), properties.getMinimumCalls(), properties.getFailureRateThreshold(),
+                properties.getSlowCallDuration(), properties.getSlowCallRateThreshold(),
+                properties.getOpenDuration(), properties.getHalfOpenCalls(), System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallDuration,
+                   double slowCallRateThreshold, Duration openDuration, int halfOpenCalls, LongSupplier nanoTime) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoTime = nanoTime;
+        this.failures = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be reported with
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     *
+     * @return whether the call may proceed
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized void onFailure(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    /**
+     * Reports a permitted call whose outcome says nothing about the server, e.g. one
+     * cancelled by the caller.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failure, boolean slow) {
+        if (state != State.CLOSED) {
+            // A late result of a call made before the breaker opened
+            return;
+        }
+        if (recorded == windowSize) {
+            failureCount -= failures[position] ? 1 : 0;
+            slowCount -= slowCalls[position] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[position] = failure;
+        slowCalls[position] = slow;
+        failureCount += failure ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        position = (position + 1) % windowSize;
+
+        if (recorded >= minimumCalls
+                && ((double) failureCount / recorded >= failureRateThreshold
+                || (double) slowCount / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        position = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Fails calls fast with {@code UNAVAILABLE} while the circuit breaker of their service is open.
+ * There is one breaker per gRPC service; its state is exported as the
+ * {@value #STATE_METRIC} gauge (0 closed, 1 open, 2 half open).
+ */
+public class CircuitBreakerClientInterceptor implements ClientInterceptor {
+    public static final String STATE_METRIC = "grpc.client.circuit.state";
+
+    // Statuses that say the server is unhealthy, as opposed to the request being wrong
+    private static final Set<Status.Code> FAILURE_CODES = EnumSet.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.INTERNAL,
+            Status.Code.UNKNOWN
+    );
+
+    private final Supplier<CircuitBreaker> breakerFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerClientInterceptor(Supplier<CircuitBreaker> breakerFactory, MeterRegistry meterRegistry) {
+        this.breakerFactory = breakerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker breaker(String serviceName) {
+        return breakers.computeIfAbsent(serviceName, name -> {
+            CircuitBreaker breaker = breakerFactory.get();
+            Gauge.builder(STATE_METRIC, breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state of a gRPC service")
+                    .tag("service", name)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        CircuitBreaker breaker = breaker(method.getServiceName());
+        if (!breaker.tryAcquire()) {
+            return new RejectedCall<>(method.getServiceName());
+        }
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            private boolean started;
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                started = true;
+                long startedAt = System.nanoTime();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        long duration = System.nanoTime() - startedAt;
+                        if (status.getCode() == Status.Code.CANCELLED) {
+                            breaker.onIgnored();
+                        } else if (FAILURE_CODES.contains(status.getCode())) {
+                            breaker.onFailure(duration);
+                        } else {
+                            breaker.onSuccess(duration);
+                        }
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void cancel(String message, Throwable cause) {
+                if (!started) {
+                    breaker.onIgnored();
+                }
+                super.cancel(message, cause);
+            }
+        };
+    }
+
+    private static final class RejectedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+        private final String serviceName;
+
+        private RejectedCall(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            responseListener.onClose(
+                    Status.UNAVAILABLE.withDescription("Circuit breaker is open for " + serviceName),
+                    new Metadata());
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+        }
+    }
+}
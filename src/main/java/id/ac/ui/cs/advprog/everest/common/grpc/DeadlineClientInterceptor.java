@@ -0,0 +1,58 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every call a deadline unless the caller already set one.
+ * Per-method deadlines win over the default.
+ */
+public class DeadlineClientInterceptor implements ClientInterceptor {
+    private final Duration defaultDeadline;
+    private final Map<String, Duration> methodDeadlines = new HashMap<>();
+
+    public DeadlineClientInterceptor(Duration defaultDeadline, Map<String, Duration> methodDeadlines) {
+        this.defaultDeadline = defaultDeadline;
+        methodDeadlines.forEach((method, deadline) -> this.methodDeadlines.put(normalize(method), deadline));
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        if (callOptions.getDeadline() == null) {
+            Duration deadline = deadlineFor(method);
+            if (deadline != null) {
+                callOptions = callOptions.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        return next.newCall(method, callOptions);
+    }
+
+    Duration deadlineFor(MethodDescriptor<?, ?> method) {
+        String serviceName = method.getServiceName();
+        String simpleServiceName = serviceName == null
+                ? ""
+                : serviceName.substring(serviceName.lastIndexOf('.') + 1);
+        String methodName = method.getBareMethodName();
+
+        Duration deadline = methodDeadlines.get(normalize(simpleServiceName + "." + methodName));
+        if (deadline == null) {
+            deadline = methodDeadlines.get(normalize(methodName));
+        }
+        return deadline != null ? deadline : defaultDeadline;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,152 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Channel} that spreads calls round-robin over several {@link ManagedChannel}s,
+ * so peak traffic is not capped by the concurrent stream limit of a single HTTP/2 connection.
+ * Each underlying channel additionally balances across every resolved backend.
+ *
+ * <p>The number of calls in flight on each channel is exported as the
+ * {@value #IN_FLIGHT_METRIC} gauge.
+ */
+public class GrpcChannelPool extends Channel {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcChannelPool.class);
+
+    public static final String IN_FLIGHT_METRIC = "grpc.client.channel.in.flight";
+
+    private final List<ManagedChannel> channels;
+    private final List<Channel> countedChannels = new ArrayList<>();
+    private final List<AtomicInteger> inFlight = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public GrpcChannelPool(List<ManagedChannel> channels, String target, MeterRegistry meterRegistry) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("Channel pool must contain at least one channel");
+        }
+        this.channels = List.copyOf(channels);
+
+        for (int i = 0; i < channels.size(); i++) {
+            AtomicInteger counter = new AtomicInteger();
+            inFlight.add(counter);
+            countedChannels.add(ClientInterceptors.intercept(channels.get(i), new InFlightCounter(counter)));
+            Gauge.builder(IN_FLIGHT_METRIC, counter, AtomicInteger::get)
+                    .description("Calls in flight on a pooled gRPC channel")
+                    .tag("target", target)
+                    .tag("channel", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Builds a pool of channels from the client properties.
+     *
+     * @param properties the client properties
+     * @param meterRegistry the registry for the in-flight gauges
+     * @return the channel pool
+     */
+    public static GrpcChannelPool create(GrpcClientProperties properties, MeterRegistry meterRegistry) {
+        String target = properties.resolveTarget();
+        GrpcClientProperties.Keepalive keepalive = properties.getKeepalive();
+
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, properties.getPool().getSize()); i++) {
+            ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forTarget(target)
+                    .defaultLoadBalancingPolicy(properties.getLoadBalancingPolicy())
+                    .keepAliveTime(keepalive.getTime().toMillis(), TimeUnit.MILLISECONDS)
+                    .keepAliveTimeout(keepalive.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .keepAliveWithoutCalls(keepalive.isWithoutCalls());
+            if (properties.getRetry().isEnabled()) {
+                builder.defaultServiceConfig(RetryServiceConfig.create(properties.getRetry())).enableRetry();
+            } else {
+                builder.disableRetry();
+            }
+            channels.add(properties.isSecure()
+                    ? builder.useTransportSecurity().build()
+                    : builder.usePlaintext().build());
+        }
+        logger.info("Created {} gRPC channels to {}", channels.size(), target);
+        return new GrpcChannelPool(channels, target, meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+                                                         CallOptions callOptions) {
+        int index = Math.floorMod(next.getAndIncrement(), countedChannels.size());
+        return countedChannels.get(index).newCall(method, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channels.get(0).authority();
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    public int inFlight(int channel) {
+        return inFlight.get(channel).get();
+    }
+
+    public boolean isShutdown() {
+        return channels.stream().allMatch(ManagedChannel::isShutdown);
+    }
+
+    public void shutdown() {
+        channels.forEach(ManagedChannel::shutdown);
+    }
+
+    private record InFlightCounter(AtomicInteger counter) implements ClientInterceptor {
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                   CallOptions callOptions,
+                                                                   Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    AtomicBoolean closed = new AtomicBoolean();
+                    counter.incrementAndGet();
+                    try {
+                        super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(
+                                responseListener) {
+                            @Override
+                            public void onClose(Status status, Metadata trailers) {
+                                if (closed.compareAndSet(false, true)) {
+                                    counter.decrementAndGet();
+                                }
+                                super.onClose(status, trailers);
+                            }
+                        }, headers);
+                    } catch (RuntimeException e) {
+                        if (closed.compareAndSet(false, true)) {
+                            counter.decrementAndGet();
+                        }
+                        throw e;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection settings for the auth service gRPC channels.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.grpc")
+public class GrpcClientProperties {
+    private String host = "localhost";
+    private int port = 9090;
+    private boolean secure = false;
+
+    /**
+     * Explicit channel target, e.g. {@code dns:///auth.internal:9090}.
+     * Defaults to {@code dns:///host:port} so every resolved backend is used.
+     */
+    private String target;
+
+    /**
+     * Load balancing policy across the resolved backends of each channel.
+     */
+    private String loadBalancingPolicy = "round_robin";
+
+    /**
+     * Deadline applied to calls that do not set their own.
+     */
+    private Duration deadline = Duration.ofSeconds(2);
+
+    /**
+     * Per-method deadlines keyed by {@code Service.Method} (e.g. {@code AuthService.ValidateToken})
+     * or by method name alone. Takes precedence over {@link #deadline}.
+     */
+    private Map<String, Duration> methodDeadlines = new HashMap<>();
+
+    private Pool pool = new Pool();
+    private Keepalive keepalive = new Keepalive();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Retry retry = new Retry();
+    private Hedging hedging = new Hedging();
+
+    public String resolveTarget() {
+        return target == null || target.isBlank() ? "dns:///" + host + ":" + port : target;
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        /**
+         * Number of channels (HTTP/2 connections per backend) calls are spread across.
+         */
+        private int size = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Keepalive {
+        private Duration time = Duration.ofSeconds(30);
+        private Duration timeout = Duration.ofSeconds(10);
+        private boolean withoutCalls = false;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+
+        /**
+         * Number of most recent calls the failure and slow-call rates are computed over.
+         */
+        private int windowSize = 50;
+
+        /**
+         * Calls needed in the window before the breaker may open.
+         */
+        private int minimumCalls = 20;
+
+        private double failureRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(1);
+        private double slowCallRateThreshold = 0.8;
+
+        /**
+         * How long the breaker fails fast before letting trial calls through.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Successful trial calls needed to close the breaker again.
+         */
+        private int halfOpenCalls = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        private boolean enabled = true;
+
+        /**
+         * Idempotent methods that may be retried, as {@code Service/Method}.
+         */
+        private List<String> methods = new ArrayList<>(List.of(
+                "AuthService/ValidateToken", "AuthService/LookupUser", "UserService/ListUsers"));
+
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        private double backoffMultiplier = 2.0;
+
+        /**
+         * Retry budget: each failure spends a token, each success returns {@code budgetTokenRatio}.
+         * Retries stop while fewer than half of {@code budgetMaxTokens} are left.
+         */
+        private int budgetMaxTokens = 10;
+        private double budgetTokenRatio = 0.1;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = false;
+
+        /**
+         * Methods that may be hedged, as {@code Service/Method}. Must be idempotent.
+         */
+        private List<String> methods = new ArrayList<>(List.of("AuthService/ValidateToken", "AuthService/LookupUser"));
+
+        /**
+         * Latency percentile of recent calls after which a hedged call is sent.
+         */
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        /**
+         * Calls of a method observed before it is hedged.
+         */
+        private int minimumSamples = 50;
+    }
+}
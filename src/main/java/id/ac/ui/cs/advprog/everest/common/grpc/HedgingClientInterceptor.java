@@ -0,0 +1,233 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends a second copy of a unary call when the first has not answered within the
+ * configured latency percentile of recent calls, and uses whichever answers first.
+ * The losing attempt is cancelled.
+ *
+ * <p>Only methods listed as hedgeable (and therefore idempotent) are hedged, and only
+ * after enough calls were observed to know their latency. A failed attempt waits for
+ * the other attempt still in flight before the failure is reported.
+ */
+public class HedgingClientInterceptor implements ClientInterceptor {
+    private static final int LATENCY_WINDOW = 256;
+
+    private final Set<String> methods;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minimumSamples;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+    public HedgingClientInterceptor(GrpcClientProperties.Hedging properties, ScheduledExecutorService scheduler) {
+        this(Set.copyOf(properties.getMethods()), properties.getPercentile(), properties.getMinDelay(),
+                properties.getMinimumSamples(), scheduler);
+    }
+
+    HedgingClientInterceptor(Set<String> methods, double percentile, Duration minDelay, int minimumSamples,
+                             ScheduledExecutorService scheduler) {
+        this.methods = methods;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.minimumSamples = minimumSamples;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        String key = key(method);
+        if (method.getType() != MethodDescriptor.MethodType.UNARY || !methods.contains(key)) {
+            return next.newCall(method, callOptions);
+        }
+        return new HedgingCall<>(method, callOptions, next, tracker(key));
+    }
+
+    LatencyTracker tracker(String key) {
+        return trackers.computeIfAbsent(key, k -> new LatencyTracker(LATENCY_WINDOW, percentile, minimumSamples));
+    }
+
+    static String key(MethodDescriptor<?, ?> method) {
+        String serviceName = method.getServiceName();
+        String simpleServiceName = serviceName == null
+                ? ""
+                : serviceName.substring(serviceName.lastIndexOf('.') + 1);
+        return simpleServiceName + "/" + method.getBareMethodName();
+    }
+
+    private final class HedgingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final LatencyTracker tracker;
+
+        private final Object lock = new Object();
+        private final List<Attempt> attempts = new ArrayList<>();
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private ReqT message;
+        private int requested;
+        private int outstanding;
+        private boolean committed;
+        private ScheduledFuture<?> hedgeTimer;
+
+        private HedgingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next,
+                            LatencyTracker tracker) {
+            this.method = method;
+            this.callOptions = callOptions;
+            this.next = next;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            this.listener = responseListener;
+            this.headers = headers;
+        }
+
+        @Override
+        public void request(int numMessages) {
+            List<Attempt> live;
+            synchronized (lock) {
+                requested += numMessages;
+                live = List.copyOf(attempts);
+            }
+            live.forEach(attempt -> attempt.call.request(numMessages));
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            this.message = message;
+        }
+
+        @Override
+        public void halfClose() {
+            startAttempt();
+            long delay = tracker.percentileNanos();
+            if (delay >= 0) {
+                synchronized (lock) {
+                    if (!committed) {
+                        hedgeTimer = scheduler.schedule(
+                                this::startAttempt, Math.max(delay, minDelayNanos), TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel(String cancelMessage, Throwable cause) {
+            List<Attempt> live;
+            boolean neverStarted;
+            synchronized (lock) {
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                live = List.copyOf(attempts);
+                neverStarted = live.isEmpty() && !committed;
+                committed |= neverStarted;
+            }
+            if (neverStarted && listener != null) {
+                listener.onClose(Status.CANCELLED.withDescription(cancelMessage).withCause(cause), new Metadata());
+            }
+            live.forEach(attempt -> attempt.call.cancel(cancelMessage, cause));
+        }
+
+        private void startAttempt() {
+            synchronized (lock) {
+                if (committed) {
+                    return;
+                }
+            }
+            Attempt attempt = new Attempt(next.newCall(method, callOptions));
+            int toRequest;
+            synchronized (lock) {
+                if (committed) {
+                    // Lets interceptors below release anything reserved for the call
+                    attempt.call.cancel("Hedged call already completed", null);
+                    return;
+                }
+                attempts.add(attempt);
+                outstanding++;
+                toRequest = requested;
+            }
+
+            Metadata attemptHeaders = new Metadata();
+            attemptHeaders.merge(headers);
+            attempt.call.start(attempt, attemptHeaders);
+            if (toRequest > 0) {
+                attempt.call.request(toRequest);
+            }
+            attempt.call.sendMessage(message);
+            attempt.call.halfClose();
+        }
+
+        private final class Attempt extends Listener<RespT> {
+            private final ClientCall<ReqT, RespT> call;
+            private final long startedAt = System.nanoTime();
+            private final List<RespT> messages = new ArrayList<>();
+            private Metadata responseHeaders;
+
+            private Attempt(ClientCall<ReqT, RespT> call) {
+                this.call = call;
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                responseHeaders = headers;
+            }
+
+            @Override
+            public void onMessage(RespT response) {
+                messages.add(response);
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                List<Attempt> losers;
+                synchronized (lock) {
+                    outstanding--;
+                    if (committed || (!status.isOk() && outstanding > 0)) {
+                        // Already answered, or another attempt may still succeed
+                        return;
+                    }
+                    committed = true;
+                    if (hedgeTimer != null) {
+                        hedgeTimer.cancel(false);
+                    }
+                    losers = new ArrayList<>(attempts);
+                    losers.remove(this);
+                }
+
+                if (status.isOk()) {
+                    tracker.record(System.nanoTime() - startedAt);
+                }
+                losers.forEach(loser -> loser.call.cancel("Another hedged attempt completed first", null));
+
+                if (responseHeaders != null) {
+                    listener.onHeaders(responseHeaders);
+                }
+                messages.forEach(listener::onMessage);
+                listener.onClose(status, trailers);
+            }
+        }
+    }
+}
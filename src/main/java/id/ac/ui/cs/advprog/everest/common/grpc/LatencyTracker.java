@@ -0,0 +1,47 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the most recent calls of one method and a periodically
+ * recomputed percentile over them.
+ */
+public class LatencyTracker {
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minimumSamples;
+    private int count;
+    private int position;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int capacity, double percentile, int minimumSamples) {
+        this.samples = new long[capacity];
+        this.percentile = percentile;
+        this.minimumSamples = Math.min(minimumSamples, capacity);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[position] = nanos;
+        position = (position + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= minimumSamples && (count == minimumSamples || position % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+
+    /**
+     * Returns the tracked percentile.
+     *
+     * @return the percentile in nanoseconds, or -1 until enough samples were recorded
+     */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+}
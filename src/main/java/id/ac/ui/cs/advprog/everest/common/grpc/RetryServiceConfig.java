@@ -0,0 +1,56 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the gRPC service config that enables transparent retries for idempotent methods.
+ *
+ * <p>gRPC applies exponential backoff with full jitter between attempts. The retry budget
+ * is gRPC's retry throttling: a token bucket drained by failures and refilled by successes,
+ * so retries stop while the service is failing broadly instead of multiplying the load.
+ */
+public final class RetryServiceConfig {
+    // Both services live in the same proto package
+    private static final String PROTO_PACKAGE =
+            AuthServiceGrpc.SERVICE_NAME.substring(0, AuthServiceGrpc.SERVICE_NAME.lastIndexOf('.'));
+
+    private RetryServiceConfig() {
+    }
+
+    public static Map<String, Object> create(GrpcClientProperties.Retry retry) {
+        List<Object> names = new ArrayList<>();
+        for (String method : retry.getMethods()) {
+            String[] parts = method.split("/");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Retry method must be Service/Method: " + method);
+            }
+            names.add(Map.of("service", PROTO_PACKAGE + "." + parts[0], "method", parts[1]));
+        }
+
+        Map<String, Object> retryPolicy = Map.of(
+                "maxAttempts", (double) retry.getMaxAttempts(),
+                "initialBackoff", seconds(retry.getInitialBackoff()),
+                "maxBackoff", seconds(retry.getMaxBackoff()),
+                "backoffMultiplier", retry.getBackoffMultiplier(),
+                "retryableStatusCodes", List.of("UNAVAILABLE")
+        );
+
+        return Map.of(
+                "methodConfig", List.of(Map.of("name", names, "retryPolicy", retryPolicy)),
+                "retryThrottling", Map.of(
+                        "maxTokens", (double) retry.getBudgetMaxTokens(),
+                        "tokenRatio", retry.getBudgetTokenRatio()
+                )
+        );
+    }
+
+    private static String seconds(Duration duration) {
+        return String.format(Locale.ROOT, "%.3fs", duration.toNanos() / 1e9);
+    }
+}
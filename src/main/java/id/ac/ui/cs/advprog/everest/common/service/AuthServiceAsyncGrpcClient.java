@@ -0,0 +1,200 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
+import id.ac.ui.cs.advprog.everest.common.utils.GrpcFutures;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.BatchUserLookupRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.BatchUserLookupResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.TokenValidationRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentifier;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of {@link AuthServiceGrpcClient} built on the gRPC future stub.
+ * No thread is parked while a call is in flight, so callers can overlap remote work with
+ * their own work and join the results later.
+ *
+ * <p>Every call carries a deadline (the configured default, or the one given to
+ * {@link #withDeadline(Duration)}). Cancelling a returned future cancels the RPC.
+ * Failures complete the future with the same exceptions the blocking client throws.
+ */
+public class AuthServiceAsyncGrpcClient {
+    private final AuthServiceGrpc.AuthServiceFutureStub stub;
+    private final RequestMetadataUtil metadataUtil;
+    private final Duration deadline;
+
+    public AuthServiceAsyncGrpcClient(AuthServiceGrpc.AuthServiceFutureStub stub, RequestMetadataUtil metadataUtil) {
+        this(stub, metadataUtil, null);
+    }
+
+    public AuthServiceAsyncGrpcClient(AuthServiceGrpc.AuthServiceFutureStub stub,
+                                      RequestMetadataUtil metadataUtil,
+                                      Duration deadline) {
+        this.stub = stub;
+        this.metadataUtil = metadataUtil;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a client that applies the given deadline to each call instead of the default.
+     *
+     * @param deadline the per-call deadline
+     * @return a client sharing this client's stub
+     */
+    public AuthServiceAsyncGrpcClient withDeadline(Duration deadline) {
+        return new AuthServiceAsyncGrpcClient(stub, metadataUtil, deadline);
+    }
+
+    /**
+     * Validates a token.
+     *
+     * @param token the token to validate
+     * @param includeProfile whether to request and map the user profile, or only the identity
+     * @return a future completed with the authenticated user, or failed with
+     *         {@link InvalidTokenException} or {@link AuthServiceException}
+     */
+    public CompletableFuture<AuthenticatedUser> validateToken(String token, boolean includeProfile) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token must not be null or blank");
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().validateToken(
+                        TokenValidationRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setToken(token)
+                                .setIncludeUserData(true)
+                                .setIdentityOnly(!includeProfile)
+                                .build()
+                ),
+                response -> AuthServiceGrpcClient.toAuthenticatedUser(response, includeProfile),
+                e -> new AuthServiceException("Failed to communicate with Auth service", e)
+        );
+    }
+
+    /**
+     * Loads the profile of a user that was authenticated with an identity-only validation.
+     *
+     * @param user the identity-only user
+     * @return a future completed with the same user with its profile populated
+     */
+    public CompletableFuture<AuthenticatedUser> loadProfile(AuthenticatedUser user) {
+        if (user.profileLoaded()) {
+            return CompletableFuture.completedFuture(user);
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().lookupUser(
+                        UserLookupRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setUserId(user.id().toString())
+                                .build()
+                ),
+                response -> AuthServiceGrpcClient.withProfile(user, response.getUserData().getProfile()),
+                e -> new AuthServiceException("Failed to lookup user by ID", e)
+        );
+    }
+
+    /**
+     * Looks up a user by ID.
+     *
+     * @param userId the user ID
+     * @return a future completed with the user lookup response
+     */
+    public CompletableFuture<UserLookupResponse> lookupUserById(String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("User ID must not be null or blank");
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().lookupUser(
+                        UserLookupRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setUserId(userId)
+                                .build()
+                ),
+                e -> new AuthServiceException("Failed to lookup user by ID", e)
+        );
+    }
+
+    /**
+     * Looks up a user by email.
+     *
+     * @param email the user email
+     * @return a future completed with the user lookup response
+     */
+    public CompletableFuture<UserLookupResponse> lookupUserByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email must not be null or blank");
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().lookupUser(
+                        UserLookupRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setEmail(email)
+                                .build()
+                ),
+                e -> new AuthServiceException("Failed to lookup user by email", e)
+        );
+    }
+
+    /**
+     * Batch lookup of users by IDs.
+     *
+     * @param userIds the list of user IDs
+     * @param includeProfile whether to include profile data
+     * @return a future completed with the batch user lookup response
+     */
+    public CompletableFuture<BatchUserLookupResponse> batchLookupUsersByIds(List<String> userIds,
+                                                                            boolean includeProfile) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("User IDs list must not be null or empty");
+        }
+        BatchUserLookupRequest.Builder requestBuilder = BatchUserLookupRequest.newBuilder()
+                .setMetadata(metadataUtil.create())
+                .setIncludeProfile(includeProfile);
+        for (String userId : userIds) {
+            requestBuilder.addIdentifiers(UserIdentifier.newBuilder().setUserId(userId).build());
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().batchLookupUsers(requestBuilder.build()),
+                e -> new AuthServiceException("Failed to batch lookup users by IDs", e)
+        );
+    }
+
+    /**
+     * Batch lookup of users by emails.
+     *
+     * @param emails the list of user emails
+     * @param includeProfile whether to include profile data
+     * @return a future completed with the batch user lookup response
+     */
+    public CompletableFuture<BatchUserLookupResponse> batchLookupUsersByEmails(List<String> emails,
+                                                                               boolean includeProfile) {
+        if (emails == null || emails.isEmpty()) {
+            throw new IllegalArgumentException("Emails list must not be null or empty");
+        }
+        BatchUserLookupRequest.Builder requestBuilder = BatchUserLookupRequest.newBuilder()
+                .setMetadata(metadataUtil.create())
+                .setIncludeProfile(includeProfile);
+        for (String email : emails) {
+            requestBuilder.addIdentifiers(UserIdentifier.newBuilder().setEmail(email).build());
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().batchLookupUsers(requestBuilder.build()),
+                e -> new AuthServiceException("Failed to batch lookup users by emails", e)
+        );
+    }
+
+    private AuthServiceGrpc.AuthServiceFutureStub stubWithDeadline() {
+        // Deadlines are absolute, so one is attached per call rather than to the shared stub.
+        // Without an explicit deadline the channel's default per-method deadline applies
+        return deadline == null ? stub : stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -4,6 +4,7 @@ import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
 import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
 import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.everest.common.utils.SingleFlight;
 import id.ac.ui.cs.advprog.everest.common.utils.TimestampUtil;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.BatchUserLookupRequest;
@@ -15,21 +16,40 @@ import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.TokenValidationResponse;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentifier;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupRequest;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserProfile;
 import io.grpc.StatusRuntimeException;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
 
 @Service
-@AllArgsConstructor
 public class AuthServiceGrpcClient {
     private final AuthServiceGrpc.AuthServiceBlockingStub stub;
     private final RequestMetadataUtil metadataUtil;
+    private final UserLookupCache userLookupCache;
+    private final SingleFlight<TokenValidationKey, AuthenticatedUser> tokenValidations = new SingleFlight<>();
+
+    public AuthServiceGrpcClient(AuthServiceGrpc.AuthServiceBlockingStub stub, RequestMetadataUtil metadataUtil) {
+        this(stub, metadataUtil, null);
+    }
 
     /**
-     * Validates a token and returns the authenticated user.
+     * @param userLookupCache the cache for user lookups, or {@code null} to always call the auth service
+     */
+    @Autowired
+    public AuthServiceGrpcClient(AuthServiceGrpc.AuthServiceBlockingStub stub,
+                                 RequestMetadataUtil metadataUtil,
+                                 UserLookupCache userLookupCache) {
+        this.stub = stub;
+        this.metadataUtil = metadataUtil;
+        this.userLookupCache = userLookupCache;
+    }
+
+    /**
+     * Validates a token and returns the authenticated user including the profile.
      *
      * @param token the token to validate
      * @return the authenticated user
@@ -37,40 +57,90 @@ public class AuthServiceGrpcClient {
      * @throws AuthServiceException if there's an issue communicating with the auth service
      */
     public AuthenticatedUser validateToken(String token) {
+        return validateToken(token, true);
+    }
+
+    /**
+     * Validates a token and returns the authenticated user.
+     * Concurrent validations of the same token share a single in-flight call.
+     *
+     * @param token the token to validate
+     * @param includeProfile whether to request and map the user profile, or only the identity
+     * @return the authenticated user
+     * @throws InvalidTokenException if the token is invalid
+     * @throws AuthServiceException if there's an issue communicating with the auth service
+     */
+    public AuthenticatedUser validateToken(String token, boolean includeProfile) {
         if (token == null || token.isBlank()) {
             throw new IllegalArgumentException("Token must not be null or blank");
         }
+        return tokenValidations.execute(
+                new TokenValidationKey(token, includeProfile),
+                () -> fetchTokenValidation(token, includeProfile)
+        );
+    }
+
+    private AuthenticatedUser fetchTokenValidation(String token, boolean includeProfile) {
         try {
             TokenValidationResponse response = stub.validateToken(
                     TokenValidationRequest.newBuilder()
                             .setMetadata(metadataUtil.create())
                             .setToken(token)
                             .setIncludeUserData(true)
+                            .setIdentityOnly(!includeProfile)
                             .build()
             );
-            if (!response.getValid()) {
-                throw new InvalidTokenException("Invalid token");
-            }
-            var identity = response.getUserData().getIdentity();
-            var profile = response.getUserData().getProfile();
-            return new AuthenticatedUser(
-                    UUID.fromString(identity.getId()),
-                    identity.getEmail(),
-                    identity.getFullName(),
-                    identity.getRole(),
-                    identity.getPhoneNumber(),
-                    TimestampUtil.toInstant(identity.getCreatedAt()),
-                    TimestampUtil.toInstant(identity.getUpdatedAt()),
-                    profile.getAddress(),
-                    profile.getWorkExperience(),
-                    profile.getTotalJobsDone(),
-                    profile.getTotalIncome()
-            );
+            return toAuthenticatedUser(response, includeProfile);
         } catch (StatusRuntimeException e) {
             throw new AuthServiceException("Failed to communicate with Auth service", e);
         }
     }
 
+    /**
+     * Loads the profile of a user that was authenticated with an identity-only validation.
+     *
+     * @param user the identity-only user
+     * @return the same user with its profile populated
+     * @throws AuthServiceException if there's an issue communicating with the auth service
+     */
+    public AuthenticatedUser loadProfile(AuthenticatedUser user) {
+        if (user.profileLoaded()) {
+            return user;
+        }
+        UserLookupResponse response = lookupUserById(user.id().toString());
+        return withProfile(user, response.getUserData().getProfile());
+    }
+
+    static AuthenticatedUser toAuthenticatedUser(TokenValidationResponse response, boolean includeProfile) {
+        if (!response.getValid()) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        return toAuthenticatedUser(response.getUserData(), includeProfile);
+    }
+
+    static AuthenticatedUser toAuthenticatedUser(UserData userData, boolean includeProfile) {
+        var identity = userData.getIdentity();
+        AuthenticatedUser user = AuthenticatedUser.ofIdentity(
+                UUID.fromString(identity.getId()),
+                identity.getEmail(),
+                identity.getFullName(),
+                identity.getRole(),
+                identity.getPhoneNumber(),
+                TimestampUtil.toInstant(identity.getCreatedAt()),
+                TimestampUtil.toInstant(identity.getUpdatedAt())
+        );
+        return includeProfile ? withProfile(user, userData.getProfile()) : user;
+    }
+
+    static AuthenticatedUser withProfile(AuthenticatedUser user, UserProfile profile) {
+        return user.withProfile(
+                profile.getAddress(),
+                profile.getWorkExperience(),
+                profile.getTotalJobsDone(),
+                profile.getTotalIncome()
+        );
+    }
+
     /**
      * Refreshes an access token.
      *
@@ -95,7 +165,7 @@ public class AuthServiceGrpcClient {
     }
 
     /**
-     * Looks up a user by ID.
+     * Looks up a user by ID, from the user lookup cache when possible.
      *
      * @param userId the user ID
      * @return the user lookup response
@@ -105,6 +175,12 @@ public class AuthServiceGrpcClient {
         if (userId == null || userId.isBlank()) {
             throw new IllegalArgumentException("User ID must not be null or blank");
         }
+        return userLookupCache == null
+                ? fetchUserById(userId)
+                : userLookupCache.getById(userId, () -> fetchUserById(userId));
+    }
+
+    private UserLookupResponse fetchUserById(String userId) {
         try {
             return stub.lookupUser(
                     UserLookupRequest.newBuilder()
@@ -118,7 +194,7 @@ public class AuthServiceGrpcClient {
     }
 
     /**
-     * Looks up a user by email.
+     * Looks up a user by email, from the user lookup cache when possible.
      *
      * @param email the user email
      * @return the user lookup response
@@ -128,6 +204,12 @@ public class AuthServiceGrpcClient {
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("Email must not be null or blank");
         }
+        return userLookupCache == null
+                ? fetchUserByEmail(email)
+                : userLookupCache.getByEmail(email, () -> fetchUserByEmail(email));
+    }
+
+    private UserLookupResponse fetchUserByEmail(String email) {
         try {
             return stub.lookupUser(
                     UserLookupRequest.newBuilder()
@@ -197,4 +279,6 @@ public class AuthServiceGrpcClient {
             throw new AuthServiceException("Failed to batch lookup users by emails", e);
         }
     }
+
+    private record TokenValidationKey(String token, boolean includeProfile) {}
 }
\ No newline at end of file
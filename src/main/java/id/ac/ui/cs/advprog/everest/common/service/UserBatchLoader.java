@@ -0,0 +1,172 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.BatchUserLookupResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collects the user lookups issued while handling a request and resolves them with
+ * batched {@code BatchLookupUsers} calls instead of one {@code LookupUser} call per user.
+ *
+ * <p>{@link #load(UUID)} only queues the id; {@link #dispatch()} sends every queued id,
+ * de-duplicated and split into batches of at most the configured size. {@link #get(UUID)}
+ * and {@link #getAll(Collection)} dispatch on demand, so callers that enrich a list
+ * should queue every row first and read the results afterwards. Results are kept for the
+ * rest of the request; failed lookups are forgotten so they can be retried.
+ */
+@Component
+@RequestScope
+public class UserBatchLoader {
+    private final AuthServiceGrpcClient authServiceGrpcClient;
+    private final int maxBatchSize;
+
+    private final Map<UUID, CompletableFuture<Optional<AuthenticatedUser>>> lookups = new HashMap<>();
+    private final Set<UUID> pending = new LinkedHashSet<>();
+
+    @Autowired
+    public UserBatchLoader(AuthServiceGrpcClient authServiceGrpcClient,
+                           @Value("${auth.user-batch.max-size:100}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.authServiceGrpcClient = authServiceGrpcClient;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a user lookup without calling the auth service.
+     *
+     * @param userId the user ID
+     * @return a future completed with the user, or empty if the user does not exist, once dispatched
+     */
+    public synchronized CompletableFuture<Optional<AuthenticatedUser>> load(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID must not be null");
+        }
+        return lookups.computeIfAbsent(userId, id -> {
+            pending.add(id);
+            return new CompletableFuture<>();
+        });
+    }
+
+    /**
+     * Resolves a single user, dispatching any queued lookups together with it.
+     *
+     * @param userId the user ID
+     * @return the user, or empty if the user does not exist
+     * @throws AuthServiceException if there's an issue communicating with the auth service
+     */
+    public Optional<AuthenticatedUser> get(UUID userId) {
+        CompletableFuture<Optional<AuthenticatedUser>> lookup = load(userId);
+        dispatch();
+        return join(lookup);
+    }
+
+    /**
+     * Resolves several users with as few calls as possible.
+     *
+     * @param userIds the user IDs
+     * @return the users found, keyed by ID in request order; missing users are left out
+     * @throws AuthServiceException if there's an issue communicating with the auth service
+     */
+    public Map<UUID, AuthenticatedUser> getAll(Collection<UUID> userIds) {
+        Map<UUID, CompletableFuture<Optional<AuthenticatedUser>>> requested = new LinkedHashMap<>();
+        for (UUID userId : userIds) {
+            requested.computeIfAbsent(userId, this::load);
+        }
+        dispatch();
+
+        Map<UUID, AuthenticatedUser> users = new LinkedHashMap<>();
+        requested.forEach((userId, lookup) -> join(lookup).ifPresent(user -> users.put(userId, user)));
+        return users;
+    }
+
+    /**
+     * Sends every queued lookup to the auth service.
+     *
+     * @throws AuthServiceException if there's an issue communicating with the auth service
+     */
+    public void dispatch() {
+        List<UUID> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        for (int from = 0; from < batch.size(); from += maxBatchSize) {
+            List<UUID> chunk = batch.subList(from, Math.min(from + maxBatchSize, batch.size()));
+            try {
+                complete(chunk, authServiceGrpcClient.batchLookupUsersByIds(
+                        chunk.stream().map(UUID::toString).toList(), false));
+            } catch (RuntimeException e) {
+                fail(batch.subList(from, batch.size()), e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups queued but not yet dispatched.
+     *
+     * @return the pending lookup count
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void complete(List<UUID> chunk, BatchUserLookupResponse response) {
+        Map<UUID, AuthenticatedUser> found = new HashMap<>();
+        for (UserLookupResult result : response.getResultsList()) {
+            if (result.getFound()) {
+                AuthenticatedUser user = AuthServiceGrpcClient.toAuthenticatedUser(result.getUserData(), false);
+                found.put(user.id(), user);
+            }
+        }
+
+        synchronized (this) {
+            for (UUID userId : chunk) {
+                lookups.get(userId).complete(Optional.ofNullable(found.get(userId)));
+            }
+        }
+    }
+
+    private void fail(List<UUID> userIds, RuntimeException cause) {
+        synchronized (this) {
+            for (UUID userId : userIds) {
+                lookups.remove(userId).completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static Optional<AuthenticatedUser> join(CompletableFuture<Optional<AuthenticatedUser>> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserLookupResponse;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring cache of {@code LookupUser} results shared across requests.
+ * A user found by ID is also cached under its email and the other way round, so either
+ * lookup is served from the same entry.
+ *
+ * <p>Users that do not exist are cached too, for a shorter time, so repeated lookups of a
+ * stale ID do not reach the auth service. Failures other than not-found are never cached.
+ */
+@Component
+public class UserLookupCache {
+    public static final String CACHE_NAME = "auth.user.cache";
+
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public UserLookupCache(
+            @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+            @Value("${auth.user-cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this(ttl, negativeTtl, maxSize, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    UserLookupCache(Duration ttl, Duration negativeTtl, long maxSize, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new EntryExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached lookup for the user ID, loading and caching it on a miss.
+     *
+     * @param userId the user ID
+     * @param loader the remote lookup used on a cache miss
+     * @return the user lookup response
+     * @throws AuthServiceException if the user does not exist or the lookup fails
+     */
+    public UserLookupResponse getById(String userId, Supplier<UserLookupResponse> loader) {
+        return get(idKey(userId), loader);
+    }
+
+    /**
+     * Returns the cached lookup for the email, loading and caching it on a miss.
+     *
+     * @param email the user email
+     * @param loader the remote lookup used on a cache miss
+     * @return the user lookup response
+     * @throws AuthServiceException if the user does not exist or the lookup fails
+     */
+    public UserLookupResponse getByEmail(String email, Supplier<UserLookupResponse> loader) {
+        return get(emailKey(email), loader);
+    }
+
+    private UserLookupResponse get(String key, Supplier<UserLookupResponse> loader) {
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.unwrap();
+        }
+
+        // The loader is a remote call, so it runs outside the cache's compute lock
+        Entry entry;
+        try {
+            entry = Entry.found(loader.get());
+        } catch (AuthServiceException e) {
+            if (!isNotFound(e)) {
+                throw e;
+            }
+            entry = Entry.notFound(e);
+        }
+
+        cache.put(key, entry);
+        if (entry.response() != null && entry.response().hasUserData()) {
+            UserIdentity identity = entry.response().getUserData().getIdentity();
+            if (!identity.getId().isEmpty()) {
+                cache.put(idKey(identity.getId()), entry);
+            }
+            if (!identity.getEmail().isEmpty()) {
+                cache.put(emailKey(identity.getEmail()), entry);
+            }
+        }
+        return entry.unwrap();
+    }
+
+    /**
+     * Removes a user from the cache, e.g. after its profile changed.
+     *
+     * @param userId the user ID
+     */
+    public void invalidate(String userId) {
+        Entry entry = cache.getIfPresent(idKey(userId));
+        cache.invalidate(idKey(userId));
+        if (entry != null && entry.response() != null && entry.response().hasUserData()) {
+            cache.invalidate(emailKey(entry.response().getUserData().getIdentity().getEmail()));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String idKey(String userId) {
+        return "id:" + userId;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNotFound(AuthServiceException e) {
+        return e.getCause() instanceof StatusRuntimeException statusException
+                && statusException.getStatus().getCode() == Status.Code.NOT_FOUND;
+    }
+
+    private record Entry(UserLookupResponse response, AuthServiceException notFound) {
+        static Entry found(UserLookupResponse response) {
+            return new Entry(response, null);
+        }
+
+        static Entry notFound(AuthServiceException e) {
+            return new Entry(null, e);
+        }
+
+        boolean missing() {
+            return notFound != null || !response.hasUserData();
+        }
+
+        UserLookupResponse unwrap() {
+            if (notFound != null) {
+                throw new AuthServiceException(notFound.getMessage(), notFound.getCause());
+            }
+            return response;
+        }
+    }
+
+    private record EntryExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.missing() ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import id.ac.ui.cs.advprog.everest.common.utils.GrpcFutures;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.ListUsersRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.ListUsersResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserServiceGrpc;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of {@link UserServiceGrpcClient} built on the gRPC future stub.
+ * Every call carries a deadline and cancelling a returned future cancels the RPC.
+ */
+public class UserServiceAsyncGrpcClient {
+    private final UserServiceGrpc.UserServiceFutureStub stub;
+    private final RequestMetadataUtil metadataUtil;
+    private final Duration deadline;
+
+    public UserServiceAsyncGrpcClient(UserServiceGrpc.UserServiceFutureStub stub, RequestMetadataUtil metadataUtil) {
+        this(stub, metadataUtil, null);
+    }
+
+    public UserServiceAsyncGrpcClient(UserServiceGrpc.UserServiceFutureStub stub,
+                                      RequestMetadataUtil metadataUtil,
+                                      Duration deadline) {
+        this.stub = stub;
+        this.metadataUtil = metadataUtil;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a client that applies the given deadline to each call instead of the default.
+     *
+     * @param deadline the per-call deadline
+     * @return a client sharing this client's stub
+     */
+    public UserServiceAsyncGrpcClient withDeadline(Duration deadline) {
+        return new UserServiceAsyncGrpcClient(stub, metadataUtil, deadline);
+    }
+
+    /**
+     * Lists users with pagination.
+     *
+     * @param page the page number (0-indexed)
+     * @param size the page size
+     * @return a future completed with the list users response
+     */
+    public CompletableFuture<ListUsersResponse> listUsers(int page, int size) {
+        validatePage(page, size);
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().listUsers(
+                        ListUsersRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setPageNumber(page)
+                                .setPageSize(size)
+                                .build()
+                ),
+                e -> new RuntimeException("Failed to list users", e)
+        );
+    }
+
+    /**
+     * Lists users with pagination and role filtering.
+     *
+     * @param page the page number (0-indexed)
+     * @param size the page size
+     * @param role the user role to filter by
+     * @return a future completed with the list users response
+     */
+    public CompletableFuture<ListUsersResponse> listUsersByRole(int page, int size, UserRole role) {
+        validatePage(page, size);
+        if (role == null) {
+            throw new IllegalArgumentException("Role must not be null");
+        }
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().listUsers(
+                        ListUsersRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .setPageNumber(page)
+                                .setPageSize(size)
+                                .setRole(role)
+                                .build()
+                ),
+                e -> new RuntimeException("Failed to list users by role", e)
+        );
+    }
+
+    /**
+     * Gets a random technician.
+     *
+     * @return a future completed with the random technician response
+     */
+    public CompletableFuture<GetRandomTechnicianResponse> getRandomTechnician() {
+        return GrpcFutures.toCompletableFuture(
+                stubWithDeadline().getRandomTechnician(
+                        GetRandomTechnicianRequest.newBuilder()
+                                .setMetadata(metadataUtil.create())
+                                .build()
+                ),
+                e -> new RuntimeException("Failed to get random technician", e)
+        );
+    }
+
+    private static void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number must not be negative");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+
+    private UserServiceGrpc.UserServiceFutureStub stubWithDeadline() {
+        // Without an explicit deadline the channel's default per-method deadline applies
+        return deadline == null ? stub : stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,59 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Entity tags for resources versioned by their last update time, and matching of
+ * {@code If-None-Match} against them.
+ */
+public final class ETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the strong entity tag of a resource last updated at the given time.
+     *
+     * @param updatedAt the last update time, or null if unknown
+     * @return the quoted tag, or null if the update time is unknown
+     */
+    public static String of(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        // Databases keep microseconds, so a time read back tags the same as the one written.
+        // The offset only has to be fixed, the tag is compared and never turned back into a time
+        LocalDateTime version = updatedAt.truncatedTo(ChronoUnit.MICROS);
+        return '"' + Long.toHexString(version.toEpochSecond(ZoneOffset.UTC))
+                + '.' + Integer.toHexString(version.getNano()) + '"';
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header matches the current tag, comparing weakly
+     * as RFC 9110 requires for this header.
+     *
+     * @param ifNoneMatch the header value, a comma-separated list of tags or {@code *}
+     * @param etag the current tag, or null if the resource has none
+     * @return whether the client already holds the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY) || stripWeak(tag).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,93 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent tasks concurrently, each on its own virtual thread, and waits for all
+ * of them under a single deadline. The first failure or the deadline cancels the tasks
+ * still running, interrupting their threads.
+ *
+ * <p>A stand-in for {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview
+ * API on Java 21. Forks and joins from the owning thread only.
+ */
+public class FailFastScope implements AutoCloseable {
+    private final ExecutorService executor;
+    private final CompletionService<Object> completion;
+    private final List<Future<Object>> futures = new ArrayList<>();
+
+    public FailFastScope(String name) {
+        this(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    FailFastScope(ThreadFactory threadFactory) {
+        this.executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        this.completion = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * Starts a task in the scope.
+     *
+     * @param task the task to run
+     * @param <T> the result type
+     * @return the task's result, available once {@link #join} returns normally
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> fork(Callable<? extends T> task) {
+        Future<Object> future = completion.submit(task::call);
+        futures.add(future);
+        return () -> (T) future.resultNow();
+    }
+
+    /**
+     * Waits for every forked task to complete.
+     *
+     * @param timeout the time allowed for all tasks together
+     * @throws ExecutionException with the cause of the first task to fail
+     * @throws TimeoutException if the tasks did not all complete in time
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void join(Duration timeout) throws ExecutionException, TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (int remaining = futures.size(); remaining > 0; remaining--) {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new TimeoutException("Tasks did not complete within " + timeout);
+                }
+                if (done.state() == Future.State.FAILED) {
+                    throw new ExecutionException(done.exceptionNow());
+                }
+            }
+        } finally {
+            cancelUnfinished();
+        }
+    }
+
+    /**
+     * Cancels any task still running. Does not wait for cancelled tasks to finish.
+     */
+    @Override
+    public void close() {
+        cancelUnfinished();
+        executor.shutdownNow();
+    }
+
+    private void cancelUnfinished() {
+        for (Future<Object> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
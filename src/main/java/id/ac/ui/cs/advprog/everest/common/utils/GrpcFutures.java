@@ -0,0 +1,86 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bridges gRPC future stub results to {@link CompletableFuture}.
+ */
+public final class GrpcFutures {
+
+    private GrpcFutures() {
+    }
+
+    /**
+     * Adapts a gRPC call future. Cancelling the returned future cancels the RPC, and
+     * gRPC status failures are translated with the given mapper.
+     *
+     * <p>The returned future completes on a gRPC transport thread, so callers that do
+     * blocking or heavy work on the result should continue with an {@code *Async}
+     * stage on their own executor.
+     *
+     * @param call the future returned by a gRPC future stub
+     * @param errorMapper translates a failed gRPC status into the client's exception type
+     * @param <T> the response type
+     * @return a future completed with the response or the translated failure
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(
+            ListenableFuture<T> call,
+            Function<Throwable, RuntimeException> errorMapper
+    ) {
+        return toCompletableFuture(call, Function.identity(), errorMapper);
+    }
+
+    /**
+     * Adapts a gRPC call future and maps its response. The mapping runs inside the adapter,
+     * so cancelling the returned future still cancels the RPC (a {@code thenApply} stage
+     * would not propagate the cancellation).
+     *
+     * @param call the future returned by a gRPC future stub
+     * @param mapper maps the response; exceptions it throws fail the returned future
+     * @param errorMapper translates a failed gRPC status into the client's exception type
+     * @param <T> the response type
+     * @param <R> the mapped type
+     * @return a future completed with the mapped response or the failure
+     */
+    public static <T, R> CompletableFuture<R> toCompletableFuture(
+            ListenableFuture<T> call,
+            Function<? super T, ? extends R> mapper,
+            Function<Throwable, RuntimeException> errorMapper
+    ) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T value) {
+                try {
+                    result.complete(mapper.apply(value));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                if (error instanceof StatusRuntimeException || error instanceof StatusException) {
+                    result.completeExceptionally(errorMapper.apply(error));
+                } else {
+                    result.completeExceptionally(error);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+}
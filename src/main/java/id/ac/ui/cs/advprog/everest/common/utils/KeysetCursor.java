@@ -0,0 +1,76 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for listings ordered by {@code (createdAt, id)}, carrying the
+ * keys of the last row returned so the next page starts right after it.
+ *
+ * @param createdAt the creation time of the last row returned
+ * @param id the ID of the last row returned
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Decodes a token issued by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws ValidationException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Reads the keys of a position returned by a keyset scroll query.
+     *
+     * @param position the position of the last row returned
+     * @return the cursor
+     */
+    public static KeysetCursor of(ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        return new KeysetCursor((LocalDateTime) keys.get(CREATED_AT), (UUID) keys.get(ID));
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the position to continue a forward keyset scroll from.
+     *
+     * @return the scroll position
+     */
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(CREATED_AT, createdAt);
+        keys.put(ID, id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,87 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the current version of resources, so conditional reads can be answered
+ * without going to the database.
+ *
+ * <p>Writers evict what they change once their transaction commits. Changes made without
+ * eviction, such as on another instance, are seen once the entry expires, so the TTL bounds
+ * how long a stale version may be served. A TTL of zero turns caching off.
+ *
+ * @param <K> the resource ID type
+ * @param <V> the version type
+ */
+public class VersionCache<K, V> {
+    private final Cache<K, V> cache;
+    private final Function<K, Optional<V>> loader;
+
+    /**
+     * @param ttl how long a loaded version is trusted
+     * @param maxSize the most versions kept
+     * @param loader reads the current version, empty if the resource does not exist
+     */
+    public VersionCache(Duration ttl, long maxSize, Function<K, Optional<V>> loader) {
+        this(ttl, maxSize, loader, Ticker.systemTicker());
+    }
+
+    VersionCache(Duration ttl, long maxSize, Function<K, Optional<V>> loader, Ticker ticker) {
+        this.cache = ttl.isZero() || ttl.isNegative() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .build();
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the current version of a resource, loading it on a miss. Missing resources are
+     * not cached.
+     *
+     * @param id the resource ID
+     * @return the version, or empty if the resource does not exist
+     */
+    public Optional<V> get(K id) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        V cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<V> loaded = loader.apply(id);
+        loaded.ifPresent(version -> cache.put(id, version));
+        return loaded;
+    }
+
+    /**
+     * Forgets the version of a changed resource. Inside a transaction this waits until the
+     * transaction completes, so the next read loads the committed version.
+     *
+     * @param id the resource ID
+     */
+    public void evict(K id) {
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate(id);
+            }
+        });
+    }
+}
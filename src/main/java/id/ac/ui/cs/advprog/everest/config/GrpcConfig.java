@@ -1,52 +1,89 @@
 package id.ac.ui.cs.advprog.everest.config;
 
+import id.ac.ui.cs.advprog.everest.common.grpc.CircuitBreaker;
+import id.ac.ui.cs.advprog.everest.common.grpc.CircuitBreakerClientInterceptor;
+import id.ac.ui.cs.advprog.everest.common.grpc.DeadlineClientInterceptor;
+import id.ac.ui.cs.advprog.everest.common.grpc.GrpcChannelPool;
+import id.ac.ui.cs.advprog.everest.common.grpc.GrpcClientProperties;
+import id.ac.ui.cs.advprog.everest.common.grpc.HedgingClientInterceptor;
+import id.ac.ui.cs.advprog.everest.common.service.AuthServiceAsyncGrpcClient;
 import id.ac.ui.cs.advprog.everest.common.service.AuthServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.service.UserServiceAsyncGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.service.UserLookupCache;
 import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
 import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserServiceGrpc;
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 @Configuration
+@EnableConfigurationProperties(GrpcClientProperties.class)
 public class GrpcConfig {
-    @Value("${auth.grpc.secure:false}")
-    private boolean useSecure;
-
-    private ManagedChannel managedChannel;
+    private GrpcChannelPool channelPool;
+    private ScheduledExecutorService hedgingScheduler;
 
     @Bean
-    public ManagedChannel authServiceChannel(
-            @Value("${auth.grpc.host}") String host,
-            @Value("${auth.grpc.port}") int port
-    ) {
-        this.managedChannel = useSecure
-                ? ManagedChannelBuilder.forAddress(host, port).useTransportSecurity().build()
-                : ManagedChannelBuilder.forAddress(host, port).usePlaintext().build();
-        return this.managedChannel;
+    public Channel authServiceChannel(GrpcClientProperties properties, MeterRegistry meterRegistry) {
+        this.channelPool = GrpcChannelPool.create(properties, meterRegistry);
+
+        // Interceptors run last to first: deadline, then hedging, then the circuit breaker per attempt
+        List<ClientInterceptor> interceptors = new ArrayList<>();
+        if (properties.getCircuitBreaker().isEnabled()) {
+            interceptors.add(new CircuitBreakerClientInterceptor(
+                    () -> new CircuitBreaker(properties.getCircuitBreaker()), meterRegistry));
+        }
+        if (properties.getHedging().isEnabled()) {
+            this.hedgingScheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("grpc-hedging").daemon().factory());
+            interceptors.add(new HedgingClientInterceptor(properties.getHedging(), hedgingScheduler));
+        }
+        interceptors.add(new DeadlineClientInterceptor(properties.getDeadline(), properties.getMethodDeadlines()));
+        return ClientInterceptors.intercept(channelPool, interceptors);
     }
 
     // --- AuthServiceGrpcClient ---
     @Bean
-    public AuthServiceGrpc.AuthServiceBlockingStub authServiceBlockingStub(ManagedChannel channel) {
+    public AuthServiceGrpc.AuthServiceBlockingStub authServiceBlockingStub(Channel channel) {
         return AuthServiceGrpc.newBlockingStub(channel);
     }
 
     @Bean
     public AuthServiceGrpcClient authServiceClient(
             AuthServiceGrpc.AuthServiceBlockingStub stub,
+            RequestMetadataUtil requestMetadataUtil,
+            UserLookupCache userLookupCache
+    ) {
+        return new AuthServiceGrpcClient(stub, requestMetadataUtil, userLookupCache);
+    }
+
+    @Bean
+    public AuthServiceGrpc.AuthServiceFutureStub authServiceFutureStub(Channel channel) {
+        return AuthServiceGrpc.newFutureStub(channel);
+    }
+
+    @Bean
+    public AuthServiceAsyncGrpcClient authServiceAsyncClient(
+            AuthServiceGrpc.AuthServiceFutureStub stub,
             RequestMetadataUtil requestMetadataUtil
     ) {
-        return new AuthServiceGrpcClient(stub, requestMetadataUtil);
+        return new AuthServiceAsyncGrpcClient(stub, requestMetadataUtil);
     }
 
     // --- UserServiceGrpcClient ---
     @Bean
-    public UserServiceGrpc.UserServiceBlockingStub userServiceBlockingStub(ManagedChannel channel) {
+    public UserServiceGrpc.UserServiceBlockingStub userServiceBlockingStub(Channel channel) {
         return UserServiceGrpc.newBlockingStub(channel);
     }
 
@@ -58,10 +95,26 @@ public class GrpcConfig {
         return new UserServiceGrpcClient(stub, requestMetadataUtil);
     }
 
+    @Bean
+    public UserServiceGrpc.UserServiceFutureStub userServiceFutureStub(Channel channel) {
+        return UserServiceGrpc.newFutureStub(channel);
+    }
+
+    @Bean
+    public UserServiceAsyncGrpcClient userServiceAsyncClient(
+            UserServiceGrpc.UserServiceFutureStub stub,
+            RequestMetadataUtil requestMetadataUtil
+    ) {
+        return new UserServiceAsyncGrpcClient(stub, requestMetadataUtil);
+    }
+
     @PreDestroy
     public void shutdownChannel() {
-        if (this.managedChannel != null && !this.managedChannel.isShutdown()) {
-            this.managedChannel.shutdown();
+        if (this.channelPool != null && !this.channelPool.isShutdown()) {
+            this.channelPool.shutdown();
+        }
+        if (this.hedgingScheduler != null) {
+            this.hedgingScheduler.shutdownNow();
         }
     }
 }
@@ -1,8 +1,12 @@
 package id.ac.ui.cs.advprog.everest.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
+// @PreAuthorize roles are enforced by AuthenticationInterceptor from precomputed metadata.
+// Enable this only to have Spring Security evaluate the expressions a second time.
 @Configuration
+@ConditionalOnProperty(name = "auth.method-security.enabled", havingValue = "true")
 @EnableMethodSecurity // Enables @PreAuthorize and friends
 public class MethodSecurityConfig {}
@@ -1,6 +1,7 @@
 package id.ac.ui.cs.advprog.everest.modules.coupon.dto;
 
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -40,4 +41,9 @@ public class CouponRequest {
     )
     private String code;
 
+    // Opt-in for high-traffic campaigns: splits the usage limit over this many counters
+    @Min(value = 1, message = "Stripes must be at least 1")
+    @Max(value = 64, message = "Stripes must be at most 64")
+    private Integer stripes;
+
 }
\ No newline at end of file
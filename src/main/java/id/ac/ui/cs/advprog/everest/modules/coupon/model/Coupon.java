@@ -39,6 +39,11 @@ public class Coupon {
     @Column(name = "max_usage")
     private Integer maxUsage;
 
+    // Null or 1 keeps the usage count on this row; more splits it over coupon_stripes
+    @Min(1)
+    @Column(name = "stripe_count")
+    private Integer stripeCount;
+
     @Version
     @Column(name = "version")
     private Integer version;
@@ -60,4 +65,8 @@ public class Coupon {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    public boolean isStriped() {
+        return stripeCount != null && stripeCount > 1;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package id.ac.ui.cs.advprog.everest.modules.coupon.model;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * One slice of a striped coupon's usage limit. Redemptions spread over the stripes instead of
+ * all updating the coupon row; the capacities of a coupon's stripes add up to its max usage.
+ */
+@Entity
+@Table(name = "coupon_stripes", uniqueConstraints = @UniqueConstraint(columnNames = {"coupon_id", "stripe"}))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class CouponStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @NotNull
+    @Column(name = "coupon_id", nullable = false, updatable = false)
+    private UUID couponId;
+
+    @Min(0)
+    @NotNull
+    @Column(name = "stripe", nullable = false, updatable = false)
+    private Integer stripe;
+
+    @Min(0)
+    @NotNull
+    @Column(name = "capacity", nullable = false)
+    private Integer capacity;
+
+    @Min(0)
+    @NotNull
+    @Column(name = "usage_count", nullable = false)
+    private Integer usageCount;
+
+}
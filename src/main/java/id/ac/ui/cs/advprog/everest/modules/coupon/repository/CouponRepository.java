@@ -2,7 +2,9 @@ package id.ac.ui.cs.advprog.everest.modules.coupon.repository;
 
 import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -19,4 +21,56 @@ public interface CouponRepository extends JpaRepository<Coupon, UUID> {
     boolean existsByCode(String code);
 
     Optional<Coupon> findByCode(String code);
+
+    List<Coupon> findByCodeIn(Collection<String> codes);
+
+    // The guarded updates bump the version themselves: translating UPDATE VERSIONED modifies the
+    // shared query tree, which breaks when the first calls after startup run concurrently
+
+    /**
+     * Uses the coupon once if it has usage left and has not expired, in a single statement
+     * so concurrent redemptions neither overshoot the limit nor conflict with each other.
+     *
+     * @return 1 if the coupon was used, 0 if it is exhausted, expired or missing
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usageCount = c.usageCount + 1, c.version = c.version + 1, " +
+            "c.updatedAt = LOCAL DATETIME " +
+            "WHERE c.id = :id AND c.usageCount < c.maxUsage AND (c.validUntil IS NULL OR c.validUntil >= :today)")
+    int redeem(@Param("id") UUID id, @Param("today") LocalDate today);
+
+    /**
+     * Uses the coupon several times at once, only if all of them fit in its remaining usage.
+     *
+     * @return 1 if the coupon was used, 0 if it lacks the usage, expired or is missing
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usageCount = c.usageCount + :count, c.version = c.version + 1, " +
+            "c.updatedAt = LOCAL DATETIME " +
+            "WHERE c.id = :id AND c.usageCount + :count <= c.maxUsage " +
+            "AND (c.validUntil IS NULL OR c.validUntil >= :today)")
+    int redeemMany(@Param("id") UUID id, @Param("count") int count, @Param("today") LocalDate today);
+
+    /**
+     * Gives back one use of the coupon, never dropping below zero.
+     *
+     * @return 1 if a use was given back, 0 if the coupon had none or is missing
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usageCount = c.usageCount - 1, c.version = c.version + 1, " +
+            "c.updatedAt = LOCAL DATETIME " +
+            "WHERE c.id = :id AND c.usageCount > 0")
+    int release(@Param("id") UUID id);
+
+    /**
+     * Copies the summed usage of each striped coupon's stripes onto the coupon row where it differs.
+     *
+     * @return the number of coupons updated
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usageCount = " +
+            "(SELECT COALESCE(SUM(s.usageCount), 0) FROM CouponStripe s WHERE s.couponId = c.id) " +
+            "WHERE c.stripeCount > 1 AND c.usageCount <> " +
+            "(SELECT COALESCE(SUM(s.usageCount), 0) FROM CouponStripe s WHERE s.couponId = c.id)")
+    int reconcileStripedUsage();
 }
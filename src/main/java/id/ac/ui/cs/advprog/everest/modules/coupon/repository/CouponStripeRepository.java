@@ -0,0 +1,40 @@
+package id.ac.ui.cs.advprog.everest.modules.coupon.repository;
+
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.CouponStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CouponStripeRepository extends JpaRepository<CouponStripe, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<CouponStripe> findByCouponIdOrderByStripe(UUID couponId);
+
+    /**
+     * Uses one unit of a stripe's capacity if it has any left.
+     *
+     * @return 1 if the stripe was used, 0 if it is full or missing
+     */
+    @Modifying
+    @Query("UPDATE CouponStripe s SET s.usageCount = s.usageCount + 1 " +
+            "WHERE s.couponId = :couponId AND s.stripe = :stripe AND s.usageCount < s.capacity")
+    int redeem(@Param("couponId") UUID couponId, @Param("stripe") int stripe);
+
+    /**
+     * Gives back one unit of a stripe's capacity, never dropping below zero.
+     *
+     * @return 1 if a unit was given back, 0 if the stripe had none or is missing
+     */
+    @Modifying
+    @Query("UPDATE CouponStripe s SET s.usageCount = s.usageCount - 1 " +
+            "WHERE s.couponId = :couponId AND s.stripe = :stripe AND s.usageCount > 0")
+    int release(@Param("couponId") UUID couponId, @Param("stripe") int stripe);
+}
@@ -6,20 +6,24 @@ import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class CouponServiceImpl implements CouponService {
 
     private final CouponRepository couponRepository;
+    private final CouponUsageCounter couponUsageCounter;
 
     @Autowired
-    public CouponServiceImpl(CouponRepository couponRepository) {
+    public CouponServiceImpl(CouponRepository couponRepository, CouponUsageCounter couponUsageCounter) {
         this.couponRepository = couponRepository;
+        this.couponUsageCounter = couponUsageCounter;
     }
 
     @Override
@@ -34,6 +38,7 @@ public class CouponServiceImpl implements CouponService {
     }
 
     @Override
+    @Transactional
     public Coupon createCoupon(CouponRequest couponRequest) {
         // Convert DTO ke Entity
         Coupon coupon = convertToEntity(couponRequest);
@@ -50,10 +55,13 @@ public class CouponServiceImpl implements CouponService {
         coupon.setUsageCount(0);
         coupon.setCreatedAt(LocalDateTime.now());
 
-        return couponRepository.save(coupon);
+        Coupon saved = couponRepository.save(coupon);
+        couponUsageCounter.createStripes(saved);
+        return saved;
     }
 
     @Override
+    @Transactional
     public Coupon updateCoupon(UUID id, CouponRequest req) {
         Coupon existing = getCouponById(id);
 
@@ -65,7 +73,8 @@ public class CouponServiceImpl implements CouponService {
             throw new IllegalArgumentException("New coupon code already exists");
         }
 
-        // apply all updates
+        // apply all updates; the stripe count is fixed when the coupon is created
+        boolean maxUsageChanged = !Objects.equals(req.getMaxUsage(), existing.getMaxUsage());
         existing.setCode(newCode);
         existing.setDiscountAmount(req.getDiscountAmount());
         existing.setMaxUsage(req.getMaxUsage());
@@ -76,7 +85,11 @@ public class CouponServiceImpl implements CouponService {
             throw new IllegalArgumentException("Invalid coupon data");
         }
 
-        return couponRepository.save(existing);
+        Coupon saved = couponRepository.save(existing);
+        if (maxUsageChanged) {
+            couponUsageCounter.resizeStripes(saved);
+        }
+        return saved;
     }
 
     @Async
@@ -105,6 +118,7 @@ public class CouponServiceImpl implements CouponService {
                 .discountAmount(request.getDiscountAmount())
                 .maxUsage(request.getMaxUsage())
                 .validUntil(request.getValidUntil())
+                .stripeCount(request.getStripes())
                 .build();
     }
 }
\ No newline at end of file
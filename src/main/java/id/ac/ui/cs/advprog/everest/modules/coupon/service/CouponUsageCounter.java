@@ -0,0 +1,216 @@
+package id.ac.ui.cs.advprog.everest.modules.coupon.service;
+
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.CouponStripe;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponStripeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts coupon redemptions against the coupon's usage limit.
+ *
+ * <p>A plain coupon is counted on its own row. A striped coupon, meant for campaigns where
+ * many orders use one code at once, has its limit split over several stripe rows: each
+ * redemption starts at a random stripe and spills over to the next when one is full, so
+ * concurrent orders rarely wait on the same row lock while the stripes together never
+ * exceed the limit. The coupon row's usage count is brought up to date from its stripes
+ * in the background and may briefly lag behind.
+ *
+ * <p>Redeeming and releasing must run inside the caller's transaction.
+ */
+@Component
+public class CouponUsageCounter {
+    private static final Logger logger = LoggerFactory.getLogger(CouponUsageCounter.class);
+
+    private final CouponRepository couponRepository;
+    private final CouponStripeRepository couponStripeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reconcileInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public CouponUsageCounter(
+            CouponRepository couponRepository,
+            CouponStripeRepository couponStripeRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${coupon.stripes.reconcile-interval:10s}") Duration reconcileInterval
+    ) {
+        this.couponRepository = couponRepository;
+        this.couponStripeRepository = couponStripeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (reconcileInterval.isZero() || reconcileInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("coupon-usage-reconciler").daemon().factory());
+        long millis = reconcileInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Uses the coupon once if it has usage left and has not expired.
+     *
+     * @param coupon the coupon to use
+     * @param today the current date
+     * @return whether the coupon was used
+     */
+    public boolean redeem(Coupon coupon, LocalDate today) {
+        if (!coupon.isStriped()) {
+            return couponRepository.redeem(coupon.getId(), today) == 1;
+        }
+        if (coupon.getValidUntil() != null && coupon.getValidUntil().isBefore(today)) {
+            return false;
+        }
+        int stripes = coupon.getStripeCount();
+        int first = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (couponStripeRepository.redeem(coupon.getId(), (first + i) % stripes) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Uses the coupon several times at once, all or none.
+     *
+     * @param coupon the coupon to use
+     * @param today the current date
+     * @param count how many uses to take
+     * @return whether all the uses were taken
+     */
+    public boolean redeem(Coupon coupon, LocalDate today, int count) {
+        if (!coupon.isStriped()) {
+            return couponRepository.redeemMany(coupon.getId(), count, today) == 1;
+        }
+        for (int redeemed = 0; redeemed < count; redeemed++) {
+            if (!redeem(coupon, today)) {
+                for (int i = 0; i < redeemed; i++) {
+                    release(coupon);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gives back one use of the coupon, never dropping below zero.
+     *
+     * @param coupon the coupon to give a use back to
+     */
+    public void release(Coupon coupon) {
+        if (!coupon.isStriped()) {
+            couponRepository.release(coupon.getId());
+            return;
+        }
+        int stripes = coupon.getStripeCount();
+        int first = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (couponStripeRepository.release(coupon.getId(), (first + i) % stripes) == 1) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits the usage limit of a newly saved striped coupon over its stripes.
+     *
+     * @param coupon the saved coupon
+     */
+    @Transactional
+    public void createStripes(Coupon coupon) {
+        if (!coupon.isStriped()) {
+            return;
+        }
+        int[] capacities = split(coupon.getMaxUsage(), coupon.getStripeCount());
+        List<CouponStripe> stripes = new ArrayList<>(capacities.length);
+        for (int stripe = 0; stripe < capacities.length; stripe++) {
+            stripes.add(CouponStripe.builder()
+                    .couponId(coupon.getId())
+                    .stripe(stripe)
+                    .capacity(capacities[stripe])
+                    .usageCount(0)
+                    .build());
+        }
+        couponStripeRepository.saveAll(stripes);
+    }
+
+    /**
+     * Re-splits a striped coupon's stripes after its usage limit changed. Uses already counted
+     * stay on their stripe and only the remaining limit is shared out again; a limit below the
+     * current usage leaves no stripe with room.
+     *
+     * @param coupon the coupon with its new usage limit
+     */
+    @Transactional
+    public void resizeStripes(Coupon coupon) {
+        if (!coupon.isStriped()) {
+            return;
+        }
+        List<CouponStripe> stripes = couponStripeRepository.findByCouponIdOrderByStripe(coupon.getId());
+        int used = stripes.stream().mapToInt(CouponStripe::getUsageCount).sum();
+        int[] remaining = split(Math.max(0, coupon.getMaxUsage() - used), stripes.size());
+        for (int i = 0; i < stripes.size(); i++) {
+            CouponStripe stripe = stripes.get(i);
+            stripe.setCapacity(stripe.getUsageCount() + remaining[i]);
+        }
+        couponStripeRepository.saveAll(stripes);
+    }
+
+    /**
+     * Brings the usage count on each striped coupon's row up to date with its stripes.
+     */
+    public void reconcile() {
+        Integer updated = transactionTemplate.execute(status -> couponRepository.reconcileStripedUsage());
+        logger.debug("Reconciled usage of {} striped coupons", updated);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reconcile striped coupon usage", e);
+        }
+    }
+
+    // Shares total out as evenly as possible, the first stripes taking one more
+    static int[] split(int total, int stripes) {
+        int[] capacities = new int[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            capacities[stripe] = total / stripes + (stripe < total % stripes ? 1 : 0);
+        }
+        return capacities;
+    }
+}
@@ -3,52 +3,121 @@ package id.ac.ui.cs.advprog.everest.modules.repairorder.controller;
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.authentication.CurrentUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderExporter;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderIdempotency;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderService;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1")
 public class RepairOrderController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final RepairOrderService repairOrderService;
+    private final RepairOrderIdempotency repairOrderIdempotency;
+    private final RepairOrderExporter repairOrderExporter;
 
-    public RepairOrderController(RepairOrderService repairOrderService) {
+    public RepairOrderController(
+            RepairOrderService repairOrderService,
+            RepairOrderIdempotency repairOrderIdempotency,
+            RepairOrderExporter repairOrderExporter
+    ) {
         this.repairOrderService = repairOrderService;
+        this.repairOrderIdempotency = repairOrderIdempotency;
+        this.repairOrderExporter = repairOrderExporter;
     }
 
     @PreAuthorize("hasRole('CUSTOMER')")
     @PostMapping("/repair-orders")
     public ResponseEntity<GenericResponse<ViewRepairOrderResponse>> createRepairOrder(
             @Valid @RequestBody CreateAndUpdateRepairOrderRequest createAndUpdateRepairOrderRequest,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @CurrentUser AuthenticatedUser user
     ) {
-        GenericResponse<ViewRepairOrderResponse> response = repairOrderService
-                .createRepairOrder(createAndUpdateRepairOrderRequest, user);
+        // Retries carrying the same key get the first response back instead of another order
+        GenericResponse<ViewRepairOrderResponse> response = idempotencyKey == null
+                ? repairOrderService.createRepairOrder(createAndUpdateRepairOrderRequest, user)
+                : repairOrderIdempotency.createRepairOrder(idempotencyKey, createAndUpdateRepairOrderRequest, user);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @PostMapping("/repair-orders/bulk")
+    public ResponseEntity<GenericResponse<List<BulkCreateRepairOrderResult>>> createRepairOrders(
+            @Valid @RequestBody BulkCreateRepairOrderRequest bulkCreateRepairOrderRequest,
+            @CurrentUser AuthenticatedUser user
+    ) {
+        GenericResponse<List<BulkCreateRepairOrderResult>> response = repairOrderService
+                .createRepairOrders(bulkCreateRepairOrderRequest.getRepairOrders(), user);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/repair-orders")
-    public ResponseEntity<GenericResponse<List<ViewRepairOrderResponse>>> getRepairOrders(@CurrentUser AuthenticatedUser user) {
-        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(user);
+    public ResponseEntity<GenericResponse<List<ViewRepairOrderResponse>>> getRepairOrders(
+            @RequestParam(required = false) RepairOrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @CurrentUser AuthenticatedUser user
+    ) {
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService
+                .getRepairOrders(user, status, cursor, size);
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+    @GetMapping("/repair-orders/export")
+    public ResponseEntity<StreamingResponseBody> exportRepairOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @CurrentUser AuthenticatedUser user
+    ) {
+        // Rows are written as they are read, after this method has returned
+        RepairOrderExporter.Format exportFormat = RepairOrderExporter.Format.of(format);
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("repair-orders." + exportFormat.fileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(out -> repairOrderExporter.export(user, exportFormat, out));
+    }
+
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/repair-orders/{repairOrderId}")
     public ResponseEntity<GenericResponse<ViewRepairOrderResponse>> getRepairOrderById(
             @PathVariable String repairOrderId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @CurrentUser AuthenticatedUser user
     ) {
+        // Pollers holding the current version are answered before the order is read
+        if (ifNoneMatch != null) {
+            Optional<String> etag = repairOrderService.getRepairOrderETag(repairOrderId, user);
+            if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
+
         GenericResponse<ViewRepairOrderResponse> response = repairOrderService.getRepairOrderById(repairOrderId, user);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(response.getData().getUpdatedAt()))
+                .body(response);
     }
 
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -72,4 +141,13 @@ public class RepairOrderController {
         GenericResponse<Void> response = repairOrderService.deleteRepairOrder(repairOrderId, user);
         return ResponseEntity.ok(response);
     }
+
+    @PreAuthorize("hasRole('TECHNICIAN')")
+    @PostMapping("/repair-orders/claim")
+    public ResponseEntity<GenericResponse<ViewRepairOrderResponse>> claimNextRepairOrder(
+            @CurrentUser AuthenticatedUser user
+    ) {
+        GenericResponse<ViewRepairOrderResponse> response = repairOrderService.claimNextRepairOrder(user);
+        return ResponseEntity.ok(response);
+    }
 }
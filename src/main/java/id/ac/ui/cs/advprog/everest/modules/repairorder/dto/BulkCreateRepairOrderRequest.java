@@ -0,0 +1,20 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkCreateRepairOrderRequest {
+    public static final int MAX_ITEMS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<@Valid @NotNull CreateAndUpdateRepairOrderRequest> repairOrders;
+}
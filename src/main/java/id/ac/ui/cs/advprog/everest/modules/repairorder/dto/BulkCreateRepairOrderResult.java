@@ -0,0 +1,19 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a bulk create, at the same index as the item in the request.
+ * Holds the created order, or the reason the item was not created.
+ */
+@Builder
+@AllArgsConstructor
+@Getter
+public class BulkCreateRepairOrderResult {
+    private int index;
+    private boolean success;
+    private String message;
+    private ViewRepairOrderResponse repairOrder;
+}
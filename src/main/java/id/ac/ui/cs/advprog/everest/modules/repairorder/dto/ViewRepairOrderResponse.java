@@ -1,6 +1,7 @@
 package id.ac.ui.cs.advprog.everest.modules.repairorder.dto;
 
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Builder
+@AllArgsConstructor
 @Setter
 @Getter
 public class ViewRepairOrderResponse {
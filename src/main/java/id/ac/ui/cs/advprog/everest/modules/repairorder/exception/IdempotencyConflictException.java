@@ -0,0 +1,11 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.exception;
+
+import id.ac.ui.cs.advprog.everest.common.exception.BaseException;
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyConflictException extends BaseException {
+
+    public IdempotencyConflictException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
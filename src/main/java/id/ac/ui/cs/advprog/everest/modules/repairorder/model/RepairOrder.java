@@ -38,8 +38,8 @@ public class RepairOrder {
     @Column(nullable = false, updatable = false, columnDefinition = "UUID")
     private UUID customerId;
 
-    @NotNull
-    @Column(nullable = false, updatable = false, columnDefinition = "UUID")
+    // Null while the order waits in the unassigned pool; only the guarded claim update sets it
+    @Column(updatable = false, columnDefinition = "UUID")
     private UUID technicianId;
 
     @NotBlank
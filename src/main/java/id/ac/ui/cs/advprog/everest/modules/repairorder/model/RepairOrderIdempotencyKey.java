@@ -0,0 +1,60 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An {@code Idempotency-Key} a customer sent with a create request. The row is claimed before
+ * the order is created and records the created order once it is, so retries with the same key
+ * replay that result instead of creating another order.
+ */
+@Entity
+@Table(name = "repair_order_idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "idempotency_key"}))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class RepairOrderIdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "customer_id", nullable = false, updatable = false, columnDefinition = "UUID")
+    private UUID customerId;
+
+    @Column(name = "idempotency_key", nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a reused key with a different body is rejected
+    @Column(name = "request_hash", nullable = false, updatable = false, length = 64)
+    private String requestHash;
+
+    // Null while the create request holding the claim is still running
+    @Column(name = "repair_order_id", columnDefinition = "UUID")
+    private UUID repairOrderId;
+
+    @Column(name = "response_message")
+    private String responseMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isCompleted() {
+        return repairOrderId != null;
+    }
+}
@@ -0,0 +1,46 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.repository;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RepairOrderIdempotencyKeyRepository extends JpaRepository<RepairOrderIdempotencyKey, UUID> {
+
+    Optional<RepairOrderIdempotencyKey> findByCustomerIdAndIdempotencyKey(UUID customerId, String idempotencyKey);
+
+    /**
+     * Records the order created under a claimed key.
+     *
+     * @return 1 if the claim was completed, 0 if it no longer exists
+     */
+    @Modifying
+    @Query("UPDATE RepairOrderIdempotencyKey k SET k.repairOrderId = :repairOrderId, k.responseMessage = :message " +
+            "WHERE k.id = :id AND k.repairOrderId IS NULL")
+    int complete(@Param("id") UUID id, @Param("repairOrderId") UUID repairOrderId, @Param("message") String message);
+
+    /**
+     * Drops a claim that never completed, if it was made before the given time.
+     *
+     * @return 1 if the claim was dropped, 0 if it completed, is newer or no longer exists
+     */
+    @Modifying
+    @Query("DELETE FROM RepairOrderIdempotencyKey k " +
+            "WHERE k.id = :id AND k.repairOrderId IS NULL AND k.createdAt < :claimedBefore")
+    int deleteAbandoned(@Param("id") UUID id, @Param("claimedBefore") LocalDateTime claimedBefore);
+
+    @Modifying
+    @Query("DELETE FROM RepairOrderIdempotencyKey k WHERE k.id = :id AND k.expiresAt < :now")
+    int deleteIfExpired(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RepairOrderIdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,18 +1,67 @@
 package id.ac.ui.cs.advprog.everest.modules.repairorder.repository;
 
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long> {
+public interface RepairOrderRepository extends JpaRepository<RepairOrder, Long>, RepairOrderViewRepository {
     Optional<RepairOrder> findById(@NotBlank @Size(max=100) UUID id);
 
     List<RepairOrder> findByCustomerId(@NotBlank @Size(max=100) UUID customerId);
 
     List<RepairOrder> findByTechnicianId(@NotBlank @Size(max=100) UUID technicianId);
+
+    @Query(SELECT_VIEW + "WHERE r.id = :id")
+    Optional<ViewRepairOrderResponse> findViewById(@Param("id") UUID id);
+
+    // Just enough to check access and answer a conditional read, without reading the order
+    @Query("SELECT r.customerId AS customerId, r.updatedAt AS updatedAt FROM RepairOrder r WHERE r.id = :id")
+    Optional<RepairOrderVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT r.technicianId AS technicianId, COUNT(r) AS orderCount FROM RepairOrder r " +
+            "WHERE r.status IN :statuses GROUP BY r.technicianId")
+    List<TechnicianOrderCount> countByTechnicianAndStatusIn(@Param("statuses") Collection<RepairOrderStatus> statuses);
+
+    /**
+     * Locks the oldest unassigned order in the given status, skipping orders already locked
+     * by another claim so concurrent claims neither wait on nor return the same row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    Optional<RepairOrder> findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus status);
+
+    // Bypasses auditing, so the update time that versions the order is set here
+    @Modifying
+    @Query("UPDATE RepairOrder r SET r.technicianId = :technicianId, r.updatedAt = :updatedAt "
+            + "WHERE r.id = :id AND r.technicianId IS NULL")
+    int assignTechnician(@Param("id") UUID id, @Param("technicianId") UUID technicianId,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    interface TechnicianOrderCount {
+        UUID getTechnicianId();
+
+        long getOrderCount();
+    }
+
+    interface RepairOrderVersion {
+        UUID getCustomerId();
+
+        LocalDateTime getUpdatedAt();
+    }
 }
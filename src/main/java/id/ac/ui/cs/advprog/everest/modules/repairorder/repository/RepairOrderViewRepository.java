@@ -0,0 +1,65 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.repository;
+
+import id.ac.ui.cs.advprog.everest.common.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import org.springframework.data.domain.Window;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paged listings and full exports read straight into {@link ViewRepairOrderResponse},
+ * newest first on {@code (created_at, id)}, without loading {@code RepairOrder} entities.
+ */
+public interface RepairOrderViewRepository {
+    // Reads the payment method and coupon IDs from the foreign key columns, without joins
+    String SELECT_VIEW = "SELECT new id.ac.ui.cs.advprog.everest.modules.repairorder.dto."
+            + "ViewRepairOrderResponse(r.id, r.customerId, r.technicianId, r.status, r.itemName, "
+            + "r.itemCondition, r.issueDescription, r.desiredServiceDate, r.createdAt, r.updatedAt, "
+            + "r.paymentMethod.id, r.coupon.id) FROM RepairOrder r ";
+
+    /**
+     * Reads a page of a customer's repair orders.
+     *
+     * @param customerId the customer ID
+     * @param status the status to filter by, or null for all
+     * @param after the position of the last row of the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page
+     */
+    Window<ViewRepairOrderResponse> findViewsByCustomerId(
+            UUID customerId, RepairOrderStatus status, KeysetCursor after, int limit);
+
+    /**
+     * Reads a page of the repair orders assigned to a technician.
+     *
+     * @param technicianId the technician ID
+     * @param status the status to filter by, or null for all
+     * @param after the position of the last row of the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page
+     */
+    Window<ViewRepairOrderResponse> findViewsByTechnicianId(
+            UUID technicianId, RepairOrderStatus status, KeysetCursor after, int limit);
+
+    /**
+     * Streams all of a customer's repair orders through a forward-only cursor. The stream
+     * must be consumed and closed inside a transaction.
+     *
+     * @param customerId the customer ID
+     * @param fetchSize how many rows to fetch from the database at a time
+     * @return the repair orders
+     */
+    Stream<ViewRepairOrderResponse> streamViewsByCustomerId(UUID customerId, int fetchSize);
+
+    /**
+     * Streams all of the repair orders assigned to a technician through a forward-only cursor.
+     * The stream must be consumed and closed inside a transaction.
+     *
+     * @param technicianId the technician ID
+     * @param fetchSize how many rows to fetch from the database at a time
+     * @return the repair orders
+     */
+    Stream<ViewRepairOrderResponse> streamViewsByTechnicianId(UUID technicianId, int fetchSize);
+}
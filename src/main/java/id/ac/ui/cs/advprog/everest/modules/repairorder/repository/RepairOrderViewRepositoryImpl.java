@@ -0,0 +1,81 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.repository;
+
+import id.ac.ui.cs.advprog.everest.common.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class RepairOrderViewRepositoryImpl implements RepairOrderViewRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<ViewRepairOrderResponse> findViewsByCustomerId(
+            UUID customerId, RepairOrderStatus status, KeysetCursor after, int limit) {
+        return findViews("customerId", customerId, status, after, limit);
+    }
+
+    @Override
+    public Window<ViewRepairOrderResponse> findViewsByTechnicianId(
+            UUID technicianId, RepairOrderStatus status, KeysetCursor after, int limit) {
+        return findViews("technicianId", technicianId, status, after, limit);
+    }
+
+    @Override
+    public Stream<ViewRepairOrderResponse> streamViewsByCustomerId(UUID customerId, int fetchSize) {
+        return streamViews("customerId", customerId, fetchSize);
+    }
+
+    @Override
+    public Stream<ViewRepairOrderResponse> streamViewsByTechnicianId(UUID technicianId, int fetchSize) {
+        return streamViews("technicianId", technicianId, fetchSize);
+    }
+
+    // Rows are read into views as the stream advances; nothing enters the persistence context
+    private Stream<ViewRepairOrderResponse> streamViews(String owner, UUID ownerId, int fetchSize) {
+        return entityManager
+                .createQuery(SELECT_VIEW + "WHERE r." + owner + " = :ownerId ORDER BY r.createdAt DESC, r.id DESC",
+                        ViewRepairOrderResponse.class)
+                .setParameter("ownerId", ownerId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private Window<ViewRepairOrderResponse> findViews(
+            String owner, UUID ownerId, RepairOrderStatus status, KeysetCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_VIEW).append("WHERE r.").append(owner).append(" = :ownerId");
+        if (status != null) {
+            jpql.append(" AND r.status = :status");
+        }
+        if (after != null) {
+            jpql.append(" AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id))");
+        }
+        jpql.append(" ORDER BY r.createdAt DESC, r.id DESC");
+
+        TypedQuery<ViewRepairOrderResponse> query = entityManager
+                .createQuery(jpql.toString(), ViewRepairOrderResponse.class)
+                .setParameter("ownerId", ownerId);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (after != null) {
+            query.setParameter("createdAt", after.createdAt()).setParameter("id", after.id());
+        }
+
+        // One extra row tells whether another page follows
+        List<ViewRepairOrderResponse> rows = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<ViewRepairOrderResponse> page = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(page, i -> new KeysetCursor(page.get(i).getCreatedAt(), page.get(i).getId())
+                .toScrollPosition(), hasNext);
+    }
+}
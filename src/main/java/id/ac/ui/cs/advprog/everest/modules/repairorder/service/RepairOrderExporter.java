@@ -0,0 +1,149 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's whole repair order history as NDJSON or CSV while it is read from the
+ * database, one row at a time through a forward-only cursor, so memory stays flat however
+ * many orders there are. Customers get the orders they placed and technicians the orders
+ * assigned to them.
+ */
+@Component
+public class RepairOrderExporter {
+    private static final String CSV_HEADER = "id,customerId,technicianId,status,itemName,itemCondition,"
+            + "issueDescription,desiredServiceDate,paymentMethodId,couponId,createdAt,updatedAt";
+
+    private final RepairOrderRepository repairOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public RepairOrderExporter(
+            RepairOrderRepository repairOrderRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${repair-order.export.fetch-size:500}") int fetchSize
+    ) {
+        this.repairOrderRepository = repairOrderRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String fileExtension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Parses a format name, ignoring case.
+         *
+         * @param name the format name
+         * @return the format
+         * @throws ValidationException if the format is not supported
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new ValidationException("Unsupported export format: " + name);
+        }
+    }
+
+    /**
+     * Writes the user's repair orders, newest first, to the given stream. The stream is
+     * flushed but not closed.
+     *
+     * @param user the customer or technician whose orders to export
+     * @param format the format to write
+     * @param out where to write the export
+     * @throws UncheckedIOException if writing fails, for example when the client disconnects
+     */
+    public void export(AuthenticatedUser user, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // The cursor only stays open, and fetches rows in batches, inside a transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ViewRepairOrderResponse> repairOrders = stream(user)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                for (ViewRepairOrderResponse repairOrder : (Iterable<ViewRepairOrderResponse>) repairOrders::iterator) {
+                    writer.write(format == Format.CSV ? toCsv(repairOrder) : objectMapper.writeValueAsString(repairOrder));
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private Stream<ViewRepairOrderResponse> stream(AuthenticatedUser user) {
+        if (user.role() == UserRole.TECHNICIAN) {
+            return repairOrderRepository.streamViewsByTechnicianId(user.id(), fetchSize);
+        }
+        return repairOrderRepository.streamViewsByCustomerId(user.id(), fetchSize);
+    }
+
+    static String toCsv(ViewRepairOrderResponse repairOrder) {
+        return String.join(",",
+                csvField(repairOrder.getId()),
+                csvField(repairOrder.getCustomerId()),
+                csvField(repairOrder.getTechnicianId()),
+                csvField(repairOrder.getStatus()),
+                csvField(repairOrder.getItemName()),
+                csvField(repairOrder.getItemCondition()),
+                csvField(repairOrder.getIssueDescription()),
+                csvField(repairOrder.getDesiredServiceDate()),
+                csvField(repairOrder.getPaymentMethodId()),
+                csvField(repairOrder.getCouponId()),
+                csvField(repairOrder.getCreatedAt()),
+                csvField(repairOrder.getUpdatedAt()));
+    }
+
+    // Quotes fields that hold a separator, quote or line break, doubling any quotes (RFC 4180)
+    private static String csvField(Object value) {
+        String field = Objects.toString(value, "");
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
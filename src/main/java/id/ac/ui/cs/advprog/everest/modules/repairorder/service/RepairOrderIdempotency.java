@@ -0,0 +1,299 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.common.utils.SingleFlight;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.IdempotencyConflictException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrderIdempotencyKey;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderIdempotencyKeyRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes repair order creation safe to retry with an {@code Idempotency-Key} header.
+ *
+ * <p>The first request with a key claims it in the database before creating the order and
+ * records the created order afterwards. A retry with the same key and body gets the original
+ * response back without creating another order or redeeming the coupon again; the same key
+ * with a different body is rejected. Completed responses are also kept in memory, so most
+ * retries are answered without a query, and duplicates arriving on this instance while the
+ * first request runs wait for it and share its result. A duplicate on another instance polls
+ * the claim until it completes, and gets a conflict if it does not complete in time.
+ *
+ * <p>A claim left behind by a request that died before completing is given up after the lock
+ * timeout, so the key can be used again. Keys expire after the configured TTL.
+ */
+@Component
+public class RepairOrderIdempotency {
+    private static final Logger logger = LoggerFactory.getLogger(RepairOrderIdempotency.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private static final String ERR_INVALID_KEY = "Idempotency-Key must be between 1 and 255 characters";
+    private static final String ERR_KEY_REUSED = "Idempotency-Key was already used with a different request";
+    private static final String ERR_IN_PROGRESS = "A request with this Idempotency-Key is still being processed";
+
+    private final RepairOrderService repairOrderService;
+    private final RepairOrderRepository repairOrderRepository;
+    private final RepairOrderIdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lockTimeout;
+    private final Duration purgeInterval;
+
+    private final Cache<Key, Replay> completed;
+    private final SingleFlight<Flight, GenericResponse<ViewRepairOrderResponse>> inFlight = new SingleFlight<>();
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public RepairOrderIdempotency(
+            RepairOrderService repairOrderService,
+            RepairOrderRepository repairOrderRepository,
+            RepairOrderIdempotencyKeyRepository idempotencyKeyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${repair-order.idempotency.ttl:24h}") Duration ttl,
+            @Value("${repair-order.idempotency.hot-max-size:10000}") long hotMaxSize,
+            @Value("${repair-order.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${repair-order.idempotency.lock-timeout:1m}") Duration lockTimeout,
+            @Value("${repair-order.idempotency.purge-interval:10m}") Duration purgeInterval
+    ) {
+        this.repairOrderService = repairOrderService;
+        this.repairOrderRepository = repairOrderRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lockTimeout = lockTimeout;
+        this.purgeInterval = purgeInterval;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(hotMaxSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (purgeInterval.isZero() || purgeInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("repair-order-idempotency-purge").daemon().factory());
+        long millis = purgeInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a repair order once per customer and idempotency key.
+     *
+     * @param idempotencyKey the client-chosen key identifying the create attempt
+     * @param request the create request
+     * @param customer the customer creating the order
+     * @return the response of the first request made with the key
+     * @throws ValidationException if the key is malformed or was used with a different request
+     * @throws IdempotencyConflictException if another instance is still running the first request
+     */
+    public GenericResponse<ViewRepairOrderResponse> createRepairOrder(
+            String idempotencyKey, CreateAndUpdateRepairOrderRequest request, AuthenticatedUser customer) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(ERR_INVALID_KEY);
+        }
+        if (request == null || customer == null) {
+            return repairOrderService.createRepairOrder(request, customer);
+        }
+
+        Key key = new Key(customer.id(), idempotencyKey);
+        String requestHash = fingerprint(request);
+        Replay replay = completed.getIfPresent(key);
+        if (replay != null) {
+            return replay.replay(requestHash);
+        }
+        return inFlight.execute(new Flight(key, requestHash), () -> createOnce(key, requestHash, request, customer));
+    }
+
+    /**
+     * Deletes every expired key.
+     */
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+        logger.debug("Purged {} expired idempotency keys", deleted);
+    }
+
+    private GenericResponse<ViewRepairOrderResponse> createOnce(
+            Key key, String requestHash, CreateAndUpdateRepairOrderRequest request, AuthenticatedUser customer) {
+        Replay replay = completed.getIfPresent(key);
+        if (replay != null) {
+            return replay.replay(requestHash);
+        }
+
+        Claim claim = claim(key, requestHash);
+        if (claim.replay() != null) {
+            completed.put(key, new Replay(requestHash, claim.replay()));
+            return claim.replay();
+        }
+
+        GenericResponse<ViewRepairOrderResponse> response;
+        try {
+            response = repairOrderService.createRepairOrder(request, customer);
+        } catch (RuntimeException | Error e) {
+            // Nothing was created, so the key is freed for the client to retry
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(claim.id()));
+            throw e;
+        }
+
+        UUID repairOrderId = response.getData() != null ? response.getData().getId() : null;
+        if (repairOrderId != null) {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyKeyRepository.complete(claim.id(), repairOrderId, response.getMessage()));
+        }
+        completed.put(key, new Replay(requestHash, response));
+        return response;
+    }
+
+    // Inserts the claim, or waits for the request already holding it and replays its result
+    private Claim claim(Key key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Optional<UUID> claimed = tryInsert(key, requestHash);
+            if (claimed.isPresent()) {
+                return new Claim(claimed.get(), null);
+            }
+
+            Optional<RepairOrderIdempotencyKey> existing = idempotencyKeyRepository
+                    .findByCustomerIdAndIdempotencyKey(key.customerId(), key.idempotencyKey());
+            if (existing.isEmpty()) {
+                continue;
+            }
+            RepairOrderIdempotencyKey record = existing.get();
+            LocalDateTime now = LocalDateTime.now();
+            if (record.getExpiresAt().isBefore(now)) {
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.deleteIfExpired(record.getId(), now));
+                continue;
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new ValidationException(ERR_KEY_REUSED);
+            }
+            if (record.isCompleted()) {
+                return new Claim(record.getId(), replay(record));
+            }
+            if (record.getCreatedAt().isBefore(now.minus(lockTimeout))) {
+                logger.warn("Taking over idempotency key claimed at {} that never completed", record.getCreatedAt());
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.deleteAbandoned(record.getId(), now.minus(lockTimeout)));
+                continue;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new IdempotencyConflictException(ERR_IN_PROGRESS);
+            }
+            sleep();
+        }
+    }
+
+    private Optional<UUID> tryInsert(Key key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return Optional.ofNullable(transactionTemplate.execute(status -> idempotencyKeyRepository
+                    .saveAndFlush(RepairOrderIdempotencyKey.builder()
+                            .customerId(key.customerId())
+                            .idempotencyKey(key.idempotencyKey())
+                            .requestHash(requestHash)
+                            .createdAt(now)
+                            .expiresAt(now.plus(ttl))
+                            .build())
+                    .getId()));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    // The order is read back as it is now; it is null if the order was deleted since
+    private GenericResponse<ViewRepairOrderResponse> replay(RepairOrderIdempotencyKey record) {
+        ViewRepairOrderResponse view = repairOrderRepository.findViewById(record.getRepairOrderId()).orElse(null);
+        return new GenericResponse<>(true, record.getResponseMessage(), view);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(ERR_IN_PROGRESS);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purgeExpired();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge expired idempotency keys", e);
+        }
+    }
+
+    static String fingerprint(CreateAndUpdateRepairOrderRequest request) {
+        String body = String.join("\u0000",
+                Objects.toString(request.getItemName()),
+                Objects.toString(request.getItemCondition()),
+                Objects.toString(request.getIssueDescription()),
+                Objects.toString(request.getDesiredServiceDate()),
+                Objects.toString(request.getPaymentMethodId()),
+                Objects.toString(request.getCouponCode()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Key(UUID customerId, String idempotencyKey) {}
+
+    private record Flight(Key key, String requestHash) {}
+
+    private record Claim(UUID id, GenericResponse<ViewRepairOrderResponse> replay) {}
+
+    private record Replay(String requestHash, GenericResponse<ViewRepairOrderResponse> response) {
+        GenericResponse<ViewRepairOrderResponse> replay(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new ValidationException(ERR_KEY_REUSED);
+            }
+            return response;
+        }
+    }
+}
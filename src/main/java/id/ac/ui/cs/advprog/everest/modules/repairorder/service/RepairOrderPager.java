@@ -0,0 +1,89 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.common.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Reads repair orders a page at a time, newest first, seeking past the last row of the
+ * previous page on {@code (created_at, id)} so each page costs the same however deep it is.
+ * Pages are read straight into response views.
+ */
+@Component
+public class RepairOrderPager {
+    private final RepairOrderRepository repairOrderRepository;
+    private final int defaultSize;
+    private final int maxSize;
+
+    public RepairOrderPager(
+            RepairOrderRepository repairOrderRepository,
+            @Value("${repair-order.page.default-size:20}") int defaultSize,
+            @Value("${repair-order.page.max-size:100}") int maxSize
+    ) {
+        this.repairOrderRepository = repairOrderRepository;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads a page of a customer's repair orders.
+     *
+     * @param customerId the customer ID
+     * @param status the status to filter by, or null for all
+     * @param cursor the token from the previous page, or null for the first page
+     * @param size the requested page size, or null for the default
+     * @return the page
+     */
+    public Window<ViewRepairOrderResponse> byCustomer(
+            UUID customerId, RepairOrderStatus status, String cursor, Integer size) {
+        return repairOrderRepository.findViewsByCustomerId(customerId, status, after(cursor), limit(size));
+    }
+
+    /**
+     * Reads a page of the repair orders assigned to a technician.
+     *
+     * @param technicianId the technician ID
+     * @param status the status to filter by, or null for all
+     * @param cursor the token from the previous page, or null for the first page
+     * @param size the requested page size, or null for the default
+     * @return the page
+     */
+    public Window<ViewRepairOrderResponse> byTechnician(
+            UUID technicianId, RepairOrderStatus status, String cursor, Integer size) {
+        return repairOrderRepository.findViewsByTechnicianId(technicianId, status, after(cursor), limit(size));
+    }
+
+    /**
+     * Returns the token for the page after the given one.
+     *
+     * @param page the page just read
+     * @return the token, or null if this is the last page
+     */
+    public static String nextCursor(Window<ViewRepairOrderResponse> page) {
+        if (!page.hasNext() || page.isEmpty()) {
+            return null;
+        }
+        return KeysetCursor.of(page.positionAt(page.size() - 1)).encode();
+    }
+
+    private static KeysetCursor after(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+    }
+
+    private int limit(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size <= 0) {
+            throw new ValidationException("Page size must be positive");
+        }
+        return Math.min(size, maxSize);
+    }
+}
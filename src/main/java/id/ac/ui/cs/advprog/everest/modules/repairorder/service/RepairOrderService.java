@@ -2,10 +2,13 @@ package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface RepairOrderService {
     GenericResponse<ViewRepairOrderResponse> createRepairOrder(
@@ -13,13 +16,32 @@ public interface RepairOrderService {
             AuthenticatedUser customer
     );
 
-    GenericResponse<List<ViewRepairOrderResponse>> getRepairOrders(AuthenticatedUser customer);
+    GenericResponse<List<BulkCreateRepairOrderResult>> createRepairOrders(
+            List<CreateAndUpdateRepairOrderRequest> requests,
+            AuthenticatedUser customer
+    );
+
+    GenericResponse<List<ViewRepairOrderResponse>> getRepairOrders(
+            AuthenticatedUser customer,
+            RepairOrderStatus status,
+            String cursor,
+            Integer size
+    );
 
     GenericResponse<ViewRepairOrderResponse> getRepairOrderById(
             String repairOrderId,
             AuthenticatedUser customer
     );
 
+    /**
+     * Returns the entity tag of a repair order the customer may read, without reading the order.
+     *
+     * @param repairOrderId the repair order ID
+     * @param customer the customer reading it
+     * @return the tag, or empty if the order has none or the full read should answer instead
+     */
+    Optional<String> getRepairOrderETag(String repairOrderId, AuthenticatedUser customer);
+
     GenericResponse<ViewRepairOrderResponse> updateRepairOrder(
             String repairOrderId,
             CreateAndUpdateRepairOrderRequest createAndUpdateRepairOrderRequest,
@@ -27,4 +49,6 @@ public interface RepairOrderService {
     );
 
     GenericResponse<Void> deleteRepairOrder(String repairOrderId, AuthenticatedUser customer);
+
+    GenericResponse<ViewRepairOrderResponse> claimNextRepairOrder(AuthenticatedUser technician);
 }
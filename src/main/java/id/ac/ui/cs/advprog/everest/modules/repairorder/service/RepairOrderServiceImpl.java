@@ -1,36 +1,80 @@
 package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.exception.ResourceNotFoundException;
 import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
+import id.ac.ui.cs.advprog.everest.common.utils.FailFastScope;
 import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
 import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.coupon.service.CouponUsageCounter;
 import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
 import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.DatabaseException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.InvalidRepairOrderStateException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.RepairOrderTimeoutException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.TechnicianUnavailableException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianResponse;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class RepairOrderServiceImpl implements RepairOrderService {
+    /**
+     * Duration of each phase of order creation, tagged {@code resolve} for the remote
+     * technician lookup and {@code write} for the transaction, which bounds how long the
+     * request holds a pooled connection.
+     */
+    public static final String CREATE_PHASE_METRIC = "repair.order.create.phase";
+
     private final UserServiceGrpcClient userServiceGrpcClient;
+    private final TechnicianAssignmentService technicianAssignmentService;
     private final RepairOrderRepository repairOrderRepository;
+    private final RepairOrderPager repairOrderPager;
+    private final RepairOrderVersions repairOrderVersions;
+    private final StatusEventRegistry statusEventRegistry;
     private final PaymentMethodRepository paymentMethodRepository;
     private final CouponRepository couponRepository;
+    private final CouponUsageCounter couponUsageCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration resolveTimeout;
+    private final Timer resolveTimer;
+    private final Timer writeTimer;
 
     // --- Constants for reused messages ---
     private static final String ERR_NULL_REQUEST_OR_CUSTOMER = "Request or customer cannot be null";
@@ -57,123 +101,360 @@ public class RepairOrderServiceImpl implements RepairOrderService {
     private static final String ERR_CANNOT_DELETE = "Repair order cannot be deleted";
     private static final String ERR_DELETE_FAILED = "Failed to delete repair order";
     private static final String MSG_DELETE_SUCCESS = "Repair order deleted successfully";
-    private static final String ERR_COUPON_USAGE_CONFLICT = "Coupon usage conflict, please try again";
+    private static final String ERR_COUPON_EXHAUSTED = "Coupon has reached its maximum usage limit";
+    private static final String ERR_COUPON_NOT_FOUND = "Coupon not found";
+    private static final String ERR_COUPON_EXPIRED = "Coupon has expired";
+    private static final String ERR_BULK_TOO_LARGE =
+            "A bulk request can create at most " + BulkCreateRepairOrderRequest.MAX_ITEMS + " repair orders";
+    private static final String MSG_BULK_CREATE_SUCCESS = "Created %d of %d repair orders";
+    private static final String ERR_NULL_TECHNICIAN = "Technician cannot be null";
+    private static final String ERR_NO_UNASSIGNED_ORDER = "No unassigned repair order available";
+    private static final String ERR_CLAIM_FAILED = "Failed to claim repair order";
+    private static final String MSG_CLAIM_SUCCESS = "Repair order claimed successfully";
+    private static final String ERR_RESOLVE_TIMEOUT = "Timed out preparing repair order, please try again";
 
     public RepairOrderServiceImpl(
             UserServiceGrpcClient userServiceGrpcClient,
+            TechnicianAssignmentService technicianAssignmentService,
             RepairOrderRepository repairOrderRepository,
+            RepairOrderPager repairOrderPager,
+            RepairOrderVersions repairOrderVersions,
+            StatusEventRegistry statusEventRegistry,
             PaymentMethodRepository paymentMethodRepository,
-            CouponRepository couponRepository
+            CouponRepository couponRepository,
+            CouponUsageCounter couponUsageCounter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${repair-order.create.resolve-timeout:3s}") Duration resolveTimeout
     ) {
         this.userServiceGrpcClient = userServiceGrpcClient;
+        this.technicianAssignmentService = technicianAssignmentService;
         this.repairOrderRepository = repairOrderRepository;
+        this.repairOrderPager = repairOrderPager;
+        this.repairOrderVersions = repairOrderVersions;
+        this.statusEventRegistry = statusEventRegistry;
         this.paymentMethodRepository = paymentMethodRepository;
         this.couponRepository = couponRepository;
+        this.couponUsageCounter = couponUsageCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resolveTimeout = resolveTimeout;
+        this.resolveTimer = createPhaseTimer("resolve", meterRegistry);
+        this.writeTimer = createPhaseTimer("write", meterRegistry);
+    }
+
+    private static Timer createPhaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder(CREATE_PHASE_METRIC)
+                .description("Time spent in each phase of repair order creation")
+                .tag("phase", phase)
+                .register(meterRegistry);
     }
 
+    // Not @Transactional: the technician, payment method and coupon are resolved concurrently
+    // before a connection is held for the transaction, which only redeems the coupon and inserts
     @Override
-    @Transactional
     public GenericResponse<ViewRepairOrderResponse> createRepairOrder(CreateAndUpdateRepairOrderRequest request,
                                                                       AuthenticatedUser customer) {
         if (request == null || customer == null) {
             throw new InvalidRepairOrderStateException(ERR_NULL_REQUEST_OR_CUSTOMER);
         }
 
+        // The technician's load counts the order from the moment they are chosen, so it is
+        // given back unless the order is actually created
+        Assignment assignment = new Assignment();
+        boolean created = false;
         try {
-            GetRandomTechnicianResponse response = userServiceGrpcClient.getRandomTechnician();
-            if (!response.hasTechnician()) {
-                throw new TechnicianUnavailableException();
+            ResolvedOrder resolved = resolveTimer.record(() -> resolve(request, assignment));
+            RepairOrder savedRepairOrder = writeTimer.record(() -> transactionTemplate.execute(
+                    status -> insertRepairOrder(customer, request, resolved)));
+            created = true;
+            ViewRepairOrderResponse responseView = getViewRepairOrderResponse(savedRepairOrder);
+            return new GenericResponse<>(true, MSG_CREATE_SUCCESS, responseView);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new InvalidRepairOrderStateException(ERR_INVALID_TECHNICIAN_ID, ex);
+        } catch (DataAccessException ex) {
+            throw new DatabaseException(ERR_SAVE_FAILED, ex);
+        } finally {
+            if (!created) {
+                assignment.release();
             }
+        }
+    }
 
-            UserData technician = response.getTechnician();
-            PaymentMethod paymentMethod = paymentMethodRepository.findById(request.getPaymentMethodId())
-                    .orElseThrow(() -> new InvalidRepairOrderStateException(ERR_INVALID_PAYMENT_METHOD));
-
-            Coupon coupon = null;
-            if (request.getCouponCode() != null && !request.getCouponCode().trim().isEmpty()) {
-                coupon = getAndValidateCoupon(request);
-                incrementCouponUsage(coupon);
-            }
+    // Resolves the whole batch up front, with one query for the payment methods and one for the
+    // coupons, then redeems each coupon once and inserts every order in a single transaction
+    // whose inserts Hibernate sends as JDBC batches. Items that cannot be created are reported
+    // in their result without failing the others.
+    @Override
+    public GenericResponse<List<BulkCreateRepairOrderResult>> createRepairOrders(
+            List<CreateAndUpdateRepairOrderRequest> requests, AuthenticatedUser customer) {
+        if (requests == null || requests.isEmpty() || requests.stream().anyMatch(Objects::isNull)
+                || customer == null) {
+            throw new InvalidRepairOrderStateException(ERR_NULL_REQUEST_OR_CUSTOMER);
+        }
+        if (requests.size() > BulkCreateRepairOrderRequest.MAX_ITEMS) {
+            throw new InvalidRepairOrderStateException(ERR_BULK_TOO_LARGE);
+        }
 
-            RepairOrder repairOrder = RepairOrder.builder()
-                    .customerId(customer.id())
-                    .technicianId(UUID.fromString(technician.getIdentity().getId()))
-                    .status(RepairOrderStatus.PENDING_CONFIRMATION)
-                    .itemName(request.getItemName())
-                    .itemCondition(request.getItemCondition())
-                    .issueDescription(request.getIssueDescription())
-                    .desiredServiceDate(request.getDesiredServiceDate())
-                    .paymentMethod(paymentMethod)
-                    .coupon(coupon)
-                    .build();
-
-            RepairOrder savedRepairOrder = repairOrderRepository.save(repairOrder);
-            ViewRepairOrderResponse responseView = getViewRepairOrderResponse(savedRepairOrder);
-            return new GenericResponse<>(true, MSG_CREATE_SUCCESS, responseView);
+        // Each technician is counted as they are chosen, so their load is given back for every
+        // item that does not end up as a created order
+        List<UUID> heldTechnicianIds = new ArrayList<>();
+        boolean committed = false;
+        try {
+            BulkCreateRepairOrderResult[] results = new BulkCreateRepairOrderResult[requests.size()];
+            List<BulkItem> items = resolveTimer.record(() -> resolveBulk(requests, results, heldTechnicianIds));
+            writeTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> insertRepairOrders(customer, items, results)));
+            committed = true;
+            items.stream()
+                    .filter(item -> item.technicianHeld() && !results[item.index()].isSuccess())
+                    .forEach(item -> technicianAssignmentService.release(item.resolved().technicianId()));
+
+            long created = Arrays.stream(results).filter(BulkCreateRepairOrderResult::isSuccess).count();
+            return new GenericResponse<>(true, String.format(MSG_BULK_CREATE_SUCCESS, created, requests.size()),
+                    List.of(results));
         } catch (IllegalArgumentException | NullPointerException ex) {
             throw new InvalidRepairOrderStateException(ERR_INVALID_TECHNICIAN_ID, ex);
         } catch (DataAccessException ex) {
             throw new DatabaseException(ERR_SAVE_FAILED, ex);
+        } finally {
+            if (!committed) {
+                heldTechnicianIds.forEach(technicianAssignmentService::release);
+            }
         }
     }
 
+    private List<BulkItem> resolveBulk(List<CreateAndUpdateRepairOrderRequest> requests,
+                                       BulkCreateRepairOrderResult[] results, List<UUID> heldTechnicianIds) {
+        Map<UUID, PaymentMethod> paymentMethods = paymentMethodRepository
+                .findAllById(requests.stream()
+                        .map(CreateAndUpdateRepairOrderRequest::getPaymentMethodId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(PaymentMethod::getId, Function.identity()));
+        Set<String> couponCodes = requests.stream()
+                .filter(RepairOrderServiceImpl::hasCouponCode)
+                .map(CreateAndUpdateRepairOrderRequest::getCouponCode)
+                .collect(Collectors.toSet());
+        Map<String, Coupon> coupons = couponCodes.isEmpty() ? Map.of() : couponRepository
+                .findByCodeIn(couponCodes)
+                .stream()
+                .collect(Collectors.toMap(Coupon::getCode, Function.identity()));
+
+        List<BulkItem> items = new ArrayList<>(requests.size());
+        UUID fallbackTechnicianId = null;
+        for (int index = 0; index < requests.size(); index++) {
+            CreateAndUpdateRepairOrderRequest request = requests.get(index);
+            PaymentMethod paymentMethod = paymentMethods.get(request.getPaymentMethodId());
+            if (paymentMethod == null) {
+                results[index] = failedBulkItem(index, ERR_INVALID_PAYMENT_METHOD);
+                continue;
+            }
+            Coupon coupon = hasCouponCode(request) ? coupons.get(request.getCouponCode()) : null;
+            if (hasCouponCode(request)) {
+                String error = coupon == null ? ERR_COUPON_NOT_FOUND : couponError(coupon);
+                if (error != null) {
+                    results[index] = failedBulkItem(index, error);
+                    continue;
+                }
+            }
+
+            // The roster is local; the user service is only asked once, if the roster is unavailable
+            UUID technicianId = null;
+            boolean technicianHeld = false;
+            if (!technicianAssignmentService.isPullMode()) {
+                Optional<UUID> assigned = technicianAssignmentService.assign();
+                assigned.ifPresent(heldTechnicianIds::add);
+                if (assigned.isEmpty() && fallbackTechnicianId == null) {
+                    fallbackTechnicianId = UUID.fromString(fetchRandomTechnician().getIdentity().getId());
+                }
+                technicianId = assigned.orElse(fallbackTechnicianId);
+                // A technician from the user service was never counted, so only the roster's is held
+                technicianHeld = assigned.isPresent();
+            }
+            items.add(new BulkItem(index, request, new ResolvedOrder(technicianId, paymentMethod, coupon),
+                    technicianHeld));
+        }
+        return items;
+    }
+
+    private void insertRepairOrders(AuthenticatedUser customer, List<BulkItem> items,
+                                    BulkCreateRepairOrderResult[] results) {
+        // A coupon that cannot cover every item using it is not used by any of them
+        Map<UUID, List<BulkItem>> itemsByCoupon = items.stream()
+                .filter(item -> item.resolved().coupon() != null)
+                .collect(Collectors.groupingBy(item -> item.resolved().coupon().getId()));
+        LocalDate today = LocalDate.now();
+        Set<Integer> rejected = new HashSet<>();
+        for (List<BulkItem> group : itemsByCoupon.values()) {
+            if (!couponUsageCounter.redeem(group.getFirst().resolved().coupon(), today, group.size())) {
+                for (BulkItem item : group) {
+                    rejected.add(item.index());
+                    results[item.index()] = failedBulkItem(item.index(), ERR_COUPON_EXHAUSTED);
+                }
+            }
+        }
+
+        List<BulkItem> accepted = items.stream().filter(item -> !rejected.contains(item.index())).toList();
+        List<RepairOrder> saved = repairOrderRepository.saveAll(accepted.stream()
+                .map(item -> newRepairOrder(customer, item.request(), item.resolved()))
+                .toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = accepted.get(i).index();
+            results[index] = new BulkCreateRepairOrderResult(
+                    index, true, MSG_CREATE_SUCCESS, getViewRepairOrderResponse(saved.get(i)));
+        }
+    }
+
+    private static BulkCreateRepairOrderResult failedBulkItem(int index, String message) {
+        return new BulkCreateRepairOrderResult(index, false, message, null);
+    }
+
+    private ResolvedOrder resolve(CreateAndUpdateRepairOrderRequest request, Assignment assignment) {
+        // Creation waits for the slowest lookup rather than their sum; the first failure cancels the rest
+        try (FailFastScope scope = new FailFastScope("repair-order-resolve")) {
+            Supplier<UUID> technicianId = scope.fork(() -> resolveTechnicianId(assignment));
+            Supplier<PaymentMethod> paymentMethod = scope.fork(() -> paymentMethodRepository
+                    .findById(request.getPaymentMethodId())
+                    .orElseThrow(() -> new InvalidRepairOrderStateException(ERR_INVALID_PAYMENT_METHOD)));
+            Supplier<Coupon> coupon = scope.fork(() -> hasCouponCode(request) ? getAndValidateCoupon(request) : null);
+
+            scope.join(resolveTimeout);
+            return new ResolvedOrder(technicianId.get(), paymentMethod.get(), coupon.get());
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new RepairOrderTimeoutException(ERR_RESOLVE_TIMEOUT, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RepairOrderTimeoutException(ERR_RESOLVE_TIMEOUT, ex);
+        }
+    }
+
+    private UUID resolveTechnicianId(Assignment assignment) {
+        // In pull mode the order waits unassigned until a technician claims it
+        if (technicianAssignmentService.isPullMode()) {
+            return null;
+        }
+        // A technician from the user service was never counted, so only the roster's is held
+        return technicianAssignmentService.assign()
+                .map(assignment::hold)
+                .orElseGet(() -> UUID.fromString(fetchRandomTechnician().getIdentity().getId()));
+    }
+
+    private static boolean hasCouponCode(CreateAndUpdateRepairOrderRequest request) {
+        return request.getCouponCode() != null && !request.getCouponCode().trim().isEmpty();
+    }
+
+    private RepairOrder insertRepairOrder(AuthenticatedUser customer,
+                                          CreateAndUpdateRepairOrderRequest request,
+                                          ResolvedOrder resolved) {
+        // The coupon was validated outside the transaction; the guarded update rejects
+        // the redemption if other orders used it up in the meantime
+        if (resolved.coupon() != null) {
+            incrementCouponUsage(resolved.coupon());
+        }
+
+        return repairOrderRepository.save(newRepairOrder(customer, request, resolved));
+    }
+
+    private static RepairOrder newRepairOrder(AuthenticatedUser customer,
+                                              CreateAndUpdateRepairOrderRequest request,
+                                              ResolvedOrder resolved) {
+        return RepairOrder.builder()
+                .customerId(customer.id())
+                .technicianId(resolved.technicianId())
+                .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                .itemName(request.getItemName())
+                .itemCondition(request.getItemCondition())
+                .issueDescription(request.getIssueDescription())
+                .desiredServiceDate(request.getDesiredServiceDate())
+                .paymentMethod(resolved.paymentMethod())
+                .coupon(resolved.coupon())
+                .build();
+    }
+
+    private UserData fetchRandomTechnician() {
+        GetRandomTechnicianResponse response = userServiceGrpcClient.getRandomTechnician();
+        if (!response.hasTechnician()) {
+            throw new TechnicianUnavailableException();
+        }
+        return response.getTechnician();
+    }
+
     private void incrementCouponUsage(Coupon coupon) {
-        try {
-            coupon.setUsageCount(coupon.getUsageCount() + 1);
-            couponRepository.saveAndFlush(coupon);
-        } catch (OptimisticLockingFailureException e) {
-            throw new InvalidRepairOrderStateException(ERR_COUPON_USAGE_CONFLICT, e);
+        if (!couponUsageCounter.redeem(coupon, LocalDate.now())) {
+            throw new InvalidRepairOrderStateException(ERR_COUPON_EXHAUSTED);
         }
     }
 
     @NotNull
     private Coupon getAndValidateCoupon(CreateAndUpdateRepairOrderRequest request) {
         Coupon coupon = couponRepository.findByCode(request.getCouponCode())
-                .orElseThrow(() -> new InvalidRepairOrderStateException("Coupon not found"));
+                .orElseThrow(() -> new InvalidRepairOrderStateException(ERR_COUPON_NOT_FOUND));
 
-        if (coupon.getValidUntil() != null && coupon.getValidUntil().isBefore(LocalDate.now())) {
-            throw new InvalidRepairOrderStateException("Coupon has expired");
+        String error = couponError(coupon);
+        if (error != null) {
+            throw new InvalidRepairOrderStateException(error);
         }
 
+        return coupon;
+    }
+
+    // Why the coupon cannot be used, or null if it can
+    private static String couponError(Coupon coupon) {
+        if (coupon.getValidUntil() != null && coupon.getValidUntil().isBefore(LocalDate.now())) {
+            return ERR_COUPON_EXPIRED;
+        }
         if (coupon.getUsageCount() >= coupon.getMaxUsage()) {
-            throw new InvalidRepairOrderStateException("Coupon has reached its maximum usage limit");
+            return ERR_COUPON_EXHAUSTED;
         }
-
-        return coupon;
+        return null;
     }
 
     @Override
-    public GenericResponse<List<ViewRepairOrderResponse>> getRepairOrders(AuthenticatedUser customer) {
+    @Transactional(readOnly = true)
+    public GenericResponse<List<ViewRepairOrderResponse>> getRepairOrders(
+            AuthenticatedUser customer,
+            RepairOrderStatus status,
+            String cursor,
+            Integer size
+    ) {
         if (customer == null) {
             throw new InvalidRepairOrderStateException(ERR_NULL_CUSTOMER);
         }
 
         try {
-            List<RepairOrder> repairOrders = repairOrderRepository.findByCustomerId(customer.id());
-            List<ViewRepairOrderResponse> responseList = repairOrders.stream()
-                    .map(this::getViewRepairOrderResponse)
-                    .toList();
-            return new GenericResponse<>(true, MSG_RETRIEVE_SUCCESS, responseList);
+            Window<ViewRepairOrderResponse> repairOrders =
+                    repairOrderPager.byCustomer(customer.id(), status, cursor, size);
+            return new GenericResponse<>(true, MSG_RETRIEVE_SUCCESS, repairOrders.getContent(),
+                    RepairOrderPager.nextCursor(repairOrders));
         } catch (DataAccessException ex) {
             throw new DatabaseException(ERR_RETRIEVE_FAILED, ex);
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public GenericResponse<ViewRepairOrderResponse> getRepairOrderById(String repairOrderId, AuthenticatedUser customer) {
         if (repairOrderId == null || customer == null) {
             throw new InvalidRepairOrderStateException(ERR_NULL_ID_OR_CUSTOMER);
         }
 
         try {
-            RepairOrder repairOrder = repairOrderRepository.findById(UUID.fromString(repairOrderId))
+            ViewRepairOrderResponse responseView = repairOrderRepository.findViewById(UUID.fromString(repairOrderId))
                     .orElseThrow(() -> new InvalidRepairOrderStateException(ERR_ORDER_NOT_FOUND));
 
-            if (!repairOrder.getCustomerId().equals(customer.id())) {
+            if (!responseView.getCustomerId().equals(customer.id())) {
                 throw new InvalidRepairOrderStateException(ERR_UNAUTHORIZED_VIEW);
             }
 
-            ViewRepairOrderResponse responseView = getViewRepairOrderResponse(repairOrder);
             return new GenericResponse<>(true, MSG_RETRIEVE_ORDER_SUCCESS, responseView);
         } catch (IllegalArgumentException | NullPointerException ex) {
             throw new InvalidRepairOrderStateException(ERR_INVALID_ORDER_ID, ex);
@@ -182,6 +463,24 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
     }
 
+    @Override
+    public Optional<String> getRepairOrderETag(String repairOrderId, AuthenticatedUser customer) {
+        if (repairOrderId == null || customer == null) {
+            return Optional.empty();
+        }
+
+        try {
+            // Only the owner gets a tag, anyone else falls through to the read and its error
+            return repairOrderVersions.get(UUID.fromString(repairOrderId))
+                    .filter(version -> customer.id().equals(version.getCustomerId()))
+                    .map(version -> ETags.of(version.getUpdatedAt()));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        } catch (DataAccessException ex) {
+            throw new DatabaseException(ERR_RETRIEVE_ORDER_FAILED, ex);
+        }
+    }
+
     @Override
     @Transactional
     public GenericResponse<ViewRepairOrderResponse> updateRepairOrder(
@@ -202,7 +501,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             Coupon newCoupon = null;
 
             // Handle coupon logic
-            boolean hasCouponCode = request.getCouponCode() != null && !request.getCouponCode().trim().isEmpty();
+            boolean hasCouponCode = hasCouponCode(request);
 
             if (hasCouponCode) {
                 newCoupon = getAndValidateCoupon(request);
@@ -225,6 +524,7 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             repairOrder.setCoupon(newCoupon);
 
             RepairOrder updatedRepairOrder = repairOrderRepository.save(repairOrder);
+            repairOrderVersions.evict(repairOrder.getId());
             ViewRepairOrderResponse responseView = getViewRepairOrderResponse(updatedRepairOrder);
             return new GenericResponse<>(true, MSG_UPDATE_SUCCESS, responseView);
         } catch (IllegalArgumentException | NullPointerException ex) {
@@ -235,27 +535,17 @@ public class RepairOrderServiceImpl implements RepairOrderService {
     }
 
     private void handleCouponChange(Coupon newCoupon, Coupon oldCoupon) {
-        try {
-            // Increment usage for new coupon
-            incrementCouponUsage(newCoupon);
+        // Increment usage for new coupon
+        incrementCouponUsage(newCoupon);
 
-            // Decrement usage for old coupon if it exists
-            if (oldCoupon != null) {
-                decrementCouponUsage(oldCoupon);
-            }
-        } catch (OptimisticLockingFailureException e) {
-            throw new InvalidRepairOrderStateException(ERR_COUPON_USAGE_CONFLICT, e);
+        // Decrement usage for old coupon if it exists
+        if (oldCoupon != null) {
+            decrementCouponUsage(oldCoupon);
         }
     }
 
     private void decrementCouponUsage(Coupon coupon) {
-        try {
-            int newUsage = Math.max(0, coupon.getUsageCount() - 1);
-            coupon.setUsageCount(newUsage);
-            couponRepository.saveAndFlush(coupon);
-        } catch (OptimisticLockingFailureException e) {
-            throw new InvalidRepairOrderStateException(ERR_COUPON_USAGE_CONFLICT, e);
-        }
+        couponUsageCounter.release(coupon);
     }
 
     private RepairOrder getRepairOrderByIdAndValidateState(String repairOrderId, AuthenticatedUser customer, String errUnauthorizedUpdate, String errCannotUpdate) {
@@ -289,6 +579,9 @@ public class RepairOrderServiceImpl implements RepairOrderService {
             }
 
             repairOrderRepository.delete(repairOrder);
+            repairOrderVersions.evict(repairOrder.getId());
+            technicianAssignmentService.release(repairOrder.getTechnicianId());
+            publishStatusChange(repairOrder, StatusChangeEvent.DELETED);
             return new GenericResponse<>(true, MSG_DELETE_SUCCESS, null);
         } catch (IllegalArgumentException | NullPointerException ex) {
             throw new InvalidRepairOrderStateException(ERR_INVALID_DATA, ex);
@@ -297,6 +590,46 @@ public class RepairOrderServiceImpl implements RepairOrderService {
         }
     }
 
+    @Override
+    @Transactional
+    public GenericResponse<ViewRepairOrderResponse> claimNextRepairOrder(AuthenticatedUser technician) {
+        if (technician == null) {
+            throw new InvalidRepairOrderStateException(ERR_NULL_TECHNICIAN);
+        }
+
+        try {
+            // The row stays locked until commit; concurrent claims skip it and take the next one
+            RepairOrder repairOrder = repairOrderRepository
+                    .findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION)
+                    .orElseThrow(() -> new ResourceNotFoundException(ERR_NO_UNASSIGNED_ORDER));
+
+            LocalDateTime now = LocalDateTime.now();
+            if (repairOrderRepository.assignTechnician(repairOrder.getId(), technician.id(), now) == 0) {
+                throw new InvalidRepairOrderStateException(ERR_NO_UNASSIGNED_ORDER);
+            }
+            repairOrder.setTechnicianId(technician.id());
+            repairOrder.setUpdatedAt(now);
+            repairOrderVersions.evict(repairOrder.getId());
+            publishStatusChange(repairOrder, repairOrder.getStatus().name());
+
+            ViewRepairOrderResponse responseView = getViewRepairOrderResponse(repairOrder);
+            return new GenericResponse<>(true, MSG_CLAIM_SUCCESS, responseView);
+        } catch (DataAccessException ex) {
+            throw new DatabaseException(ERR_CLAIM_FAILED, ex);
+        }
+    }
+
+    private void publishStatusChange(RepairOrder repairOrder, String status) {
+        StatusChangeEvent event = StatusChangeEvent.builder()
+                .resourceType(StatusChangeEvent.ResourceType.REPAIR_ORDER)
+                .resourceId(repairOrder.getId())
+                .repairOrderId(repairOrder.getId())
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        statusEventRegistry.publish(event, repairOrder.getCustomerId(), repairOrder.getTechnicianId());
+    }
+
     private ViewRepairOrderResponse getViewRepairOrderResponse(RepairOrder repairOrder) {
         return ViewRepairOrderResponse.builder()
                 .id(repairOrder.getId())
@@ -313,4 +646,33 @@ public class RepairOrderServiceImpl implements RepairOrderService {
                 .updatedAt(repairOrder.getUpdatedAt())
                 .build();
     }
+
+    private record ResolvedOrder(UUID technicianId, PaymentMethod paymentMethod, Coupon coupon) {}
+
+    // The technician counted against for an order being created. Released at most once, also
+    // when the lookup that chose them only finishes after a failure has cancelled it.
+    private final class Assignment {
+        private UUID technicianId;
+        private boolean released;
+
+        private synchronized UUID hold(UUID technicianId) {
+            if (released) {
+                technicianAssignmentService.release(technicianId);
+            } else {
+                this.technicianId = technicianId;
+            }
+            return technicianId;
+        }
+
+        private synchronized void release() {
+            released = true;
+            if (technicianId != null) {
+                technicianAssignmentService.release(technicianId);
+                technicianId = null;
+            }
+        }
+    }
+
+    private record BulkItem(int index, CreateAndUpdateRepairOrderRequest request, ResolvedOrder resolved,
+                            boolean technicianHeld) {}
 }
\ No newline at end of file
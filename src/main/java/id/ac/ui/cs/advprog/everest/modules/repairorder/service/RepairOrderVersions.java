@@ -0,0 +1,36 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.common.utils.VersionCache;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository.RepairOrderVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Current versions of repair orders, read by conditional GETs to answer 304 without reading
+ * the order. Versions are cached briefly; every write to an order must {@link #evict} it.
+ */
+@Component
+public class RepairOrderVersions {
+    private final VersionCache<UUID, RepairOrderVersion> versions;
+
+    public RepairOrderVersions(
+            RepairOrderRepository repairOrderRepository,
+            @Value("${repair-order.etag-cache.ttl:2s}") Duration ttl,
+            @Value("${repair-order.etag-cache.max-size:10000}") long maxSize
+    ) {
+        this.versions = new VersionCache<>(ttl, maxSize, repairOrderRepository::findVersionById);
+    }
+
+    public Optional<RepairOrderVersion> get(UUID repairOrderId) {
+        return versions.get(repairOrderId);
+    }
+
+    public void evict(UUID repairOrderId) {
+        versions.evict(repairOrderId);
+    }
+}
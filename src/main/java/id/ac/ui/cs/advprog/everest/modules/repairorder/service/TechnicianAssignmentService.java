@@ -0,0 +1,132 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.TechnicianAssignmentStrategy;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the technician for a new repair order from the {@link TechnicianRoster},
+ * using the configured {@link TechnicianAssignmentStrategy} and each technician's
+ * open-order count.
+ *
+ * <p>Counts are seeded from the repair orders in the database whenever the roster
+ * changes, which also corrects any drift from orders handled by other instances,
+ * and are kept current as orders are assigned, completed or cancelled here.
+ *
+ * <p>In {@code pull} mode new orders are left unassigned and technicians claim them
+ * through {@link RepairOrderService#claimNextRepairOrder}, so nothing is chosen here.
+ */
+@Service
+public class TechnicianAssignmentService {
+    static final List<RepairOrderStatus> OPEN_STATUSES =
+            List.of(RepairOrderStatus.PENDING_CONFIRMATION, RepairOrderStatus.IN_PROGRESS);
+
+    private final TechnicianRoster technicianRoster;
+    private final RepairOrderRepository repairOrderRepository;
+    private final TechnicianAssignmentStrategy strategy;
+    private final boolean pullMode;
+    private final TechnicianLoadTracker loads = new TechnicianLoadTracker();
+
+    private volatile TrackedRoster trackedRoster;
+
+    public TechnicianAssignmentService(
+            TechnicianRoster technicianRoster,
+            RepairOrderRepository repairOrderRepository,
+            List<TechnicianAssignmentStrategy> strategies,
+            @Value("${repair-order.assignment.strategy:power-of-two}") String strategyName,
+            @Value("${repair-order.assignment.mode:push}") String mode
+    ) {
+        this.technicianRoster = technicianRoster;
+        this.repairOrderRepository = repairOrderRepository;
+        this.strategy = strategies.stream()
+                .filter(candidate -> candidate.name().equals(strategyName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown technician assignment strategy: " + strategyName));
+        this.pullMode = switch (mode) {
+            case "push" -> false;
+            case "pull" -> true;
+            default -> throw new IllegalStateException("Unknown technician assignment mode: " + mode);
+        };
+    }
+
+    /**
+     * Whether new orders go to the unassigned pool instead of being assigned on creation.
+     */
+    public boolean isPullMode() {
+        return pullMode;
+    }
+
+    /**
+     * Chooses a technician and counts the new order against them.
+     *
+     * @return the technician ID, or empty if the roster is empty or stale
+     */
+    public Optional<UUID> assign() {
+        List<UserData> technicians = technicianRoster.technicians();
+        if (technicians.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<UUID> technicianId = strategy.select(track(technicians).technicianIds(), loads);
+        technicianId.ifPresent(loads::increment);
+        return technicianId;
+    }
+
+    /**
+     * Stops counting an order against its technician once it is completed or cancelled.
+     *
+     * @param technicianId the technician ID
+     */
+    public void release(UUID technicianId) {
+        if (technicianId != null) {
+            loads.decrement(technicianId);
+        }
+    }
+
+    public String strategyName() {
+        return strategy.name();
+    }
+
+    TechnicianLoadTracker loads() {
+        return loads;
+    }
+
+    private TrackedRoster track(List<UserData> technicians) {
+        TrackedRoster current = trackedRoster;
+        // The roster hands out the same list until its next refresh
+        if (current != null && current.source() == technicians) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = trackedRoster;
+            if (current != null && current.source() == technicians) {
+                return current;
+            }
+
+            List<UUID> technicianIds = technicians.stream()
+                    .map(technician -> UUID.fromString(technician.getIdentity().getId()))
+                    .toList();
+            Map<UUID, Long> openOrders = repairOrderRepository.countByTechnicianAndStatusIn(OPEN_STATUSES).stream()
+                    .collect(Collectors.toMap(
+                            RepairOrderRepository.TechnicianOrderCount::getTechnicianId,
+                            RepairOrderRepository.TechnicianOrderCount::getOrderCount));
+            loads.reset(technicianIds, openOrders);
+
+            current = new TrackedRoster(technicians, technicianIds);
+            trackedRoster = current;
+            return current;
+        }
+    }
+
+    private record TrackedRoster(List<UserData> source, List<UUID> technicianIds) {}
+}
@@ -0,0 +1,93 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Open-order count of every technician on the roster, kept both by technician and
+ * ordered by load so the least-loaded technician is found in O(log n).
+ *
+ * <p>Updates for one technician are serialised by the map; the ordered set may briefly
+ * hold a stale and a fresh entry for the same technician while it is being updated.
+ * Only tracked technicians are updated, so orders assigned outside the roster are ignored.
+ */
+public class TechnicianLoadTracker {
+    private static final Comparator<Load> ORDER =
+            Comparator.comparingInt(Load::openOrders).thenComparing(Load::technicianId);
+
+    private final Map<UUID, Load> loads = new ConcurrentHashMap<>();
+    private final Set<Load> byLoad = new ConcurrentSkipListSet<>(ORDER);
+
+    /**
+     * Replaces the tracked technicians and their open-order counts.
+     *
+     * @param technicianIds the technicians to track
+     * @param openOrders the open-order count per technician, missing technicians count as zero
+     */
+    public void reset(Collection<UUID> technicianIds, Map<UUID, Long> openOrders) {
+        Set<UUID> tracked = Set.copyOf(technicianIds);
+        loads.keySet().removeIf(id -> !tracked.contains(id));
+        byLoad.removeIf(load -> !tracked.contains(load.technicianId()));
+
+        for (UUID technicianId : tracked) {
+            int count = Math.toIntExact(openOrders.getOrDefault(technicianId, 0L));
+            loads.compute(technicianId, (id, old) -> replace(old, new Load(count, id)));
+        }
+    }
+
+    public void increment(UUID technicianId) {
+        loads.computeIfPresent(technicianId, (id, old) -> replace(old, new Load(old.openOrders() + 1, id)));
+    }
+
+    public void decrement(UUID technicianId) {
+        loads.computeIfPresent(technicianId,
+                (id, old) -> replace(old, new Load(Math.max(0, old.openOrders() - 1), id)));
+    }
+
+    /**
+     * Returns the open-order count of a technician.
+     *
+     * @param technicianId the technician ID
+     * @return the open-order count, or zero if the technician is not tracked
+     */
+    public int load(UUID technicianId) {
+        Load load = loads.get(technicianId);
+        return load == null ? 0 : load.openOrders();
+    }
+
+    /**
+     * Returns the technician with the fewest open orders, ties broken by ID.
+     *
+     * @return the least-loaded technician, or empty if none is tracked
+     */
+    public Optional<UUID> leastLoaded() {
+        for (Load load : byLoad) {
+            // Skips entries already replaced by a concurrent update
+            if (load.equals(loads.get(load.technicianId()))) {
+                return Optional.of(load.technicianId());
+            }
+        }
+        // Every entry seen was replaced behind the iterator; rare enough for a full scan
+        return loads.values().stream().min(ORDER).map(Load::technicianId);
+    }
+
+    public int size() {
+        return loads.size();
+    }
+
+    private Load replace(Load old, Load next) {
+        byLoad.add(next);
+        if (old != null && !old.equals(next)) {
+            byLoad.remove(old);
+        }
+        return next;
+    }
+
+    private record Load(int openOrders, UUID technicianId) {}
+}
@@ -0,0 +1,160 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.ListUsersResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locally held list of technicians, so assigning a technician to a new repair order
+ * does not need a call to the user service.
+ *
+ * <p>The roster pages through every technician in the background and swaps in the new
+ * list as one immutable snapshot. Refreshes are spread by a random jitter so instances
+ * started together do not page the user service at the same moment. A snapshot older
+ * than the configured staleness bound is not used.
+ */
+@Component
+public class TechnicianRoster {
+    private static final Logger logger = LoggerFactory.getLogger(TechnicianRoster.class);
+
+    private final UserServiceGrpcClient userServiceGrpcClient;
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration refreshInterval;
+    private final double jitter;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public TechnicianRoster(
+            UserServiceGrpcClient userServiceGrpcClient,
+            @Value("${repair-order.technician-roster.enabled:true}") boolean enabled,
+            @Value("${repair-order.technician-roster.page-size:100}") int pageSize,
+            @Value("${repair-order.technician-roster.refresh-interval:1m}") Duration refreshInterval,
+            @Value("${repair-order.technician-roster.jitter:0.2}") double jitter,
+            @Value("${repair-order.technician-roster.max-staleness:5m}") Duration maxStaleness
+    ) {
+        this(userServiceGrpcClient, enabled, pageSize, refreshInterval, jitter, maxStaleness, Clock.systemUTC());
+    }
+
+    TechnicianRoster(UserServiceGrpcClient userServiceGrpcClient, boolean enabled, int pageSize,
+                     Duration refreshInterval, double jitter, Duration maxStaleness, Clock clock) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1");
+        }
+        this.userServiceGrpcClient = userServiceGrpcClient;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.refreshInterval = refreshInterval;
+        this.jitter = jitter;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("technician-roster").daemon().factory());
+        scheduler.execute(this::refreshAndReschedule);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Picks a random technician from the roster.
+     *
+     * @return a technician, or empty if the roster is empty or stale
+     */
+    public Optional<UserData> pick() {
+        List<UserData> technicians = technicians();
+        if (technicians.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(technicians.get(ThreadLocalRandom.current().nextInt(technicians.size())));
+    }
+
+    /**
+     * Returns every technician in the roster.
+     *
+     * @return the technicians, or an empty list if the roster is stale
+     */
+    public List<UserData> technicians() {
+        Snapshot current = snapshot;
+        if (current.loadedAt() == null || current.loadedAt().plus(maxStaleness).isBefore(clock.instant())) {
+            return List.of();
+        }
+        return current.technicians();
+    }
+
+    /**
+     * Reloads every page of technicians and replaces the roster.
+     * The previous roster is kept if any page fails.
+     */
+    public void refresh() {
+        List<UserData> technicians = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            ListUsersResponse response = userServiceGrpcClient.listUsersByRole(page, pageSize, UserRole.TECHNICIAN);
+            technicians.addAll(response.getUsersList());
+            if (response.getUsersCount() == 0 || page + 1 >= response.getTotalPages()) {
+                break;
+            }
+        }
+        snapshot = new Snapshot(List.copyOf(technicians), clock.instant());
+        logger.debug("Loaded {} technicians into the roster", technicians.size());
+    }
+
+    private void refreshAndReschedule() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh the technician roster, keeping {} technicians",
+                    snapshot.technicians().size(), e);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::refreshAndReschedule, nextDelay().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    Duration nextDelay() {
+        double factor = jitter == 0 ? 1 : 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis(Math.round(refreshInterval.toMillis() * factor));
+    }
+
+    private record Snapshot(List<UserData> technicians, Instant loadedAt) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), null);
+    }
+}
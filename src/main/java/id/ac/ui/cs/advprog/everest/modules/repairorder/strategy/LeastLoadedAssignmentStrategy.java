@@ -0,0 +1,27 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.strategy;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianLoadTracker;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Always picks the technician with the fewest open orders.
+ * Concurrent assignments converge on the same technician until its count is updated.
+ */
+@Component
+public class LeastLoadedAssignmentStrategy implements TechnicianAssignmentStrategy {
+    public static final String NAME = "least-loaded";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<UUID> select(List<UUID> technicianIds, TechnicianLoadTracker loads) {
+        return loads.leastLoaded();
+    }
+}
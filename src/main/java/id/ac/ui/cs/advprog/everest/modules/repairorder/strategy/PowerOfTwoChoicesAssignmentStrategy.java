@@ -0,0 +1,45 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.strategy;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianLoadTracker;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two technicians at random and picks the one with fewer open orders.
+ * Keeps queues close to even in O(1) without every assignment racing for the same
+ * least-loaded technician.
+ */
+@Component
+public class PowerOfTwoChoicesAssignmentStrategy implements TechnicianAssignmentStrategy {
+    public static final String NAME = "power-of-two";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<UUID> select(List<UUID> technicianIds, TechnicianLoadTracker loads) {
+        int size = technicianIds.size();
+        if (size == 0) {
+            return Optional.empty();
+        }
+        if (size == 1) {
+            return Optional.of(technicianIds.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        UUID a = technicianIds.get(first);
+        UUID b = technicianIds.get(second);
+        return Optional.of(loads.load(a) <= loads.load(b) ? a : b);
+    }
+}
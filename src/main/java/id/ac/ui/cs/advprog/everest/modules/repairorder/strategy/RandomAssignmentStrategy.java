@@ -0,0 +1,27 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.strategy;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianLoadTracker;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class RandomAssignmentStrategy implements TechnicianAssignmentStrategy {
+    public static final String NAME = "random";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<UUID> select(List<UUID> technicianIds, TechnicianLoadTracker loads) {
+        if (technicianIds.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(technicianIds.get(ThreadLocalRandom.current().nextInt(technicianIds.size())));
+    }
+}
@@ -0,0 +1,23 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.strategy;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianLoadTracker;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TechnicianAssignmentStrategy {
+    /**
+     * Name used to select the strategy with {@code repair-order.assignment.strategy}.
+     */
+    String name();
+
+    /**
+     * Chooses the technician for a new repair order.
+     *
+     * @param technicianIds the technicians on the roster, all tracked by {@code loads}
+     * @param loads the open-order count of each technician
+     * @return the chosen technician, or empty if there is none
+     */
+    Optional<UUID> select(List<UUID> technicianIds, TechnicianLoadTracker loads);
+}
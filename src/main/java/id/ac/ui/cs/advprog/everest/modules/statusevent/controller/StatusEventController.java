@@ -0,0 +1,33 @@
+package id.ac.ui.cs.advprog.everest.modules.statusevent.controller;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.CurrentUser;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1")
+public class StatusEventController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final StatusEventRegistry statusEventRegistry;
+
+    public StatusEventController(StatusEventRegistry statusEventRegistry) {
+        this.statusEventRegistry = statusEventRegistry;
+    }
+
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'TECHNICIAN')")
+    @GetMapping(value = "/status-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusEvents(
+            @RequestHeader(name = LAST_EVENT_ID, required = false) String lastEventId,
+            @CurrentUser AuthenticatedUser user
+    ) {
+        return statusEventRegistry.subscribe(user.id(), lastEventId);
+    }
+}
@@ -0,0 +1,27 @@
+package id.ac.ui.cs.advprog.everest.modules.statusevent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@AllArgsConstructor
+@Getter
+public class StatusChangeEvent {
+    /** Status sent when the resource itself is deleted. */
+    public static final String DELETED = "DELETED";
+
+    public enum ResourceType {
+        REPAIR_ORDER,
+        TECHNICIAN_REPORT
+    }
+
+    private final ResourceType resourceType;
+    private final UUID resourceId;
+    private final UUID repairOrderId;
+    private final String status;
+    private final LocalDateTime occurredAt;
+}
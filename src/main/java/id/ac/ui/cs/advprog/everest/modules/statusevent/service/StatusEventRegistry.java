@@ -0,0 +1,387 @@
+package id.ac.ui.cs.advprog.everest.modules.statusevent.service;
+
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pushes status changes of repair orders and technician reports to the users they concern
+ * over Server-Sent Events.
+ *
+ * <p>Each user has a channel holding their open connections and their latest events, so a
+ * client reconnecting with {@code Last-Event-ID} is sent what it missed. When the events it
+ * missed are no longer kept, it is sent a {@code resync} event instead and should reload
+ * what it shows. Idle connections hold no thread: a connection's events are written by a
+ * virtual thread started only while it has some queued. A connection that falls too far
+ * behind is closed rather than queued for without bound, and catches up when it reconnects.
+ *
+ * <p>Events only reach connections on the instance that published them.
+ */
+@Component
+public class StatusEventRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventRegistry.class);
+
+    static final String RESYNC_EVENT = "resync";
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    // Seeded from the clock so IDs keep growing across restarts, and an ID handed out before
+    // a restart is not mistaken for a recent one
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final int replaySize;
+    private final int maxPending;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final Duration replayTtl;
+    private final ExecutorService sender;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public StatusEventRegistry(
+            @Value("${status-events.replay-size:50}") int replaySize,
+            @Value("${status-events.max-pending:100}") int maxPending,
+            @Value("${status-events.timeout:30m}") Duration timeout,
+            @Value("${status-events.heartbeat-interval:20s}") Duration heartbeatInterval,
+            @Value("${status-events.replay-ttl:5m}") Duration replayTtl
+    ) {
+        this.replaySize = replaySize;
+        this.maxPending = maxPending;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.replayTtl = replayTtl;
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("status-event-sender-", 0).factory());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (heartbeatInterval.isZero() || heartbeatInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("status-event-heartbeat").daemon().factory());
+        long millis = heartbeatInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                channel.subscribers.forEach(Subscriber::close);
+            }
+        }
+        sender.shutdown();
+    }
+
+    /**
+     * Opens a stream of the user's status events.
+     *
+     * @param userId the user to stream events to
+     * @param lastEventId the ID of the last event the client received, or null on a first
+     *                    connection
+     * @return the emitter to return from the request handler
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // Closing on timeout lets the client reconnect instead of seeing an error
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        Long lastId = parseEventId(lastEventId);
+        withChannel(userId, channel -> {
+            if (lastId != null) {
+                channel.replay(lastId, subscriber);
+            }
+            channel.subscribers.add(subscriber);
+            return null;
+        });
+        subscriber.flush();
+        return emitter;
+    }
+
+    /**
+     * Sends a status change to the given users, once the current transaction commits if
+     * there is one, so a rolled back change is never announced.
+     *
+     * @param event the status change
+     * @param recipients the users to notify, nulls and duplicates are skipped
+     */
+    public void publish(StatusChangeEvent event, UUID... recipients) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(event, recipients);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(event, recipients);
+            }
+        });
+    }
+
+    private void deliver(StatusChangeEvent event, UUID[] recipients) {
+        Set<UUID> userIds = new LinkedHashSet<>();
+        for (UUID recipient : recipients) {
+            if (recipient != null) {
+                userIds.add(recipient);
+            }
+        }
+        for (UUID userId : userIds) {
+            List<Subscriber> ready = withChannel(userId, channel -> {
+                Entry entry = new Entry(sequence.incrementAndGet(), event);
+                channel.append(entry, replaySize);
+                List<Subscriber> accepted = new ArrayList<>(channel.subscribers.size());
+                for (Iterator<Subscriber> it = channel.subscribers.iterator(); it.hasNext(); ) {
+                    Subscriber subscriber = it.next();
+                    if (subscriber.offer(toSse(entry))) {
+                        accepted.add(subscriber);
+                    } else {
+                        logger.debug("Closing status event stream of user {} that fell behind", userId);
+                        it.remove();
+                        subscriber.close();
+                    }
+                }
+                return accepted;
+            });
+            ready.forEach(Subscriber::flush);
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to sweep status event channels", ex);
+        }
+    }
+
+    /**
+     * Sends a heartbeat on every idle connection, which keeps proxies from closing it and
+     * finds connections the client has dropped, and forgets the events of users who have
+     * not been connected for longer than the replay TTL.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, Channel> item : channels.entrySet()) {
+            Channel channel = item.getValue();
+            List<Subscriber> subscribers;
+            synchronized (channel) {
+                if (channel.subscribers.isEmpty() && now - channel.lastUsed > replayTtl.toNanos()) {
+                    channel.closed = true;
+                    channels.remove(item.getKey(), channel);
+                    continue;
+                }
+                subscribers = List.copyOf(channel.subscribers);
+            }
+            for (Subscriber subscriber : subscribers) {
+                // A connection with events queued is not idle, and may be the one falling behind
+                if (subscriber.isIdle() && subscriber.offer(SseEmitter.event().comment(HEARTBEAT_COMMENT))) {
+                    subscriber.flush();
+                }
+            }
+        }
+    }
+
+    int subscriberCount(UUID userId) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return 0;
+        }
+        synchronized (channel) {
+            return channel.subscribers.size();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        Channel channel = channels.get(subscriber.userId);
+        if (channel != null) {
+            synchronized (channel) {
+                channel.subscribers.remove(subscriber);
+                channel.lastUsed = System.nanoTime();
+            }
+        }
+    }
+
+    // Runs the action holding the user's channel lock, retrying if the sweep closes the
+    // channel in between
+    private <T> T withChannel(UUID userId, Function<Channel, T> action) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, id -> new Channel(sequence.get()));
+            synchronized (channel) {
+                if (!channel.closed) {
+                    channel.lastUsed = System.nanoTime();
+                    return action.apply(channel);
+                }
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder resync() {
+        // Carries an ID so the next reconnect resumes from here rather than asking again
+        return SseEmitter.event().id(Long.toString(sequence.get())).name(RESYNC_EVENT).data("");
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(Entry entry) {
+        return SseEmitter.event().id(Long.toString(entry.id())).data(entry.event(), MediaType.APPLICATION_JSON);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            // Treated as an ID too old to replay from
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private record Entry(long id, StatusChangeEvent event) {}
+
+    // A user's connections and latest events, guarded by its own lock
+    private final class Channel {
+        private final Queue<Entry> recent = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>(1);
+        // Every event of this user with a higher ID is still in recent
+        private long floor;
+        private long lastUsed;
+        private boolean closed;
+
+        private Channel(long floor) {
+            this.floor = floor;
+        }
+
+        private void append(Entry entry, int limit) {
+            recent.add(entry);
+            while (recent.size() > limit) {
+                floor = recent.remove().id();
+            }
+        }
+
+        private void replay(long lastId, Subscriber subscriber) {
+            if (lastId < floor || lastId > sequence.get()) {
+                subscriber.offer(resync());
+                return;
+            }
+            for (Entry entry : recent) {
+                if (entry.id() > lastId && !subscriber.offer(toSse(entry))) {
+                    // More missed than a connection may queue, which a reload covers as well
+                    subscriber.pending.clear();
+                    subscriber.size.set(0);
+                    subscriber.offer(resync());
+                    return;
+                }
+            }
+        }
+    }
+
+    // One connection, with the events queued for it and at most one thread writing them
+    private final class Subscriber {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private boolean isIdle() {
+            return size.get() == 0;
+        }
+
+        // Queues an event, refusing it when the connection is closed or too far behind
+        private boolean offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return false;
+            }
+            if (size.incrementAndGet() > maxPending) {
+                size.decrementAndGet();
+                return false;
+            }
+            pending.add(event);
+            return true;
+        }
+
+        private void flush() {
+            if (!closed.get() && !pending.isEmpty() && sending.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    size.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the container reports it and the emitter's callbacks clean up
+                closed.set(true);
+            } finally {
+                sending.set(false);
+            }
+            flush();
+        }
+
+        // Completes the emitter off the caller's thread, as it waits for a write in progress
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                execute(emitter::complete);
+            }
+        }
+
+        private void execute(Runnable task) {
+            try {
+                sender.execute(task);
+            } catch (RejectedExecutionException ex) {
+                // Shutting down, the container closes the connection
+                closed.set(true);
+            }
+        }
+    }
+}
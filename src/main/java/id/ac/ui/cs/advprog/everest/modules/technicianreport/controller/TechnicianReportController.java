@@ -3,17 +3,21 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.controller;
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.authentication.CurrentUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.CreateTechnicianReportDraftRequest;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.TechnicianReportDraftResponse;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.service.TechnicianReportService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/technician-reports")
@@ -139,20 +143,34 @@ public class TechnicianReportController {
     @GetMapping("/{reportId}")
     public ResponseEntity<GenericResponse<TechnicianReportDraftResponse>> getTechnicianReportById(
             @PathVariable String reportId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @CurrentUser AuthenticatedUser user
     ) {
+        // Pollers holding the current version are answered before the report is loaded
+        Optional<String> etag = ifNoneMatch == null
+                ? Optional.empty()
+                : technicianReportService.getTechnicianReportETag(reportId, user);
+        if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+
         GenericResponse<TechnicianReportDraftResponse> response = technicianReportService
                 .getTechnicianReportById(reportId, user);
-        return ResponseEntity.ok(response);
+        // Failures come back as an unsuccessful response without data, and carry no tag
+        String current = response.getData() == null ? null : ETags.of(response.getData().getLastUpdatedAt());
+        return ResponseEntity.ok().eTag(current).body(response);
     }
 
     @PreAuthorize("hasRole('TECHNICIAN')")
     @GetMapping("/incoming-repair-orders")
     public ResponseEntity<GenericResponse<List<ViewRepairOrderResponse>>> getRepairOrderByTechnicianId(
+            @RequestParam(value = "status", required = false) RepairOrderStatus status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
             @CurrentUser AuthenticatedUser user
     ) {
         GenericResponse<List<ViewRepairOrderResponse>> response = technicianReportService
-                .getRepairOrderByTechnicianId(user);
+                .getRepairOrderByTechnicianId(user, status, cursor, size);
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
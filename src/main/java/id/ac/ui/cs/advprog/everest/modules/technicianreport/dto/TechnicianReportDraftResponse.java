@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Builder
@@ -19,4 +20,5 @@ public class TechnicianReportDraftResponse {
     private Long estimatedCost;
     private Long estimatedTimeSeconds;
     private String status;
+    private LocalDateTime lastUpdatedAt;
 }
\ No newline at end of file
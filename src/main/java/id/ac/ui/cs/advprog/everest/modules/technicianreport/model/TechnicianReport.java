@@ -88,12 +88,15 @@ public class TechnicianReport {
 
     @PostLoad
     void initializeState() {
+        this.state = stateOf(status);
+    }
+
+    public static ReportState stateOf(String status) {
         if (status == null) {
-            this.state = new DraftState();
-            return;
+            return new DraftState();
         }
 
-        this.state = switch (status) {
+        return switch (status) {
             case "DRAFT" -> new DraftState();
             case "SUBMITTED" -> new SubmittedState();
             case "APPROVED" -> new ApprovedState();
@@ -121,4 +124,10 @@ public class TechnicianReport {
             lastUpdatedAt = LocalDateTime.now();
         }
     }
+
+    // Draft edits change the report too, and the update time is what versions it
+    @PreUpdate
+    protected void onUpdate() {
+        lastUpdatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
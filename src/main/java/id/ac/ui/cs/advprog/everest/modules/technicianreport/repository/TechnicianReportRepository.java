@@ -2,8 +2,11 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.repository;
 
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,4 +20,17 @@ public interface TechnicianReportRepository extends JpaRepository<TechnicianRepo
     List<TechnicianReport> findAllByRepairOrderId(UUID id);
 
     List<TechnicianReport> findAllByTechnicianIdAndStatus(UUID technicianId, String status);
+
+    // Just enough to check access and answer a conditional read, without loading the repair order
+    @Query("SELECT t.technicianId AS technicianId, t.status AS status, t.lastUpdatedAt AS lastUpdatedAt "
+            + "FROM TechnicianReport t WHERE t.reportId = :reportId")
+    Optional<TechnicianReportVersion> findVersionByReportId(@Param("reportId") UUID reportId);
+
+    interface TechnicianReportVersion {
+        UUID getTechnicianId();
+
+        String getStatus();
+
+        LocalDateTime getLastUpdatedAt();
+    }
 }
\ No newline at end of file
@@ -3,10 +3,12 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.service;
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.CreateTechnicianReportDraftRequest;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.TechnicianReportDraftResponse;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TechnicianReportService {
     GenericResponse<TechnicianReportDraftResponse> createTechnicianReportDraft(
@@ -65,7 +67,19 @@ public interface TechnicianReportService {
             AuthenticatedUser user
     );
 
+    /**
+     * Returns the entity tag of a report the user may read, without loading the report.
+     *
+     * @param technicianReportDraftId the report ID
+     * @param user the customer or technician reading it
+     * @return the tag, or empty if the report has none or the full read should answer instead
+     */
+    Optional<String> getTechnicianReportETag(String technicianReportDraftId, AuthenticatedUser user);
+
     GenericResponse<List<ViewRepairOrderResponse>> getRepairOrderByTechnicianId(
-            AuthenticatedUser user
+            AuthenticatedUser user,
+            RepairOrderStatus status,
+            String cursor,
+            Integer size
     );
 }
\ No newline at end of file
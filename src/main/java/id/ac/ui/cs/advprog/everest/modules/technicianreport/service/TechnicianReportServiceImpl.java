@@ -2,25 +2,36 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.service;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
 import id.ac.ui.cs.advprog.everest.messaging.RepairEventPublisher;
 import id.ac.ui.cs.advprog.everest.messaging.events.RepairOrderCompletedEvent;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderPager;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderVersions;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianAssignmentService;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.CreateTechnicianReportDraftRequest;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.TechnicianReportDraftResponse;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.exception.*;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository.TechnicianReportVersion;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.upperCase;
 
@@ -31,6 +42,12 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
     private final RepairOrderRepository repairOrderRepository;
     private final RepairEventPublisher repairEventPublisher;
     private final TechnicianReportAuditLogger auditLogger;
+    private final TechnicianAssignmentService technicianAssignmentService;
+    private final RepairOrderPager repairOrderPager;
+    private final TechnicianReportVersions technicianReportVersions;
+    private final RepairOrderVersions repairOrderVersions;
+    private final StatusEventRegistry statusEventRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     private static final String DRAFT = "DRAFT";
     private static final String SUBMITTED = "SUBMITTED";
@@ -47,12 +64,24 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             TechnicianReportRepository technicianReportRepository,
             RepairOrderRepository repairOrderRepository,
             RepairEventPublisher repairEventPublisher,
-            TechnicianReportAuditLogger auditLogger
+            TechnicianReportAuditLogger auditLogger,
+            TechnicianAssignmentService technicianAssignmentService,
+            RepairOrderPager repairOrderPager,
+            TechnicianReportVersions technicianReportVersions,
+            RepairOrderVersions repairOrderVersions,
+            StatusEventRegistry statusEventRegistry,
+            PlatformTransactionManager transactionManager
     ) {
         this.technicianReportRepository = technicianReportRepository;
         this.repairOrderRepository = repairOrderRepository;
         this.repairEventPublisher = repairEventPublisher;
         this.auditLogger = auditLogger;
+        this.technicianAssignmentService = technicianAssignmentService;
+        this.repairOrderPager = repairOrderPager;
+        this.technicianReportVersions = technicianReportVersions;
+        this.repairOrderVersions = repairOrderVersions;
+        this.statusEventRegistry = statusEventRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -70,7 +99,7 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             RepairOrder repairOrder = repairOrderRepository.findById(UUID.fromString(repairOrderId))
                     .orElseThrow(() -> new InvalidTechnicianReportStateException(REPAIR_ORDER_NOT_FOUND));
 
-            if (!repairOrder.getTechnicianId().toString().equals(technician.id().toString())){
+            if (!technician.id().equals(repairOrder.getTechnicianId())) {
                 throw new IllegalAccessTechnicianReport("Technician", "create a report based on this repair order");
             }
 
@@ -97,6 +126,7 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
                     .build();
 
             TechnicianReport savedReport = technicianReportRepository.save(technicianReport);
+            publishStatusChange(savedReport, savedReport.getStatus());
 
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(savedReport);
             auditLogger.logReportAction("CREATE_DRAFT", savedReport.getReportId().toString(), technician.id().toString());
@@ -134,6 +164,7 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             technicianReport.setEstimatedTimeSeconds(createTechnicianReportDraft.getEstimatedTimeSeconds());
 
             TechnicianReport updatedReport = technicianReportRepository.save(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
 
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(updatedReport);
             auditLogger.logReportAction("UPDATE_DRAFT", updatedReport.getReportId().toString(), technician.id().toString());
@@ -166,6 +197,8 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(technicianReport);
 
             technicianReportRepository.delete(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            publishStatusChange(technicianReport, StatusChangeEvent.DELETED);
             auditLogger.logReportAction("DELETE_DRAFT", technicianReport.getReportId().toString(), technician.id().toString());
             return new GenericResponse<>(true, "Technician report draft deleted successfully", response);
         } catch (Exception ex) {
@@ -195,6 +228,8 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
 
             technicianReport.submit();
             TechnicianReport updatedReport = technicianReportRepository.save(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            publishStatusChange(updatedReport, updatedReport.getStatus());
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(updatedReport);
             auditLogger.logReportAction("SUBMIT_DRAFT", updatedReport.getReportId().toString(), technician.id().toString());
             return new GenericResponse<>(true, "Technician report draft submitted successfully", response);
@@ -226,6 +261,8 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
 
             technicianReport.approve();
             technicianReportRepository.save(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            publishStatusChange(technicianReport, technicianReport.getStatus());
 
             auditLogger.logReportAction("ACCEPT_SUBMIT", technicianReport.getReportId().toString(), customer.id().toString());
             return new GenericResponse<>(true, "Technician report draft accepted successfully", null);
@@ -257,6 +294,8 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
 
             technicianReport.reject();
             technicianReportRepository.save(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            publishStatusChange(technicianReport, technicianReport.getStatus());
 
             auditLogger.logReportAction("REJECT_SUBMIT", technicianReport.getReportId().toString(), customer.id().toString());
             return new GenericResponse<>(true, "Technician report draft rejected successfully", null);
@@ -288,7 +327,9 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             technicianReport.getRepairOrder().setStatus(RepairOrderStatus.IN_PROGRESS);
 
             technicianReport.startWork();
-            TechnicianReport updatedReport = technicianReportRepository.save(technicianReport);
+            TechnicianReport updatedReport = saveWithRepairOrder(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            repairOrderVersions.evict(technicianReport.getRepairOrder().getId());
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(updatedReport);
             auditLogger.logReportAction("START_WORK", updatedReport.getReportId().toString(), technician.id().toString());
             return new GenericResponse<>(true, "Technician report draft started successfully", response);
@@ -318,7 +359,10 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
             }
 
             technicianReport.complete();
-            TechnicianReport updatedReport = technicianReportRepository.save(technicianReport);
+            technicianReport.getRepairOrder().setStatus(RepairOrderStatus.COMPLETED);
+            TechnicianReport updatedReport = saveWithRepairOrder(technicianReport);
+            technicianReportVersions.evict(technicianReport.getReportId());
+            repairOrderVersions.evict(technicianReport.getRepairOrder().getId());
             TechnicianReportDraftResponse response = buildTechnicianReportDraftResponse(updatedReport);
 
             RepairOrderCompletedEvent repairOrderCompletedEvent = RepairOrderCompletedEvent.builder()
@@ -328,7 +372,7 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
                     .completedAt(Instant.now())
                     .build();
 
-            technicianReport.getRepairOrder().setStatus(RepairOrderStatus.COMPLETED);
+            technicianAssignmentService.release(technicianReport.getRepairOrder().getTechnicianId());
             repairEventPublisher.publishRepairCompleted(repairOrderCompletedEvent);
 
             auditLogger.logReportAction("COMPLETE_WORK", updatedReport.getReportId().toString(), technician.id().toString());
@@ -403,25 +447,79 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
     }
 
     @Override
-    public GenericResponse<List<ViewRepairOrderResponse>> getRepairOrderByTechnicianId(AuthenticatedUser user) {
+    public Optional<String> getTechnicianReportETag(String technicianReportId, AuthenticatedUser user) {
+        if (technicianReportId == null || user == null) {
+            return Optional.empty();
+        }
+
+        try {
+            // Same access rules as the full read; anyone refused there falls through to its error
+            return technicianReportVersions.get(UUID.fromString(technicianReportId))
+                    .filter(version -> canRead(version, user))
+                    .map(version -> ETags.of(version.getLastUpdatedAt()));
+        } catch (IllegalArgumentException | DataAccessException ex) {
+            return Optional.empty();
+        }
+    }
+
+    // The report does not cascade to its repair order, so a status change on the order is
+    // written in the same transaction as the report. Both changes are published from inside
+    // it, which holds them back until it commits.
+    private TechnicianReport saveWithRepairOrder(TechnicianReport technicianReport) {
+        return transactionTemplate.execute(status -> {
+            repairOrderRepository.save(technicianReport.getRepairOrder());
+            TechnicianReport updatedReport = technicianReportRepository.save(technicianReport);
+            publishStatusChange(updatedReport, updatedReport.getStatus());
+            publishStatusChange(technicianReport.getRepairOrder());
+            return updatedReport;
+        });
+    }
+
+    private void publishStatusChange(TechnicianReport technicianReport, String status) {
+        RepairOrder repairOrder = technicianReport.getRepairOrder();
+        // Customers only hear of reports they are allowed to read, and never of drafts
+        UUID customerId = TechnicianReport.stateOf(technicianReport.getStatus()).customerCanSee()
+                ? repairOrder.getCustomerId()
+                : null;
+        statusEventRegistry.publish(StatusChangeEvent.builder()
+                .resourceType(StatusChangeEvent.ResourceType.TECHNICIAN_REPORT)
+                .resourceId(technicianReport.getReportId())
+                .repairOrderId(repairOrder.getId())
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build(), technicianReport.getTechnicianId(), customerId);
+    }
+
+    private void publishStatusChange(RepairOrder repairOrder) {
+        statusEventRegistry.publish(StatusChangeEvent.builder()
+                .resourceType(StatusChangeEvent.ResourceType.REPAIR_ORDER)
+                .resourceId(repairOrder.getId())
+                .repairOrderId(repairOrder.getId())
+                .status(repairOrder.getStatus().name())
+                .occurredAt(LocalDateTime.now())
+                .build(), repairOrder.getCustomerId(), repairOrder.getTechnicianId());
+    }
+
+    private static boolean canRead(TechnicianReportVersion version, AuthenticatedUser user) {
+        if (user.role() == UserRole.CUSTOMER) {
+            return TechnicianReport.stateOf(version.getStatus()).customerCanSee();
+        }
+        return user.role() == UserRole.TECHNICIAN && version.getTechnicianId().equals(user.id());
+    }
+
+    @Override
+    public GenericResponse<List<ViewRepairOrderResponse>> getRepairOrderByTechnicianId(
+            AuthenticatedUser user,
+            RepairOrderStatus status,
+            String cursor,
+            Integer size) {
         try {
-            List<ViewRepairOrderResponse> repairOrders = repairOrderRepository.findByTechnicianId(user.id()).stream()
-                    .filter(repairOrder -> repairOrder.getStatus() == RepairOrderStatus.PENDING_CONFIRMATION)
-                    .map(ro -> ViewRepairOrderResponse.builder()
-                            .id(ro.getId())
-                            .customerId(ro.getCustomerId())
-                            .technicianId(ro.getTechnicianId())
-                            .status(ro.getStatus())
-                            .itemName(ro.getItemName())
-                            .itemCondition(ro.getItemCondition())
-                            .issueDescription(ro.getIssueDescription())
-                            .desiredServiceDate(ro.getDesiredServiceDate())
-                            .createdAt(ro.getCreatedAt())
-                            .updatedAt(ro.getUpdatedAt())
-                            .build())
-                    .collect(Collectors.toList());
-
-            return new GenericResponse<>(true, "Repair orders retrieved successfully", repairOrders);
+            // Incoming orders are the ones still awaiting confirmation unless asked otherwise
+            RepairOrderStatus filter = status != null ? status : RepairOrderStatus.PENDING_CONFIRMATION;
+            Window<ViewRepairOrderResponse> page = repairOrderPager.byTechnician(user.id(), filter, cursor, size);
+
+            return new GenericResponse<>(true, "Repair orders retrieved successfully", page.getContent(),
+                    RepairOrderPager.nextCursor(page));
         } catch (Exception ex) {
             return handleException(ex);
         }
@@ -437,6 +535,7 @@ public class TechnicianReportServiceImpl implements TechnicianReportService {
                 .estimatedCost(report.getEstimatedCost())
                 .estimatedTimeSeconds(report.getEstimatedTimeSeconds())
                 .status(report.getStatus())
+                .lastUpdatedAt(report.getLastUpdatedAt())
                 .build();
     }
 
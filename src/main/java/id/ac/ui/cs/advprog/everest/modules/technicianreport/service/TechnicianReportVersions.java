@@ -0,0 +1,37 @@
+package id.ac.ui.cs.advprog.everest.modules.technicianreport.service;
+
+import id.ac.ui.cs.advprog.everest.common.utils.VersionCache;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository.TechnicianReportVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Current versions of technician reports, read by conditional GETs to answer 304 without
+ * loading the report and its repair order. Versions are cached briefly; every write to a
+ * report must {@link #evict} it.
+ */
+@Component
+public class TechnicianReportVersions {
+    private final VersionCache<UUID, TechnicianReportVersion> versions;
+
+    public TechnicianReportVersions(
+            TechnicianReportRepository technicianReportRepository,
+            @Value("${technician-report.etag-cache.ttl:2s}") Duration ttl,
+            @Value("${technician-report.etag-cache.max-size:10000}") long maxSize
+    ) {
+        this.versions = new VersionCache<>(ttl, maxSize, technicianReportRepository::findVersionByReportId);
+    }
+
+    public Optional<TechnicianReportVersion> get(UUID reportId) {
+        return versions.get(reportId);
+    }
+
+    public void evict(UUID reportId) {
+        versions.evict(reportId);
+    }
+}
@@ -0,0 +1,255 @@
+package id.ac.ui.cs.advprog.everest;
+
+import id.ac.ui.cs.advprog.everest.common.utils.KeysetCursor;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.rating.model.Rating;
+import id.ac.ui.cs.advprog.everest.modules.rating.repository.RatingRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.report.repository.ReportRepository;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every hot repository query against a database migrated by the Liquibase changelog
+ * and fails if the plan of any statement it issues scans a whole table.
+ *
+ * <p>Runs on H2 in PostgreSQL mode, so it catches a missing or mismatched index rather than
+ * PostgreSQL's cost-based choices; the Postgres-only partial index is not part of the schema.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaConfig.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "id.ac.ui.cs.advprog.everest.QueryPlanTest$RecordingInspector"
+})
+class QueryPlanTest {
+    private static final int CUSTOMERS = 20;
+    private static final int TECHNICIANS = 10;
+    private static final int ORDERS_PER_CUSTOMER = 10;
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private TechnicianReportRepository technicianReportRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> customers = new ArrayList<>();
+    private final List<UUID> technicians = new ArrayList<>();
+    private RepairOrder sampleOrder;
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        PaymentMethod paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        couponRepository.save(Coupon.builder()
+                .code("PLAN50")
+                .discountAmount(50000)
+                .maxUsage(100)
+                .usageCount(0)
+                .validUntil(LocalDate.now().plusDays(30))
+                .build());
+        for (int i = 0; i < TECHNICIANS; i++) {
+            technicians.add(UUID.randomUUID());
+        }
+
+        RepairOrderStatus[] statuses = RepairOrderStatus.values();
+        List<RepairOrder> orders = new ArrayList<>();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            UUID customerId = UUID.randomUUID();
+            customers.add(customerId);
+            for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+                orders.add(RepairOrder.builder()
+                        .customerId(customerId)
+                        .technicianId(technicians.get((c + i) % TECHNICIANS))
+                        .status(statuses[i % statuses.length])
+                        .itemName("Laptop")
+                        .itemCondition("Screen not working")
+                        .issueDescription("Black screen after startup")
+                        .desiredServiceDate(LocalDate.now().plusDays(2))
+                        .paymentMethod(paymentMethod)
+                        .build());
+            }
+        }
+        orders = repairOrderRepository.saveAll(orders);
+        sampleOrder = orders.getFirst();
+
+        List<TechnicianReport> reports = new ArrayList<>();
+        List<Rating> ratings = new ArrayList<>();
+        for (RepairOrder order : orders) {
+            reports.add(TechnicianReport.builder()
+                    .reportId(UUID.randomUUID())
+                    .repairOrder(order)
+                    .technicianId(order.getTechnicianId())
+                    .diagnosis("Broken screen")
+                    .actionPlan("Replace screen")
+                    .status("COMPLETED")
+                    .lastUpdatedAt(LocalDateTime.now())
+                    .build());
+            ratings.add(Rating.builder()
+                    .userId(order.getCustomerId())
+                    .technicianId(order.getTechnicianId())
+                    .repairOrderId(order.getId())
+                    .comment("Great")
+                    .score(5)
+                    .build());
+        }
+        technicianReportRepository.saveAll(reports);
+        ratingRepository.saveAll(ratings);
+
+        repairOrderRepository.flush();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQueries_shouldUseIndexes() {
+        UUID customerId = customers.getFirst();
+        UUID technicianId = technicians.getFirst();
+        KeysetCursor cursor = new KeysetCursor(sampleOrder.getCreatedAt(), sampleOrder.getId());
+
+        Map<String, Runnable> queries = Map.ofEntries(
+                Map.entry("RepairOrder.findById",
+                        () -> repairOrderRepository.findById(sampleOrder.getId())),
+                Map.entry("RepairOrder.findByCustomerId",
+                        () -> repairOrderRepository.findByCustomerId(customerId)),
+                Map.entry("RepairOrder.findByTechnicianId",
+                        () -> repairOrderRepository.findByTechnicianId(technicianId)),
+                Map.entry("RepairOrder.findViewById",
+                        () -> repairOrderRepository.findViewById(sampleOrder.getId())),
+                Map.entry("RepairOrder.findViewsByCustomerId",
+                        () -> repairOrderRepository.findViewsByCustomerId(customerId, null, cursor, 20)),
+                Map.entry("RepairOrder.findViewsByCustomerId with status",
+                        () -> repairOrderRepository.findViewsByCustomerId(
+                                customerId, RepairOrderStatus.PENDING_CONFIRMATION, cursor, 20)),
+                Map.entry("RepairOrder.findViewsByTechnicianId",
+                        () -> repairOrderRepository.findViewsByTechnicianId(technicianId, null, cursor, 20)),
+                Map.entry("RepairOrder.findViewsByTechnicianId with status",
+                        () -> repairOrderRepository.findViewsByTechnicianId(
+                                technicianId, RepairOrderStatus.PENDING_CONFIRMATION, cursor, 20)),
+                Map.entry("RepairOrder.countByTechnicianAndStatusIn",
+                        () -> repairOrderRepository.countByTechnicianAndStatusIn(
+                                Set.of(RepairOrderStatus.PENDING_CONFIRMATION, RepairOrderStatus.IN_PROGRESS))),
+                Map.entry("RepairOrder.findFirstUnassigned",
+                        () -> repairOrderRepository.findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(
+                                RepairOrderStatus.PENDING_CONFIRMATION)),
+                Map.entry("TechnicianReport.findAllByStatus",
+                        () -> technicianReportRepository.findAllByStatus("SUBMITTED")),
+                Map.entry("TechnicianReport.findAllByRepairOrderId",
+                        () -> technicianReportRepository.findAllByRepairOrderId(sampleOrder.getId())),
+                Map.entry("TechnicianReport.findAllByTechnicianIdAndStatus",
+                        () -> technicianReportRepository.findAllByTechnicianIdAndStatus(technicianId, "SUBMITTED")),
+                Map.entry("Report.findByTechnicianIdAndStatus",
+                        () -> reportRepository.findByTechnicianIdAndStatus(technicianId, "COMPLETED")),
+                Map.entry("Report.searchByTechnicianIdCompleted",
+                        () -> reportRepository.searchByTechnicianIdCompleted(technicianId)),
+                Map.entry("Rating.findAllByTechnicianId",
+                        () -> ratingRepository.findAllByTechnicianId(technicianId)),
+                Map.entry("Rating.findAllByUserId",
+                        () -> ratingRepository.findAllByUserId(customerId)),
+                Map.entry("Rating.existsByUserIdAndRepairOrderId",
+                        () -> ratingRepository.existsByUserIdAndRepairOrderId(customerId, sampleOrder.getId())),
+                Map.entry("Coupon.findByCode",
+                        () -> couponRepository.findByCode("PLAN50"))
+        );
+
+        return queries.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoTableScan(query.getValue())));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+        RecordingInspector.STATEMENTS.clear();
+        query.run();
+        List<String> selects = RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), "query issued no select");
+
+        for (String sql : selects) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), () -> "sequential scan in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+}
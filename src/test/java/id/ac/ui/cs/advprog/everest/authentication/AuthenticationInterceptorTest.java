@@ -4,15 +4,19 @@ import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException
 import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
 import id.ac.ui.cs.advprog.everest.common.service.AuthServiceGrpcClient;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.method.HandlerMethod;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,9 +27,11 @@ class AuthenticationInterceptorTest {
     @Mock
     AuthServiceGrpcClient authServiceGrpcClient;
 
-    @InjectMocks
     AuthenticationInterceptor interceptor;
 
+    @Mock
+    LocalTokenVerifier localTokenVerifier;
+
     @Mock
     HttpServletRequest request;
 
@@ -40,6 +46,11 @@ class AuthenticationInterceptorTest {
     @BeforeEach
     void setUp() throws NoSuchMethodException {
         MockitoAnnotations.openMocks(this);
+        when(localTokenVerifier.verify(anyString())).thenReturn(Optional.empty());
+        TokenValidationCache tokenValidationCache = new TokenValidationCache(
+                Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+        interceptor = new AuthenticationInterceptor(authServiceGrpcClient, tokenValidationCache, localTokenVerifier,
+                new HandlerSecurityMetadataRegistry());
         dummyMethod = DummyController.class.getMethod("securedMethod", AuthenticatedUser.class);
     }
 
@@ -50,9 +61,12 @@ class AuthenticationInterceptorTest {
     }
 
     static class DummyController {
-        @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+        @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
         public void securedMethod(@CurrentUser AuthenticatedUser user) {}
+        @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+        public void adminMethod() {}
         public void openMethod() {}
+        public void profileMethod(@CurrentUser(profile = true) AuthenticatedUser user) {}
     }
 
     @Test
@@ -97,7 +111,7 @@ class AuthenticationInterceptorTest {
                 null,
                 null
         );
-        when(authServiceGrpcClient.validateToken("VALID_TOKEN")).thenReturn(user);
+        when(authServiceGrpcClient.validateToken("VALID_TOKEN", false)).thenReturn(user);
 
         boolean result = interceptor.preHandle(request, response, handlerMethod);
 
@@ -106,12 +120,103 @@ class AuthenticationInterceptorTest {
         assertEquals("ROLE_CUSTOMER", SecurityContextHolder.getContext().getAuthentication().getAuthorities().iterator().next().getAuthority());
     }
 
+    @Test
+    void testPreHandle_reusesCachedValidation() throws Exception {
+        when(handlerMethod.getMethod()).thenReturn(dummyMethod);
+        when(request.getHeader("Authorization")).thenReturn("Bearer VALID_TOKEN");
+
+        AuthenticatedUser user = new AuthenticatedUser(
+                UUID.randomUUID(),
+                "a@a.com",
+                "Customer Fullname",
+                UserRole.CUSTOMER,
+                "001122334455",
+                Instant.now(),
+                Instant.now(),
+                "Depok",
+                null,
+                null,
+                null
+        );
+        when(authServiceGrpcClient.validateToken("VALID_TOKEN", false)).thenReturn(user);
+
+        assertTrue(interceptor.preHandle(request, response, handlerMethod));
+        assertTrue(interceptor.preHandle(request, response, handlerMethod));
+
+        verify(authServiceGrpcClient, times(1)).validateToken("VALID_TOKEN", false);
+        assertEquals(user, UserContext.getUser());
+    }
+
+    @Test
+    void testPreHandle_usesLocallyVerifiedUserWithoutCallingAuthService() throws Exception {
+        when(handlerMethod.getMethod()).thenReturn(dummyMethod);
+        when(request.getHeader("Authorization")).thenReturn("Bearer SIGNED_TOKEN");
+
+        AuthenticatedUser user = new AuthenticatedUser(
+                UUID.randomUUID(),
+                "a@a.com",
+                "Customer Fullname",
+                UserRole.CUSTOMER,
+                "001122334455",
+                Instant.now(),
+                Instant.now(),
+                null,
+                null,
+                null,
+                null
+        );
+        when(localTokenVerifier.verify("SIGNED_TOKEN")).thenReturn(Optional.of(user));
+
+        boolean result = interceptor.preHandle(request, response, handlerMethod);
+
+        assertTrue(result);
+        assertEquals(user, UserContext.getUser());
+        verifyNoInteractions(authServiceGrpcClient);
+    }
+
+    @Test
+    void testPreHandle_requestsProfile_whenHandlerNeedsIt() throws Exception {
+        when(handlerMethod.getMethod()).thenReturn(
+                DummyController.class.getMethod("profileMethod", AuthenticatedUser.class));
+        when(request.getHeader("Authorization")).thenReturn("Bearer VALID_TOKEN");
+
+        AuthenticatedUser identity = AuthenticatedUser.ofIdentity(
+                UUID.randomUUID(), "a@a.com", "Customer Fullname", UserRole.CUSTOMER,
+                "001122334455", Instant.now(), Instant.now());
+        AuthenticatedUser withProfile = identity.withProfile("Depok", null, null, null);
+        when(authServiceGrpcClient.validateToken("VALID_TOKEN", false)).thenReturn(identity);
+        when(authServiceGrpcClient.validateToken("VALID_TOKEN", true)).thenReturn(withProfile);
+
+        // A cached identity-only entry must not satisfy a handler that needs the profile
+        interceptor.preHandle(request, response, handlerMethod);
+        when(handlerMethod.getMethod()).thenReturn(dummyMethod);
+        interceptor.preHandle(request, response, handlerMethod);
+        when(handlerMethod.getMethod()).thenReturn(
+                DummyController.class.getMethod("profileMethod", AuthenticatedUser.class));
+        interceptor.preHandle(request, response, handlerMethod);
+
+        verify(authServiceGrpcClient, times(1)).validateToken("VALID_TOKEN", true);
+        verify(authServiceGrpcClient, never()).validateToken("VALID_TOKEN", false);
+        assertEquals(withProfile, UserContext.getUser());
+    }
+
+    @Test
+    void testPreHandle_deniesUserWithoutAllowedRole() throws Exception {
+        when(handlerMethod.getMethod()).thenReturn(DummyController.class.getMethod("adminMethod"));
+        when(request.getHeader("Authorization")).thenReturn("Bearer VALID_TOKEN");
+        when(authServiceGrpcClient.validateToken("VALID_TOKEN", false)).thenReturn(AuthenticatedUser.ofIdentity(
+                UUID.randomUUID(), "a@a.com", "Customer Fullname", UserRole.CUSTOMER,
+                "001122334455", Instant.now(), Instant.now()));
+
+        assertThrows(AccessDeniedException.class, () -> interceptor.preHandle(request, response, handlerMethod));
+    }
+
     @Test
     void testPreHandle_rejectsInvalidToken() throws Exception {
         when(handlerMethod.getMethod()).thenReturn(dummyMethod);
         when(request.getHeader("Authorization")).thenReturn("Bearer INVALID_TOKEN");
 
-        when(authServiceGrpcClient.validateToken("INVALID_TOKEN")).thenThrow(new InvalidTokenException("Invalid"));
+        when(authServiceGrpcClient.validateToken("INVALID_TOKEN", false)).thenThrow(new InvalidTokenException("Invalid"));
 
         boolean result = interceptor.preHandle(request, response, handlerMethod);
 
@@ -124,7 +229,7 @@ class AuthenticationInterceptorTest {
         when(handlerMethod.getMethod()).thenReturn(dummyMethod);
         when(request.getHeader("Authorization")).thenReturn("Bearer TOKEN");
 
-        when(authServiceGrpcClient.validateToken("TOKEN")).thenThrow(
+        when(authServiceGrpcClient.validateToken("TOKEN", false)).thenThrow(
                 new AuthServiceException("Service unavailable", new RuntimeException())
         );
 
@@ -139,7 +244,7 @@ class AuthenticationInterceptorTest {
         when(handlerMethod.getMethod()).thenReturn(dummyMethod);
         when(request.getHeader("Authorization")).thenReturn("Bearer TOKEN");
 
-        when(authServiceGrpcClient.validateToken("TOKEN")).thenThrow(new RuntimeException("Unexpected"));
+        when(authServiceGrpcClient.validateToken("TOKEN", false)).thenThrow(new RuntimeException("Unexpected"));
 
         boolean result = interceptor.preHandle(request, response, handlerMethod);
 
@@ -165,4 +270,23 @@ class AuthenticationInterceptorTest {
         interceptor.afterCompletion(request, response, handlerMethod, null);
         assertNull(UserContext.getUser());
     }
+
+    @Test
+    void testAfterConcurrentHandlingStarted_clearsUserContext() {
+        UserContext.setUser(new AuthenticatedUser(
+                UUID.randomUUID(),
+                "a@a.com",
+                "Customer Fullname",
+                UserRole.CUSTOMER,
+                "001122334455",
+                Instant.now(),
+                Instant.now(),
+                null,
+                null,
+                null,
+                null
+        ));
+        interceptor.afterConcurrentHandlingStarted(request, response, handlerMethod);
+        assertNull(UserContext.getUser());
+    }
 }
@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.everest.authentication;
 
+import id.ac.ui.cs.advprog.everest.common.service.AuthServiceGrpcClient;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,10 +19,12 @@ import static org.mockito.Mockito.*;
 
 class CurrentUserArgumentResolverTest {
 
-    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+    private final AuthServiceGrpcClient authServiceGrpcClient = mock(AuthServiceGrpcClient.class);
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver(authServiceGrpcClient);
 
     static class DummyController {
         public void withCurrentUser(@CurrentUser AuthenticatedUser user) {}
+        public void withProfile(@CurrentUser(profile = true) AuthenticatedUser user) {}
         public void withoutAnnotation(AuthenticatedUser user) {}
         public void wrongType(@CurrentUser String notAUser) {}
     }
@@ -108,4 +111,36 @@ class CurrentUserArgumentResolverTest {
 
         assertNull(result);
     }
+
+    @Test
+    void resolveArgument_loadsProfile_ifRequestedAndNotLoaded() throws Exception {
+        AuthenticatedUser identity = AuthenticatedUser.ofIdentity(
+                UUID.randomUUID(), "t@t.com", "Technician", UserRole.TECHNICIAN, "0811", Instant.now(), Instant.now());
+        AuthenticatedUser withProfile = identity.withProfile("Depok", "5 years", 10, 1000L);
+        UserContext.setUser(identity);
+        when(authServiceGrpcClient.loadProfile(identity)).thenReturn(withProfile);
+
+        MethodParameter parameter = getMethodParameter("withProfile", AuthenticatedUser.class);
+
+        Object result = resolver.resolveArgument(parameter, new ModelAndViewContainer(),
+                mock(NativeWebRequest.class), mock(WebDataBinderFactory.class));
+
+        assertEquals(withProfile, result);
+        assertEquals(withProfile, UserContext.getUser());
+    }
+
+    @Test
+    void resolveArgument_doesNotLoadProfile_ifNotRequested() throws Exception {
+        AuthenticatedUser identity = AuthenticatedUser.ofIdentity(
+                UUID.randomUUID(), "t@t.com", "Technician", UserRole.TECHNICIAN, "0811", Instant.now(), Instant.now());
+        UserContext.setUser(identity);
+
+        MethodParameter parameter = getMethodParameter("withCurrentUser", AuthenticatedUser.class);
+
+        Object result = resolver.resolveArgument(parameter, new ModelAndViewContainer(),
+                mock(NativeWebRequest.class), mock(WebDataBinderFactory.class));
+
+        assertEquals(identity, result);
+        verifyNoInteractions(authServiceGrpcClient);
+    }
 }
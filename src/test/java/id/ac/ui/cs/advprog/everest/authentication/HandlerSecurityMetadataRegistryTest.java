@@ -0,0 +1,113 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerSecurityMetadataRegistryTest {
+
+    private final HandlerSecurityMetadataRegistry registry = new HandlerSecurityMetadataRegistry();
+
+    static class DummyController {
+        public void openMethod() {}
+
+        @PreAuthorize("hasRole('TECHNICIAN')")
+        public void technicianOnly() {}
+
+        @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+        public void customerOrAdmin() {}
+
+        @PreAuthorize("isAuthenticated()")
+        public void anyUser() {}
+
+        public void withCurrentUser(@CurrentUser AuthenticatedUser user) {}
+
+        public void withProfile(@CurrentUser(profile = true) AuthenticatedUser user) {}
+    }
+
+    static class UnsupportedController {
+        @PreAuthorize("hasRole('ADMIN') and #id == principal.id")
+        public void ownerOnly(String id) {}
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    static class AdminController {
+        public void anything() {}
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return type.getMethod(name, parameterTypes);
+    }
+
+    @Test
+    void get_shouldNotRequireAuthentication_forUnannotatedHandler() throws Exception {
+        assertSame(HandlerSecurityMetadata.PUBLIC, registry.get(method(DummyController.class, "openMethod")));
+    }
+
+    @Test
+    void get_shouldAllowOnlyListedRoles() throws Exception {
+        HandlerSecurityMetadata technicianOnly = registry.get(method(DummyController.class, "technicianOnly"));
+        HandlerSecurityMetadata customerOrAdmin = registry.get(method(DummyController.class, "customerOrAdmin"));
+
+        assertTrue(technicianOnly.authenticationRequired());
+        assertTrue(technicianOnly.allows(UserRole.TECHNICIAN));
+        assertFalse(technicianOnly.allows(UserRole.CUSTOMER));
+        assertTrue(customerOrAdmin.allows(UserRole.CUSTOMER));
+        assertTrue(customerOrAdmin.allows(UserRole.ADMIN));
+        assertFalse(customerOrAdmin.allows(UserRole.TECHNICIAN));
+    }
+
+    @Test
+    void get_shouldAllowAnyRole_forIsAuthenticatedAndCurrentUser() throws Exception {
+        HandlerSecurityMetadata anyUser = registry.get(method(DummyController.class, "anyUser"));
+        HandlerSecurityMetadata currentUser = registry.get(
+                method(DummyController.class, "withCurrentUser", AuthenticatedUser.class));
+
+        for (UserRole role : List.of(UserRole.ADMIN, UserRole.TECHNICIAN, UserRole.CUSTOMER)) {
+            assertTrue(anyUser.allows(role));
+            assertTrue(currentUser.allows(role));
+        }
+        assertTrue(currentUser.authenticationRequired());
+        assertFalse(currentUser.profileRequired());
+    }
+
+    @Test
+    void get_shouldRecordProfileRequirement() throws Exception {
+        HandlerSecurityMetadata metadata = registry.get(
+                method(DummyController.class, "withProfile", AuthenticatedUser.class));
+
+        assertTrue(metadata.profileRequired());
+    }
+
+    @Test
+    void get_shouldFallBackToClassLevelAnnotation() throws Exception {
+        HandlerSecurityMetadata metadata = registry.get(method(AdminController.class, "anything"));
+
+        assertTrue(metadata.allows(UserRole.ADMIN));
+        assertFalse(metadata.allows(UserRole.CUSTOMER));
+    }
+
+    @Test
+    void register_shouldFail_forUnsupportedExpression() throws Exception {
+        HandlerMethod handlerMethod = new HandlerMethod(
+                new UnsupportedController(), method(UnsupportedController.class, "ownerOnly", String.class));
+
+        assertThrows(IllegalStateException.class, () -> registry.register(List.of(handlerMethod)));
+    }
+
+    @Test
+    void register_shouldServeRegisteredMethodsFromTable() throws Exception {
+        Method technicianOnly = method(DummyController.class, "technicianOnly");
+
+        registry.register(List.of(new HandlerMethod(new DummyController(), technicianOnly)));
+
+        assertEquals(1, registry.size());
+        assertSame(registry.get(technicianOnly), registry.get(technicianOnly));
+    }
+}
@@ -0,0 +1,225 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalTokenVerifierTest {
+
+    private static RSAKey signingKey;
+    private static RSAKey otherKey;
+
+    @TempDir
+    Path tempDir;
+
+    private Path keySetPath;
+    private Path revocationListPath;
+    private Instant now;
+    private LocalTokenVerifier verifier;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        otherKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        now = Instant.parse("2026-01-01T00:00:00Z");
+        keySetPath = tempDir.resolve("jwks.json");
+        revocationListPath = tempDir.resolve("revoked.txt");
+        writeKeySet(signingKey);
+        Files.writeString(revocationListPath, "# revoked token IDs\nrevoked-jti\n");
+
+        verifier = createVerifier("local");
+    }
+
+    private LocalTokenVerifier createVerifier(String mode) {
+        return new LocalTokenVerifier(
+                mode,
+                keySetPath.toString(),
+                revocationListPath.toString(),
+                Duration.ZERO,
+                Duration.ofSeconds(30),
+                "kilimanjaro",
+                Clock.fixed(now, ZoneOffset.UTC)
+        );
+    }
+
+    private void writeKeySet(RSAKey... keys) throws IOException {
+        List<JWK> publicKeys = Arrays.stream(keys)
+                .map(key -> (JWK) key.toPublicJWK())
+                .toList();
+        Files.writeString(keySetPath, new JWKSet(publicKeys).toString());
+    }
+
+    private JWTClaimsSet.Builder validClaims(UUID userId) {
+        return new JWTClaimsSet.Builder()
+                .subject(userId.toString())
+                .issuer("kilimanjaro")
+                .jwtID(UUID.randomUUID().toString())
+                .claim("email", "tech@example.com")
+                .claim("full_name", "Technician")
+                .claim("role", "TECHNICIAN")
+                .claim("phone_number", "08123456789")
+                .expirationTime(Date.from(now.plusSeconds(600)));
+    }
+
+    private String sign(RSAKey key, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                claims
+        );
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Test
+    void verify_shouldBuildUserFromClaims_whenTokenIsValid() throws JOSEException {
+        UUID userId = UUID.randomUUID();
+
+        Optional<AuthenticatedUser> user = verifier.verify(sign(signingKey, validClaims(userId).build()));
+
+        assertTrue(user.isPresent());
+        assertEquals(userId, user.get().id());
+        assertEquals("tech@example.com", user.get().email());
+        assertEquals(UserRole.TECHNICIAN, user.get().role());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenModeIsRemote() throws JOSEException {
+        LocalTokenVerifier remoteVerifier = createVerifier("remote");
+
+        assertFalse(remoteVerifier.isEnabled());
+        assertTrue(remoteVerifier.verify(sign(signingKey, validClaims(UUID.randomUUID()).build())).isEmpty());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_forOpaqueToken() {
+        assertTrue(verifier.verify("opaque-session-token").isEmpty());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenKeyIsUnknown() throws JOSEException {
+        assertTrue(verifier.verify(sign(otherKey, validClaims(UUID.randomUUID()).build())).isEmpty());
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenTokenIsRevoked() throws JOSEException {
+        JWTClaimsSet claims = validClaims(UUID.randomUUID()).jwtID("revoked-jti").build();
+
+        assertTrue(verifier.verify(sign(signingKey, claims)).isEmpty());
+    }
+
+    @Test
+    void verify_shouldThrow_whenSignatureDoesNotMatch() throws JOSEException {
+        RSAKey impostor = new RSAKeyGenerator(2048).keyID("key-1").generate();
+
+        String token = sign(impostor, validClaims(UUID.randomUUID()).build());
+
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_shouldThrow_whenTokenIsExpired() throws JOSEException {
+        JWTClaimsSet claims = validClaims(UUID.randomUUID())
+                .expirationTime(Date.from(now.minusSeconds(120)))
+                .build();
+
+        String token = sign(signingKey, claims);
+
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_shouldThrow_whenIssuerDoesNotMatch() throws JOSEException {
+        String token = sign(signingKey, validClaims(UUID.randomUUID()).issuer("someone-else").build());
+
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_shouldReturnEmpty_whenRoleClaimIsMissing() throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder(validClaims(UUID.randomUUID()).build())
+                .claim("role", null)
+                .build();
+
+        assertTrue(verifier.verify(sign(signingKey, claims)).isEmpty());
+    }
+
+    @Test
+    void verify_shouldPickUpRotatedKeys_afterKeySetFileChanges() throws Exception {
+        String token = sign(otherKey, validClaims(UUID.randomUUID()).build());
+        assertTrue(verifier.verify(token).isEmpty());
+
+        writeKeySet(signingKey, otherKey);
+        Files.setLastModifiedTime(keySetPath, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertTrue(verifier.verify(token).isPresent());
+    }
+
+    @Test
+    void verify_shouldRetryKeySet_afterReadingItHalfWritten() throws Exception {
+        String token = sign(otherKey, validClaims(UUID.randomUUID()).build());
+        FileTime modified = FileTime.from(Instant.now().plusSeconds(60));
+        Files.writeString(keySetPath, "{\"keys\": [");
+        Files.setLastModifiedTime(keySetPath, modified);
+
+        // The broken file is ignored and the keys loaded before it stay in use
+        assertTrue(verifier.verify(sign(signingKey, validClaims(UUID.randomUUID()).build())).isPresent());
+        assertTrue(verifier.verify(token).isEmpty());
+
+        // Finished within the same modification time, which must not count as already loaded
+        writeKeySet(signingKey, otherKey);
+        Files.setLastModifiedTime(keySetPath, modified);
+
+        assertTrue(verifier.verify(token).isPresent());
+    }
+
+    @Test
+    void verify_shouldPickUpRevocations_afterRevocationListChanges() throws Exception {
+        JWTClaimsSet claims = validClaims(UUID.randomUUID()).jwtID("later-revoked").build();
+        String token = sign(signingKey, claims);
+        assertTrue(verifier.verify(token).isPresent());
+
+        Files.writeString(revocationListPath, "later-revoked\n");
+        Files.setLastModifiedTime(revocationListPath, FileTime.from(Instant.now().plusSeconds(60)));
+
+        assertTrue(verifier.verify(token).isEmpty());
+    }
+
+    @Test
+    void constructor_shouldRequireKeySetPath_inLocalMode() {
+        assertThrows(IllegalStateException.class, () -> new LocalTokenVerifier(
+                "local", "", "", Duration.ZERO, Duration.ZERO, "", Clock.systemUTC()));
+    }
+}
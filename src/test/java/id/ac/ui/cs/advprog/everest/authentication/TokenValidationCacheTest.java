@@ -0,0 +1,187 @@
+package id.ac.ui.cs.advprog.everest.authentication;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenValidationCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenValidationCache cache;
+    private AtomicInteger validations;
+    private Function<String, AuthenticatedUser> validator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TokenValidationCache(Duration.ofMinutes(1), 2, meterRegistry);
+        validations = new AtomicInteger();
+        validator = token -> {
+            validations.incrementAndGet();
+            return createUser(UUID.randomUUID());
+        };
+    }
+
+    private AuthenticatedUser createUser(UUID id) {
+        return new AuthenticatedUser(
+                id,
+                "user@example.com",
+                "User",
+                UserRole.CUSTOMER,
+                "08123456789",
+                Instant.now(),
+                Instant.now(),
+                null,
+                null,
+                null,
+                null
+        );
+    }
+
+    @Test
+    void get_shouldValidateOnlyOnce_forRepeatedToken() {
+        AuthenticatedUser first = cache.get("token", validator);
+        AuthenticatedUser second = cache.get("token", validator);
+
+        assertSame(first, second);
+        assertEquals(1, validations.get());
+    }
+
+    @Test
+    void get_shouldNotCacheFailedValidations() {
+        Function<String, AuthenticatedUser> failing = token -> {
+            validations.incrementAndGet();
+            throw new InvalidTokenException("Invalid token");
+        };
+
+        assertThrows(InvalidTokenException.class, () -> cache.get("bad", failing));
+        assertThrows(InvalidTokenException.class, () -> cache.get("bad", failing));
+        assertEquals(2, validations.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_shouldForceRevalidation() {
+        cache.get("token", validator);
+        cache.invalidate("token");
+        cache.get("token", validator);
+
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    void invalidateUser_shouldRemoveAllTokensOfUser() {
+        UUID userId = UUID.randomUUID();
+        cache.get("token-1", token -> createUser(userId));
+        cache.get("token-2", validator);
+
+        cache.invalidateUser(userId);
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidateAll_shouldEmptyCache() {
+        cache.get("token-1", validator);
+        cache.get("token-2", validator);
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldEvictBeyondMaxSize() {
+        cache.get("token-1", validator);
+        cache.get("token-2", validator);
+        cache.get("token-3", validator);
+
+        assertTrue(cache.size() <= 2);
+    }
+
+    private static String tokenExpiringAt(Instant expiresAt) {
+        return new PlainJWT(new JWTClaimsSet.Builder()
+                .subject(UUID.randomUUID().toString())
+                .expirationTime(Date.from(expiresAt))
+                .build()).serialize();
+    }
+
+    @Test
+    void get_shouldNotKeepTokenPastItsExpiry() {
+        Instant now = Instant.parse("2025-06-01T00:00:00Z");
+        AtomicLong ticker = new AtomicLong();
+        cache = new TokenValidationCache(Duration.ofSeconds(30), 100, Clock.fixed(now, ZoneOffset.UTC), ticker::get);
+        String expiringSoon = tokenExpiringAt(now.plusSeconds(5));
+        String longLived = tokenExpiringAt(now.plus(Duration.ofHours(1)));
+        cache.get(expiringSoon, validator);
+        cache.get(longLived, validator);
+
+        ticker.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.get(expiringSoon, validator);
+        cache.get(longLived, validator);
+        assertEquals(3, validations.get());
+
+        // A token that outlives the TTL is still only kept for the TTL
+        ticker.addAndGet(Duration.ofSeconds(25).toNanos());
+        cache.get(longLived, validator);
+        assertEquals(4, validations.get());
+    }
+
+    @Test
+    void get_shouldNotCacheExpiredToken() {
+        Instant now = Instant.parse("2025-06-01T00:00:00Z");
+        cache = new TokenValidationCache(Duration.ofSeconds(30), 100, Clock.fixed(now, ZoneOffset.UTC), () -> 0L);
+        String expired = tokenExpiringAt(now.minusSeconds(1));
+
+        cache.get(expired, validator);
+        cache.get(expired, validator);
+
+        assertEquals(2, validations.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void hash_shouldNotExposeRawToken() {
+        String hashed = TokenValidationCache.hash("secret-token");
+
+        assertNotEquals("secret-token", hashed);
+        assertFalse(hashed.contains("secret"));
+        assertEquals(hashed, TokenValidationCache.hash("secret-token"));
+    }
+
+    @Test
+    void metrics_shouldRecordHitsAndMisses() {
+        cache.get("token", validator);
+        cache.get("token", validator);
+
+        double hits = meterRegistry.get("cache.gets")
+                .tag("cache", TokenValidationCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+        double misses = meterRegistry.get("cache.gets")
+                .tag("cache", TokenValidationCache.CACHE_NAME)
+                .tag("result", "miss")
+                .functionCounter()
+                .count();
+
+        assertEquals(1, hits);
+        assertEquals(1, misses);
+    }
+}
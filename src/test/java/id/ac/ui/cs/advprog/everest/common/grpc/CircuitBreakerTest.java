@@ -0,0 +1,129 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(1), 0.8,
+                Duration.ofSeconds(5), 2, now::get);
+    }
+
+    private void call(boolean failure, long duration) {
+        assertTrue(breaker.tryAcquire());
+        if (failure) {
+            breaker.onFailure(duration);
+        } else {
+            breaker.onSuccess(duration);
+        }
+    }
+
+    @Test
+    void shouldStayClosed_belowMinimumCalls() {
+        call(true, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldOpen_whenFailureRateReachesThreshold() {
+        call(false, FAST);
+        call(false, FAST);
+        call(true, FAST);
+        call(true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldOpen_whenCallsAreSlow() {
+        for (int i = 0; i < 4; i++) {
+            call(false, SLOW);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void shouldForgetOutcomesOutsideTheWindow() {
+        for (int i = 0; i < 6; i++) {
+            call(false, FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+        for (int i = 0; i < 10; i++) {
+            call(false, FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        // Five of the last ten failed, although only nine of all 25 calls did
+        call(true, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCalls() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldReopen_whenTrialCallFails() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure(FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReturnTrialPermit_whenCallIsIgnored() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
@@ -0,0 +1,55 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserServiceGrpc;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.Deadline;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DeadlineClientInterceptorTest {
+
+    private final DeadlineClientInterceptor interceptor = new DeadlineClientInterceptor(
+            Duration.ofSeconds(2),
+            Map.of("ValidateToken", Duration.ofMillis(500), "UserService.ListUsers", Duration.ofSeconds(5))
+    );
+
+    @Test
+    void deadlineFor_shouldPreferServiceQualifiedThenMethodThenDefault() {
+        assertEquals(Duration.ofMillis(500), interceptor.deadlineFor(AuthServiceGrpc.getValidateTokenMethod()));
+        assertEquals(Duration.ofSeconds(5), interceptor.deadlineFor(UserServiceGrpc.getListUsersMethod()));
+        assertEquals(Duration.ofSeconds(2), interceptor.deadlineFor(AuthServiceGrpc.getLookupUserMethod()));
+    }
+
+    @Test
+    void interceptCall_shouldApplyDeadline_whenCallHasNone() {
+        Channel next = mock(Channel.class);
+        ArgumentCaptor<CallOptions> options = ArgumentCaptor.forClass(CallOptions.class);
+
+        interceptor.interceptCall(AuthServiceGrpc.getValidateTokenMethod(), CallOptions.DEFAULT, next);
+
+        verify(next).newCall(any(), options.capture());
+        Deadline deadline = options.getValue().getDeadline();
+        assertNotNull(deadline);
+        assertTrue(deadline.timeRemaining(TimeUnit.MILLISECONDS) <= 500);
+    }
+
+    @Test
+    void interceptCall_shouldKeepCallerDeadline() {
+        Channel next = mock(Channel.class);
+        CallOptions callerOptions = CallOptions.DEFAULT.withDeadlineAfter(10, TimeUnit.SECONDS);
+
+        interceptor.interceptCall(AuthServiceGrpc.getValidateTokenMethod(), callerOptions, next);
+
+        verify(next).newCall(any(), same(callerOptions));
+    }
+}
@@ -0,0 +1,95 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.AuthServiceGrpc;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GrpcChannelPoolTest {
+
+    private ManagedChannel first;
+    private ManagedChannel second;
+    private ClientCall<Object, Object> firstCall;
+    private SimpleMeterRegistry meterRegistry;
+    private GrpcChannelPool pool;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        first = mock(ManagedChannel.class);
+        second = mock(ManagedChannel.class);
+        firstCall = mock(ClientCall.class);
+        when(first.newCall(any(), any())).thenReturn((ClientCall) firstCall);
+        when(second.newCall(any(), any())).thenReturn(mock(ClientCall.class));
+
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new GrpcChannelPool(List.of(first, second), "dns:///auth:9090", meterRegistry);
+    }
+
+    @Test
+    void newCall_shouldRoundRobinAcrossChannels() {
+        for (int i = 0; i < 4; i++) {
+            pool.newCall(AuthServiceGrpc.getValidateTokenMethod(), CallOptions.DEFAULT);
+        }
+
+        verify(first, times(2)).newCall(any(), any());
+        verify(second, times(2)).newCall(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void newCall_shouldTrackInFlightCallsUntilClosed() {
+        ClientCall<?, ?> call = pool.newCall(AuthServiceGrpc.getValidateTokenMethod(), CallOptions.DEFAULT);
+        ClientCall<Object, Object> rawCall = (ClientCall<Object, Object>) call;
+
+        rawCall.start(mock(ClientCall.Listener.class), new Metadata());
+        assertEquals(1, pool.inFlight(0));
+        assertEquals(1.0, meterRegistry.get(GrpcChannelPool.IN_FLIGHT_METRIC).tag("channel", "0").gauge().value());
+
+        ArgumentCaptor<ClientCall.Listener<Object>> listener = ArgumentCaptor.forClass(ClientCall.Listener.class);
+        verify(firstCall).start(listener.capture(), any());
+        listener.getValue().onClose(Status.OK, new Metadata());
+
+        assertEquals(0, pool.inFlight(0));
+        assertEquals(0, pool.inFlight(1));
+    }
+
+    @Test
+    void shutdown_shouldShutDownEveryChannel() {
+        pool.shutdown();
+
+        verify(first).shutdown();
+        verify(second).shutdown();
+    }
+
+    @Test
+    void create_shouldBuildConfiguredNumberOfChannels() {
+        GrpcClientProperties properties = new GrpcClientProperties();
+        properties.getPool().setSize(3);
+
+        GrpcChannelPool created = GrpcChannelPool.create(properties, new SimpleMeterRegistry());
+        try {
+            assertEquals(3, created.size());
+        } finally {
+            created.shutdown();
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectEmptyPool() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GrpcChannelPool(List.of(), "target", new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,213 @@
+package id.ac.ui.cs.advprog.everest.common.grpc;
+
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.everest.common.service.AuthServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.*;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the resilience interceptors and retry config against an in-process auth service
+ * that injects failures and latency.
+ */
+class GrpcResilienceTest {
+
+    private final FakeAuthService service = new FakeAuthService();
+    private final String serverName = InProcessServerBuilder.generateName();
+    private final ExecutorService serverExecutor = Executors.newFixedThreadPool(4);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final RequestMetadataUtil metadataUtil = mock(RequestMetadataUtil.class);
+    private Server server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(service)
+                .executor(serverExecutor)
+                .build()
+                .start();
+        when(metadataUtil.create()).thenReturn(RequestMetadata.newBuilder().setRequestId("test").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        server.shutdownNow();
+        serverExecutor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    private AuthServiceGrpcClient client(GrpcClientProperties.Retry retry, ClientInterceptor... interceptors) {
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(serverName);
+        if (retry.isEnabled()) {
+            builder.defaultServiceConfig(RetryServiceConfig.create(retry)).enableRetry();
+        } else {
+            builder.disableRetry();
+        }
+        ManagedChannel channel = builder.build();
+        channels.add(channel);
+        return new AuthServiceGrpcClient(
+                AuthServiceGrpc.newBlockingStub(ClientInterceptors.intercept(channel, interceptors)), metadataUtil);
+    }
+
+    private static GrpcClientProperties.Retry retry(boolean enabled) {
+        GrpcClientProperties.Retry retry = new GrpcClientProperties.Retry();
+        retry.setEnabled(enabled);
+        retry.setInitialBackoff(Duration.ofMillis(1));
+        retry.setMaxBackoff(Duration.ofMillis(5));
+        return retry;
+    }
+
+    @Test
+    void retry_shouldRecoverIdempotentCall_afterTransientFailures() {
+        service.failFirst = 2;
+        AuthServiceGrpcClient client = client(retry(true));
+
+        assertNotNull(client.validateToken("token", false));
+        assertEquals(3, service.validateCalls.get());
+    }
+
+    @Test
+    void retry_shouldNotRetryNonIdempotentCall() {
+        AuthServiceGrpcClient client = client(retry(true));
+
+        assertThrows(AuthServiceException.class, () -> client.refreshToken("refresh"));
+        assertEquals(1, service.refreshCalls.get());
+    }
+
+    @Test
+    void retryBudget_shouldStopRetrying_whileServiceKeepsFailing() {
+        service.alwaysFail = true;
+        GrpcClientProperties.Retry retry = retry(true);
+        retry.setBudgetMaxTokens(4);
+        AuthServiceGrpcClient client = client(retry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(AuthServiceException.class, () -> client.validateToken("token", false));
+        }
+
+        // Without a budget this would be 30 attempts
+        assertTrue(service.validateCalls.get() < 15, "attempts: " + service.validateCalls.get());
+    }
+
+    @Test
+    void circuitBreaker_shouldFailFast_onceFailureRateIsExceeded() {
+        service.alwaysFail = true;
+        CircuitBreakerClientInterceptor breakers = new CircuitBreakerClientInterceptor(
+                () -> new CircuitBreaker(10, 5, 0.5, Duration.ofSeconds(1), 1.0,
+                        Duration.ofMinutes(1), 1, System::nanoTime),
+                new SimpleMeterRegistry());
+        AuthServiceGrpcClient client = client(retry(false), breakers);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(AuthServiceException.class, () -> client.validateToken("token", false));
+        }
+        assertEquals(5, service.validateCalls.get());
+
+        AuthServiceException error = assertThrows(AuthServiceException.class,
+                () -> client.validateToken("token", false));
+        assertEquals(5, service.validateCalls.get());
+        assertTrue(((StatusRuntimeException) error.getCause()).getStatus().getDescription()
+                .contains("Circuit breaker is open"));
+        assertEquals(CircuitBreaker.State.OPEN, breakers.breaker(AuthServiceGrpc.SERVICE_NAME).state());
+    }
+
+    @Test
+    void hedging_shouldAnswerFromSecondAttempt_whenFirstIsSlow() {
+        service.slowCall = 1;
+        service.slowCallDelay = Duration.ofSeconds(3);
+        HedgingClientInterceptor hedging = new HedgingClientInterceptor(
+                Set.of("AuthService/ValidateToken"), 0.95, Duration.ofMillis(1), 10, scheduler);
+        LatencyTracker tracker = hedging.tracker("AuthService/ValidateToken");
+        for (int i = 0; i < 10; i++) {
+            tracker.record(Duration.ofMillis(20).toNanos());
+        }
+        AuthServiceGrpcClient client = client(retry(false), hedging);
+
+        long startedAt = System.nanoTime();
+        assertNotNull(client.validateToken("token", false));
+        long elapsed = System.nanoTime() - startedAt;
+
+        assertTrue(elapsed < Duration.ofSeconds(1).toNanos(), "took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+        assertEquals(2, service.validateCalls.get());
+    }
+
+    @Test
+    void hedging_shouldNotHedge_beforeLatencyIsKnown() {
+        HedgingClientInterceptor hedging = new HedgingClientInterceptor(
+                Set.of("AuthService/ValidateToken"), 0.95, Duration.ofMillis(1), 10, scheduler);
+        AuthServiceGrpcClient client = client(retry(false), hedging);
+
+        assertNotNull(client.validateToken("token", false));
+        assertEquals(1, service.validateCalls.get());
+    }
+
+    static class FakeAuthService extends AuthServiceGrpc.AuthServiceImplBase {
+        final AtomicInteger validateCalls = new AtomicInteger();
+        final AtomicInteger refreshCalls = new AtomicInteger();
+        volatile int failFirst;
+        volatile boolean alwaysFail;
+        volatile int slowCall;
+        volatile Duration slowCallDelay = Duration.ZERO;
+
+        @Override
+        public void validateToken(TokenValidationRequest request,
+                                  StreamObserver<TokenValidationResponse> responseObserver) {
+            int call = validateCalls.incrementAndGet();
+            if (alwaysFail || call <= failFirst) {
+                responseObserver.onError(Status.UNAVAILABLE.withDescription("injected").asRuntimeException());
+                return;
+            }
+            if (call == slowCall) {
+                try {
+                    Thread.sleep(slowCallDelay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            responseObserver.onNext(TokenValidationResponse.newBuilder()
+                    .setValid(true)
+                    .setUserData(UserData.newBuilder()
+                            .setIdentity(UserIdentity.newBuilder()
+                                    .setId(UUID.randomUUID().toString())
+                                    .setRole(UserRole.CUSTOMER)))
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void refreshToken(TokenRefreshRequest request, StreamObserver<TokenRefreshResponse> responseObserver) {
+            refreshCalls.incrementAndGet();
+            responseObserver.onError(Status.UNAVAILABLE.withDescription("injected").asRuntimeException());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.everest.authentication.exception.InvalidTokenException;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.*;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+public class AuthServiceAsyncGrpcClientTest {
+
+    private AuthServiceGrpc.AuthServiceFutureStub stub;
+    private AuthServiceAsyncGrpcClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = mock(AuthServiceGrpc.AuthServiceFutureStub.class);
+        RequestMetadataUtil metadataUtil = mock(RequestMetadataUtil.class);
+        client = new AuthServiceAsyncGrpcClient(stub, metadataUtil, Duration.ofMillis(500));
+
+        when(metadataUtil.create()).thenReturn(RequestMetadata.newBuilder().setRequestId("test").build());
+        when(stub.withDeadlineAfter(anyLong(), any())).thenReturn(stub);
+    }
+
+    private static TokenValidationResponse validResponse(UUID userId) {
+        return TokenValidationResponse.newBuilder()
+                .setValid(true)
+                .setUserData(UserData.newBuilder()
+                        .setIdentity(UserIdentity.newBuilder()
+                                .setId(userId.toString())
+                                .setEmail("user@test.com")
+                                .setRole(UserRole.CUSTOMER))
+                        .setProfile(UserProfile.newBuilder().setAddress("Depok")))
+                .build();
+    }
+
+    // --- validateToken ---
+
+    @Test
+    void validateToken_shouldCompleteWithUser_whenResponseArrives() {
+        UUID userId = UUID.randomUUID();
+        SettableFuture<TokenValidationResponse> call = SettableFuture.create();
+        when(stub.validateToken(any())).thenReturn(call);
+
+        CompletableFuture<AuthenticatedUser> result = client.validateToken("token", true);
+        assertFalse(result.isDone());
+
+        call.set(validResponse(userId));
+
+        AuthenticatedUser user = result.join();
+        assertEquals(userId, user.id());
+        assertEquals("Depok", user.address());
+        verify(stub).withDeadlineAfter(500, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void validateToken_shouldFailWithInvalidTokenException_whenTokenInvalid() {
+        when(stub.validateToken(any())).thenReturn(
+                Futures.immediateFuture(TokenValidationResponse.newBuilder().setValid(false).build()));
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> client.validateToken("token", false).join());
+        assertInstanceOf(InvalidTokenException.class, error.getCause());
+    }
+
+    @Test
+    void validateToken_shouldFailWithAuthServiceException_whenDeadlineExceeded() {
+        when(stub.validateToken(any())).thenReturn(
+                Futures.immediateFailedFuture(Status.DEADLINE_EXCEEDED.asRuntimeException()));
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> client.validateToken("token", false).join());
+        assertInstanceOf(AuthServiceException.class, error.getCause());
+    }
+
+    @Test
+    void validateToken_shouldCancelRpc_whenFutureIsCancelled() {
+        SettableFuture<TokenValidationResponse> call = SettableFuture.create();
+        when(stub.validateToken(any())).thenReturn(call);
+
+        client.validateToken("token", false).cancel(true);
+
+        assertTrue(call.isCancelled());
+    }
+
+    @Test
+    void validateToken_shouldThrowIllegalArgumentException_whenTokenIsBlank() {
+        assertThrows(IllegalArgumentException.class, () -> client.validateToken(" ", false));
+    }
+
+    // --- withDeadline ---
+
+    @Test
+    void withDeadline_shouldApplyGivenDeadlineToCalls() {
+        when(stub.lookupUser(any())).thenReturn(Futures.immediateFuture(UserLookupResponse.getDefaultInstance()));
+
+        client.withDeadline(Duration.ofSeconds(3)).lookupUserById("id").join();
+
+        verify(stub).withDeadlineAfter(3000, TimeUnit.MILLISECONDS);
+    }
+
+    // --- loadProfile ---
+
+    @Test
+    void loadProfile_shouldFillProfileFromUserLookup() {
+        AuthenticatedUser identity = AuthenticatedUser.ofIdentity(
+                UUID.randomUUID(), "user@test.com", "Test User", UserRole.CUSTOMER, "0811", Instant.now(), Instant.now());
+        when(stub.lookupUser(any())).thenReturn(Futures.immediateFuture(UserLookupResponse.newBuilder()
+                .setUserData(UserData.newBuilder().setProfile(UserProfile.newBuilder().setAddress("Depok")))
+                .build()));
+
+        AuthenticatedUser user = client.loadProfile(identity).join();
+
+        assertTrue(user.profileLoaded());
+        assertEquals("Depok", user.address());
+    }
+
+    // --- batchLookupUsersByIds ---
+
+    @Test
+    void batchLookupUsersByIds_shouldSendAllIdentifiers() {
+        BatchUserLookupResponse response = BatchUserLookupResponse.getDefaultInstance();
+        when(stub.batchLookupUsers(any())).thenReturn(Futures.immediateFuture(response));
+
+        assertEquals(response, client.batchLookupUsersByIds(List.of("a", "b"), false).join());
+        verify(stub).batchLookupUsers(argThat(request -> request.getIdentifiersCount() == 2));
+    }
+
+    @Test
+    void batchLookupUsersByEmails_shouldThrowOnEmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> client.batchLookupUsersByEmails(List.of(), false));
+    }
+}
@@ -14,8 +14,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class AuthServiceGrpcClientTest {
 
@@ -62,6 +69,46 @@ public class AuthServiceGrpcClientTest {
         assertEquals("user@test.com", user.email());
     }
 
+    @Test
+    void validateToken_shouldRequestIdentityOnlyAndSkipProfile_whenProfileNotNeeded() {
+        TokenValidationResponse response = TokenValidationResponse.newBuilder()
+                .setValid(true)
+                .setUserData(UserData.newBuilder()
+                        .setIdentity(UserIdentity.newBuilder()
+                                .setId(UUID.randomUUID().toString())
+                                .setEmail("user@test.com")
+                                .setRole(UserRole.TECHNICIAN)
+                        )
+                        .setProfile(UserProfile.newBuilder().setAddress("Ignored"))
+                )
+                .build();
+        when(stub.validateToken(any())).thenReturn(response);
+
+        AuthenticatedUser user = client.validateToken("valid-token", false);
+
+        verify(stub).validateToken(argThat(TokenValidationRequest::getIdentityOnly));
+        assertFalse(user.profileLoaded());
+        assertNull(user.address());
+    }
+
+    @Test
+    void loadProfile_shouldFillProfileFromUserLookup() {
+        UUID id = UUID.randomUUID();
+        AuthenticatedUser identity = AuthenticatedUser.ofIdentity(
+                id, "user@test.com", "Test User", UserRole.TECHNICIAN, "0811", Instant.now(), Instant.now());
+        when(stub.lookupUser(any())).thenReturn(UserLookupResponse.newBuilder()
+                .setUserData(UserData.newBuilder()
+                        .setProfile(UserProfile.newBuilder().setAddress("Depok").setTotalJobsDone(3)))
+                .build());
+
+        AuthenticatedUser user = client.loadProfile(identity);
+
+        assertTrue(user.profileLoaded());
+        assertEquals("Depok", user.address());
+        assertEquals(3, user.totalJobsDone());
+        assertEquals(id, user.id());
+    }
+
     @Test
     void validateToken_shouldThrowInvalidTokenException_whenTokenInvalid() {
         when(stub.validateToken(any())).thenReturn(
@@ -83,6 +130,75 @@ public class AuthServiceGrpcClientTest {
         assertThrows(IllegalArgumentException.class, () -> client.validateToken("  "));
     }
 
+    @Test
+    void validateToken_shouldCoalesceConcurrentValidationsOfSameToken() throws Exception {
+        TokenValidationResponse response = TokenValidationResponse.newBuilder()
+                .setValid(true)
+                .setUserData(UserData.newBuilder()
+                        .setIdentity(UserIdentity.newBuilder()
+                                .setId(UUID.randomUUID().toString())
+                                .setEmail("user@test.com")
+                                .setRole(UserRole.CUSTOMER)
+                        )
+                )
+                .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stub.validateToken(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<AuthenticatedUser>> results = new ArrayList<>();
+            results.add(executor.submit(() -> client.validateToken("burst-token")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> client.validateToken("burst-token")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<AuthenticatedUser> result : results) {
+                assertEquals("user@test.com", result.get(5, TimeUnit.SECONDS).email());
+            }
+            verify(stub, times(1)).validateToken(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void validateToken_shouldShareFailureWithConcurrentWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(stub.validateToken(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return TokenValidationResponse.newBuilder().setValid(false).build();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AuthenticatedUser> leader = executor.submit(() -> client.validateToken("bad-token"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<AuthenticatedUser> follower = executor.submit(() -> client.validateToken("bad-token"));
+            Thread.sleep(200);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InvalidTokenException.class, leaderError.getCause());
+            assertInstanceOf(InvalidTokenException.class, followerError.getCause());
+            verify(stub, times(1)).validateToken(any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     // --- refreshToken ---
 
     @Test
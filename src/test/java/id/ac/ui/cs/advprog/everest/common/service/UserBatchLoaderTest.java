@@ -0,0 +1,140 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.*;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+class UserBatchLoaderTest {
+
+    private AuthServiceGrpcClient client;
+    private UserBatchLoader loader;
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID missing = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        client = mock(AuthServiceGrpcClient.class);
+        loader = new UserBatchLoader(client, 100);
+
+        when(client.batchLookupUsersByIds(anyList(), eq(false))).thenAnswer(invocation ->
+                lookup(invocation.getArgument(0)));
+    }
+
+    private BatchUserLookupResponse lookup(List<String> ids) {
+        BatchUserLookupResponse.Builder response = BatchUserLookupResponse.newBuilder();
+        for (String id : ids) {
+            UserLookupResult.Builder result = UserLookupResult.newBuilder()
+                    .setRequestedIdentifier(UserIdentifier.newBuilder().setUserId(id));
+            if (!id.equals(missing.toString())) {
+                result.setFound(true).setUserData(UserData.newBuilder()
+                        .setIdentity(UserIdentity.newBuilder()
+                                .setId(id)
+                                .setFullName("User " + id)
+                                .setRole(UserRole.TECHNICIAN)));
+            }
+            response.addResults(result);
+        }
+        return response.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> batches() {
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(client, atLeast(0)).batchLookupUsersByIds(captor.capture(), eq(false));
+        return captor.getAllValues();
+    }
+
+    @Test
+    void load_shouldNotCallAuthService_untilDispatched() {
+        CompletableFuture<Optional<AuthenticatedUser>> lookup = loader.load(alice);
+
+        assertFalse(lookup.isDone());
+        assertEquals(1, loader.pendingCount());
+        verifyNoInteractions(client);
+
+        loader.dispatch();
+
+        assertTrue(lookup.isDone());
+        assertEquals(alice, lookup.join().orElseThrow().id());
+        assertEquals(0, loader.pendingCount());
+    }
+
+    @Test
+    void dispatch_shouldSendQueuedIdsInOneDeduplicatedBatch() {
+        CompletableFuture<Optional<AuthenticatedUser>> first = loader.load(alice);
+        loader.load(bob);
+        CompletableFuture<Optional<AuthenticatedUser>> again = loader.load(alice);
+
+        loader.dispatch();
+
+        assertSame(first, again);
+        assertEquals(List.of(List.of(alice.toString(), bob.toString())), batches());
+    }
+
+    @Test
+    void getAll_shouldResolveEveryUserWithOneCall_andOmitMissingUsers() {
+        Map<UUID, AuthenticatedUser> users = loader.getAll(List.of(alice, bob, alice, missing));
+
+        assertEquals(List.of(alice, bob), List.copyOf(users.keySet()));
+        assertEquals("User " + bob, users.get(bob).fullName());
+        assertFalse(users.get(bob).profileLoaded());
+        assertEquals(1, batches().size());
+    }
+
+    @Test
+    void get_shouldReuseEarlierResults_withinTheRequest() {
+        loader.getAll(List.of(alice, bob));
+
+        assertTrue(loader.get(alice).isPresent());
+        assertTrue(loader.get(missing).isEmpty());
+
+        assertEquals(List.of(List.of(alice.toString(), bob.toString()), List.of(missing.toString())), batches());
+    }
+
+    @Test
+    void dispatch_shouldSplitLargeBatches() {
+        loader = new UserBatchLoader(client, 2);
+        UUID carol = UUID.randomUUID();
+
+        Map<UUID, AuthenticatedUser> users = loader.getAll(List.of(alice, bob, carol));
+
+        assertEquals(3, users.size());
+        assertEquals(List.of(2, 1), batches().stream().map(List::size).toList());
+    }
+
+    @Test
+    void dispatch_shouldFailQueuedLookups_andAllowRetry() {
+        AuthServiceException error = new AuthServiceException("Failed to batch lookup users by IDs",
+                Status.UNAVAILABLE.asRuntimeException());
+        when(client.batchLookupUsersByIds(anyList(), eq(false)))
+                .thenThrow(error)
+                .thenAnswer(invocation -> lookup(invocation.getArgument(0)));
+        CompletableFuture<Optional<AuthenticatedUser>> lookup = loader.load(alice);
+
+        assertThrows(AuthServiceException.class, () -> loader.get(bob));
+        assertTrue(lookup.isCompletedExceptionally());
+
+        assertEquals(Set.of(alice, bob), loader.getAll(List.of(alice, bob)).keySet());
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new UserBatchLoader(client, 0));
+    }
+}
@@ -0,0 +1,146 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import id.ac.ui.cs.advprog.everest.authentication.exception.AuthServiceException;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.*;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+class UserLookupCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final String userId = UUID.randomUUID().toString();
+    private UserLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserLookupCache(Duration.ofMinutes(5), Duration.ofSeconds(30), 100, now::get);
+    }
+
+    private UserLookupResponse user() {
+        return UserLookupResponse.newBuilder()
+                .setUserData(UserData.newBuilder()
+                        .setIdentity(UserIdentity.newBuilder()
+                                .setId(userId)
+                                .setEmail("tech@test.com")
+                                .setRole(UserRole.TECHNICIAN)))
+                .build();
+    }
+
+    private Supplier<UserLookupResponse> counting(Supplier<UserLookupResponse> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    private static Supplier<UserLookupResponse> failing(Status status) {
+        return () -> {
+            throw new AuthServiceException("Failed to lookup user by ID", status.asRuntimeException());
+        };
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void getById_shouldLoadOnce_andServeFromMemory() {
+        assertEquals(user(), cache.getById(userId, counting(this::user)));
+        assertEquals(user(), cache.getById(userId, counting(this::user)));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getByEmail_shouldShareEntryWithId_ignoringCase() {
+        cache.getById(userId, counting(this::user));
+
+        assertEquals(user(), cache.getByEmail("Tech@Test.com", counting(this::user)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void entries_shouldExpireAfterTtl() {
+        cache.getById(userId, counting(this::user));
+        advance(Duration.ofMinutes(5).plusSeconds(1));
+
+        cache.getById(userId, counting(this::user));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void notFound_shouldBeCachedForNegativeTtl() {
+        Supplier<UserLookupResponse> notFound = counting(failing(Status.NOT_FOUND));
+
+        assertThrows(AuthServiceException.class, () -> cache.getById(userId, notFound));
+        AuthServiceException cached = assertThrows(AuthServiceException.class,
+                () -> cache.getById(userId, notFound));
+        assertEquals(1, loads.get());
+        assertEquals("Failed to lookup user by ID", cached.getMessage());
+
+        advance(Duration.ofSeconds(31));
+        assertEquals(user(), cache.getById(userId, counting(this::user)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void otherFailures_shouldNotBeCached() {
+        assertThrows(AuthServiceException.class,
+                () -> cache.getById(userId, counting(failing(Status.UNAVAILABLE))));
+
+        assertEquals(user(), cache.getById(userId, counting(this::user)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldDropIdAndEmailKeys() {
+        cache.getById(userId, counting(this::user));
+        assertEquals(2, cache.size());
+
+        cache.invalidate(userId);
+
+        assertEquals(0, cache.size());
+        cache.getByEmail("tech@test.com", counting(this::user));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void maximumSize_shouldBoundTheCache() {
+        cache = new UserLookupCache(Duration.ofMinutes(5), Duration.ofSeconds(30), 4, now::get);
+        for (int i = 0; i < 20; i++) {
+            String id = UUID.randomUUID().toString();
+            cache.getById(id, () -> UserLookupResponse.newBuilder()
+                    .setUserData(UserData.newBuilder().setIdentity(UserIdentity.newBuilder().setId(id)))
+                    .build());
+        }
+
+        assertTrue(cache.size() <= 4);
+    }
+
+    @Test
+    void authServiceClient_shouldServeRepeatedLookupsFromCache() {
+        AuthServiceGrpc.AuthServiceBlockingStub stub = mock(AuthServiceGrpc.AuthServiceBlockingStub.class);
+        RequestMetadataUtil metadataUtil = mock(RequestMetadataUtil.class);
+        when(metadataUtil.create()).thenReturn(RequestMetadata.newBuilder().setRequestId("test").build());
+        when(stub.lookupUser(any())).thenReturn(user());
+        AuthServiceGrpcClient client = new AuthServiceGrpcClient(stub, metadataUtil, cache);
+
+        client.lookupUserById(userId);
+        client.lookupUserById(userId);
+        client.lookupUserByEmail("tech@test.com");
+
+        verify(stub, times(1)).lookupUser(any());
+    }
+}
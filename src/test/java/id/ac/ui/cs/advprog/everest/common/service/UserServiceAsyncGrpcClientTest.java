@@ -0,0 +1,71 @@
+package id.ac.ui.cs.advprog.everest.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.*;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+public class UserServiceAsyncGrpcClientTest {
+
+    private UserServiceGrpc.UserServiceFutureStub stub;
+    private UserServiceAsyncGrpcClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = mock(UserServiceGrpc.UserServiceFutureStub.class);
+        RequestMetadataUtil metadataUtil = mock(RequestMetadataUtil.class);
+        client = new UserServiceAsyncGrpcClient(stub, metadataUtil, Duration.ofSeconds(1));
+
+        when(metadataUtil.create()).thenReturn(RequestMetadata.newBuilder().setRequestId("test").build());
+        when(stub.withDeadlineAfter(anyLong(), any())).thenReturn(stub);
+    }
+
+    @Test
+    void listUsersByRole_shouldSendRoleAndDeadline() {
+        ListUsersResponse response = ListUsersResponse.newBuilder().setTotalCount(3).build();
+        when(stub.listUsers(any())).thenReturn(Futures.immediateFuture(response));
+
+        assertEquals(response, client.listUsersByRole(0, 10, UserRole.TECHNICIAN).join());
+        verify(stub).listUsers(argThat(request -> request.getRole() == UserRole.TECHNICIAN));
+        verify(stub).withDeadlineAfter(1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void listUsers_shouldThrowOnInvalidPage() {
+        assertThrows(IllegalArgumentException.class, () -> client.listUsers(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> client.listUsers(0, 0));
+    }
+
+    @Test
+    void getRandomTechnician_shouldFailWithRuntimeException_whenUnavailable() {
+        when(stub.getRandomTechnician(any())).thenReturn(
+                Futures.immediateFailedFuture(Status.UNAVAILABLE.asRuntimeException()));
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> client.getRandomTechnician().join());
+        assertEquals("Failed to get random technician", error.getCause().getMessage());
+    }
+
+    @Test
+    void getRandomTechnician_shouldCancelRpc_whenFutureIsCancelled() {
+        SettableFuture<GetRandomTechnicianResponse> call = SettableFuture.create();
+        when(stub.getRandomTechnician(any())).thenReturn(call);
+
+        CompletableFuture<GetRandomTechnicianResponse> result = client.getRandomTechnician();
+        result.cancel(true);
+
+        assertTrue(call.isCancelled());
+    }
+}
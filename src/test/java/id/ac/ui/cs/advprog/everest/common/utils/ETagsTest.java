@@ -0,0 +1,36 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void of_shouldChangeWithEveryUpdate() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 6, 1, 10, 30, 15, 123_456_000);
+
+        String etag = ETags.of(updatedAt);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, ETags.of(LocalDateTime.of(2025, 6, 1, 10, 30, 15, 123_456_000)));
+        assertNotEquals(etag, ETags.of(updatedAt.plusNanos(1_000)));
+        assertEquals(etag, ETags.of(updatedAt.plusNanos(999)));
+        assertNull(ETags.of(null));
+    }
+
+    @Test
+    void matches_shouldCompareWeaklyAgainstEveryListedTag() {
+        String etag = ETags.of(LocalDateTime.of(2025, 6, 1, 10, 30));
+
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("W/" + etag, etag));
+        assertTrue(ETags.matches("\"other\", " + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches("\"other\"", etag));
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches("*", null));
+    }
+}
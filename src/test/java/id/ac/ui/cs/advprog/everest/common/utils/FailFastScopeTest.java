@@ -0,0 +1,99 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailFastScopeTest {
+
+    @Test
+    void join_shouldRunTasksConcurrently_andExposeResults() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        try (FailFastScope scope = new FailFastScope("test")) {
+            // Each task only finishes once all three are running at the same time
+            Supplier<String> first = scope.fork(() -> awaitOthers(allStarted, "a"));
+            Supplier<String> second = scope.fork(() -> awaitOthers(allStarted, "b"));
+            Supplier<String> third = scope.fork(() -> awaitOthers(allStarted, "c"));
+
+            scope.join(Duration.ofSeconds(5));
+
+            assertEquals("a", first.get());
+            assertEquals("b", second.get());
+            assertEquals("c", third.get());
+        }
+    }
+
+    @Test
+    void join_shouldFailFast_andInterruptRemainingTasks() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        try (FailFastScope scope = new FailFastScope("test")) {
+            scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                throw failure;
+            });
+
+            long start = System.nanoTime();
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> scope.join(Duration.ofSeconds(10)));
+
+            assertSame(failure, ex.getCause());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void join_shouldTimeOut_andInterruptRunningTasks() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (FailFastScope scope = new FailFastScope("test")) {
+            Supplier<Object> slow = scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            });
+
+            assertThrows(TimeoutException.class, () -> scope.join(Duration.ofMillis(50)));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertThrows(IllegalStateException.class, slow::get);
+        }
+    }
+
+    @Test
+    void forkedTasks_shouldRunOnVirtualThreads() throws Exception {
+        try (FailFastScope scope = new FailFastScope("test")) {
+            Supplier<Boolean> virtual = scope.fork(() -> Thread.currentThread().isVirtual());
+
+            scope.join(Duration.ofSeconds(5));
+
+            assertTrue(virtual.get());
+        }
+    }
+
+    private static String awaitOthers(CountDownLatch allStarted, String value) throws InterruptedException {
+        allStarted.countDown();
+        if (!allStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Tasks did not run concurrently");
+        }
+        return value;
+    }
+}
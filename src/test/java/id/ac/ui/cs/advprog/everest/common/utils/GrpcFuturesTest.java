@@ -0,0 +1,58 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrpcFuturesTest {
+
+    @Test
+    void toCompletableFuture_shouldCompleteWithMappedValue() {
+        SettableFuture<String> call = SettableFuture.create();
+
+        CompletableFuture<Integer> result = GrpcFutures.toCompletableFuture(
+                call, String::length, IllegalStateException::new);
+        call.set("value");
+
+        assertEquals(5, result.join());
+    }
+
+    @Test
+    void toCompletableFuture_shouldTranslateStatusFailures() {
+        SettableFuture<String> call = SettableFuture.create();
+
+        CompletableFuture<String> result = GrpcFutures.toCompletableFuture(
+                call, e -> new IllegalStateException("translated", e));
+        call.setException(Status.UNAVAILABLE.asRuntimeException());
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertEquals("translated", error.getCause().getMessage());
+    }
+
+    @Test
+    void toCompletableFuture_shouldFail_whenMapperThrows() {
+        SettableFuture<String> call = SettableFuture.create();
+
+        CompletableFuture<String> result = GrpcFutures.toCompletableFuture(call, value -> {
+            throw new IllegalArgumentException("bad response");
+        }, IllegalStateException::new);
+        call.set("value");
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+    }
+
+    @Test
+    void toCompletableFuture_shouldCancelCall_whenResultIsCancelled() {
+        SettableFuture<String> call = SettableFuture.create();
+
+        GrpcFutures.toCompletableFuture(call, IllegalStateException::new).cancel(true);
+
+        assertTrue(call.isCancelled());
+    }
+}
@@ -0,0 +1,45 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_shouldRoundTripThroughDecode() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 6, 1, 10, 30, 15, 123_456_000), UUID.randomUUID());
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void toScrollPosition_shouldRoundTripThroughOf() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 6, 1, 10, 30), UUID.randomUUID());
+
+        ScrollPosition position = cursor.toScrollPosition();
+
+        assertInstanceOf(KeysetScrollPosition.class, position);
+        assertEquals(cursor, KeysetCursor.of(position));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedTokens() {
+        String missingSeparator = Base64.getUrlEncoder()
+                .encodeToString("2025-06-01T10:30".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder()
+                .encodeToString("2025-06-01T10:30|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(missingSeparator));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(badId));
+    }
+}
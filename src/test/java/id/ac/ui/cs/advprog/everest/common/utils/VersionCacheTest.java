@@ -0,0 +1,99 @@
+package id.ac.ui.cs.advprog.everest.common.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionCacheTest {
+    private final Map<String, Integer> versions = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private VersionCache<String, Integer> cache(Duration ttl) {
+        return new VersionCache<>(ttl, 100, id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(versions.get(id));
+        }, nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_shouldServeLoadedVersionUntilItExpires() {
+        VersionCache<String, Integer> cache = cache(Duration.ofSeconds(2));
+        versions.put("a", 1);
+
+        assertEquals(Optional.of(1), cache.get("a"));
+        versions.put("a", 2);
+        assertEquals(Optional.of(1), cache.get("a"));
+        assertEquals(1, loads.get());
+
+        nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+        assertEquals(Optional.of(2), cache.get("a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheMissingResources() {
+        VersionCache<String, Integer> cache = cache(Duration.ofSeconds(2));
+
+        assertEquals(Optional.empty(), cache.get("a"));
+        versions.put("a", 1);
+        assertEquals(Optional.of(1), cache.get("a"));
+    }
+
+    @Test
+    void get_withZeroTtl_shouldAlwaysLoad() {
+        VersionCache<String, Integer> cache = cache(Duration.ZERO);
+        versions.put("a", 1);
+
+        cache.get("a");
+        cache.get("a");
+        cache.evict("a");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_outsideTransaction_shouldForgetVersionAtOnce() {
+        VersionCache<String, Integer> cache = cache(Duration.ofSeconds(2));
+        versions.put("a", 1);
+        cache.get("a");
+        versions.put("a", 2);
+
+        cache.evict("a");
+
+        assertEquals(Optional.of(2), cache.get("a"));
+    }
+
+    @Test
+    void evict_insideTransaction_shouldWaitForCompletion() {
+        VersionCache<String, Integer> cache = cache(Duration.ofSeconds(2));
+        versions.put("a", 1);
+        cache.get("a");
+        versions.put("a", 2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict("a");
+
+        assertEquals(Optional.of(1), cache.get("a"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(Optional.of(2), cache.get("a"));
+    }
+}
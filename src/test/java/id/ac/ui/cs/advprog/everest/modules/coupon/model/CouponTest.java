@@ -150,9 +150,9 @@ class CouponTest {
         assertNotNull(c);
         assertNull(c.getCode());
 
-        // Test private all-args constructor (now with version)
+        // Test private all-args constructor (now with stripe count and version)
         Constructor<Coupon> allArgsConstructor = Coupon.class.getDeclaredConstructor(
-                UUID.class, String.class, Integer.class, Integer.class, Integer.class,
+                UUID.class, String.class, Integer.class, Integer.class, Integer.class, Integer.class,
                 Integer.class, LocalDate.class, LocalDateTime.class, LocalDateTime.class
         );
         allArgsConstructor.setAccessible(true);
@@ -161,6 +161,7 @@ class CouponTest {
         String code = "ALLARGS";
         Integer discountAmount = 5000;
         Integer maxUsage = 10;
+        Integer stripeCount = 4;
         Integer version = 7;
         Integer usageCount = 2;
         LocalDate validUntil = future;
@@ -168,7 +169,7 @@ class CouponTest {
         LocalDateTime updatedAt = LocalDateTime.now();
 
         Coupon fullCoupon = allArgsConstructor.newInstance(
-                id, code, discountAmount, maxUsage, version, usageCount,
+                id, code, discountAmount, maxUsage, stripeCount, version, usageCount,
                 validUntil, createdAt, updatedAt
         );
 
@@ -176,6 +177,8 @@ class CouponTest {
         assertEquals(code, fullCoupon.getCode());
         assertEquals(discountAmount, fullCoupon.getDiscountAmount());
         assertEquals(maxUsage, fullCoupon.getMaxUsage());
+        assertEquals(stripeCount, fullCoupon.getStripeCount());
+        assertTrue(fullCoupon.isStriped());
         assertEquals(version, fullCoupon.getVersion());
         assertEquals(usageCount, fullCoupon.getUsageCount());
         assertEquals(validUntil, fullCoupon.getValidUntil());
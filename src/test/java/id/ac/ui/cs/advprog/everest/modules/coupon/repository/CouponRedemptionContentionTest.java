@@ -0,0 +1,186 @@
+package id.ac.ui.cs.advprog.everest.modules.coupon.repository;
+
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
+import id.ac.ui.cs.advprog.everest.modules.coupon.service.CouponUsageCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redeems and releases one coupon from many threads at once, each call in its own transaction,
+ * as concurrent orders would, and compares a plain coupon row with a striped coupon.
+ */
+@DataJpaTest
+@Import(CouponUsageCounter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "coupon.stripes.reconcile-interval=0s"
+})
+class CouponRedemptionContentionTest {
+    private static final Logger logger = LoggerFactory.getLogger(CouponRedemptionContentionTest.class);
+
+    private static final int THREADS = 16;
+    private static final int STRIPES = 16;
+    private static final int MAX_USAGE = 1_000;
+    private static final int REDEMPTIONS = 3_000;
+    private static final int RELEASES = 1_500;
+    // Once a striped coupon is used up every call tries each stripe, so fewer calls overshoot
+    private static final int STRIPED_REDEMPTIONS = 1_200;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponStripeRepository couponStripeRepository;
+
+    @Autowired
+    private CouponUsageCounter couponUsageCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        couponStripeRepository.deleteAll();
+        couponRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRedemptions_shouldUseExactlyMaxUsage_andReleasesShouldStopAtZero() throws Exception {
+        UUID couponId = couponRepository.save(Coupon.builder()
+                .code("PROMO")
+                .discountAmount(10000)
+                .maxUsage(MAX_USAGE)
+                .usageCount(0)
+                .validUntil(LocalDate.now().plusDays(30))
+                .build()).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+
+        long start = System.nanoTime();
+        int redeemed = runConcurrently(REDEMPTIONS,
+                () -> transaction.execute(status -> couponRepository.redeem(couponId, today)));
+        double redemptionsPerSecond = REDEMPTIONS / ((System.nanoTime() - start) / 1e9);
+
+        assertEquals(MAX_USAGE, redeemed);
+        assertEquals(MAX_USAGE, couponRepository.findById(couponId).orElseThrow().getUsageCount());
+        // The rate depends on the machine, so it is logged rather than asserted
+        logger.info("Coupon redemptions per second with {} threads: {}", THREADS, Math.round(redemptionsPerSecond));
+
+        int released = runConcurrently(RELEASES,
+                () -> transaction.execute(status -> couponRepository.release(couponId)));
+
+        assertEquals(MAX_USAGE, released);
+        assertEquals(0, couponRepository.findById(couponId).orElseThrow().getUsageCount());
+    }
+
+    @Test
+    void concurrentRedemptions_onStripedCoupon_shouldUseExactlyMaxUsage_andReleasesShouldStopAtZero()
+            throws Exception {
+        Coupon coupon = saveCoupon("STRIPED", STRIPES);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+
+        int redeemed = runConcurrently(STRIPED_REDEMPTIONS,
+                () -> transaction.execute(status -> couponUsageCounter.redeem(coupon, today) ? 1 : 0));
+        couponUsageCounter.reconcile();
+
+        assertEquals(MAX_USAGE, redeemed);
+        assertEquals(MAX_USAGE, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+
+        runConcurrently(RELEASES, () -> transaction.execute(status -> {
+            couponUsageCounter.release(coupon);
+            return 0;
+        }));
+        couponUsageCounter.reconcile();
+
+        assertEquals(0, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+    }
+
+    // Benchmark rather than a pass/fail bound: how much striping gains depends on the database
+    // and its row locking, so the rates are logged and only the counts are asserted
+    @Test
+    void benchmark_redemptionsPerSecond_plainVersusStriped() throws Exception {
+        double plain = redemptionsPerSecond(saveCoupon("PLAIN", null));
+        double striped = redemptionsPerSecond(saveCoupon("STRIPED", STRIPES));
+
+        logger.info("Coupon redemptions per second with {} threads: plain row {}, {} stripes {} ({}x)",
+                THREADS, Math.round(plain), STRIPES, Math.round(striped),
+                String.format("%.2f", striped / plain));
+    }
+
+    private Coupon saveCoupon(String code, Integer stripes) {
+        Coupon coupon = couponRepository.save(Coupon.builder()
+                .code(code)
+                .discountAmount(10000)
+                .maxUsage(MAX_USAGE)
+                .usageCount(0)
+                .stripeCount(stripes)
+                .validUntil(LocalDate.now().plusDays(30))
+                .build());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                couponUsageCounter.createStripes(coupon));
+        return coupon;
+    }
+
+    // Stays under the limit so every call does a successful, lock-taking update
+    private double redemptionsPerSecond(Coupon coupon) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+
+        long start = System.nanoTime();
+        int redeemed = runConcurrently(MAX_USAGE,
+                () -> transaction.execute(status -> couponUsageCounter.redeem(coupon, today) ? 1 : 0));
+        double perSecond = MAX_USAGE / ((System.nanoTime() - start) / 1e9);
+
+        assertEquals(MAX_USAGE, redeemed);
+        return perSecond;
+    }
+
+    private static int runConcurrently(int calls, Supplier<Integer> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.get();
+                }));
+            }
+            start.countDown();
+
+            int updated = 0;
+            for (Future<Integer> result : results) {
+                updated += result.get(30, TimeUnit.SECONDS);
+            }
+            return updated;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
@@ -25,6 +26,9 @@ class CouponRepositoryTest {
     @Autowired
     private CouponRepository couponRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Coupon sampleCoupon;
 
     @BeforeEach
@@ -159,4 +163,41 @@ class CouponRepositoryTest {
         assertTrue(couponRepository.existsByCode("TEST50"));
         assertFalse(couponRepository.existsByCode("NONEXISTENT"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRedeemStopsAtMaxUsage() {
+        sampleCoupon.setMaxUsage(2);
+        Coupon savedCoupon = couponRepository.saveAndFlush(sampleCoupon);
+        UUID id = savedCoupon.getId();
+
+        assertEquals(1, couponRepository.redeem(id, LocalDate.now()));
+        assertEquals(1, couponRepository.redeem(id, LocalDate.now()));
+        assertEquals(0, couponRepository.redeem(id, LocalDate.now()));
+
+        entityManager.clear();
+        Coupon reloaded = couponRepository.findById(id).orElseThrow();
+        assertEquals(2, reloaded.getUsageCount());
+        assertEquals(savedCoupon.getVersion() + 2, reloaded.getVersion());
+    }
+
+    @Test
+    void testRedeemRejectsExpiredCoupon() {
+        sampleCoupon.setValidUntil(LocalDate.now().minusDays(1));
+        UUID id = couponRepository.saveAndFlush(sampleCoupon).getId();
+
+        assertEquals(0, couponRepository.redeem(id, LocalDate.now()));
+        assertEquals(0, couponRepository.redeem(UUID.randomUUID(), LocalDate.now()));
+    }
+
+    @Test
+    void testReleaseNeverDropsBelowZero() {
+        sampleCoupon.setUsageCount(1);
+        UUID id = couponRepository.saveAndFlush(sampleCoupon).getId();
+
+        assertEquals(1, couponRepository.release(id));
+        assertEquals(0, couponRepository.release(id));
+
+        entityManager.clear();
+        assertEquals(0, couponRepository.findById(id).orElseThrow().getUsageCount());
+    }
+}
@@ -24,6 +24,9 @@ class CouponServiceTest {
     @Mock
     private CouponRepository couponRepository;
 
+    @Mock
+    private CouponUsageCounter couponUsageCounter;
+
     @InjectMocks
     private CouponServiceImpl couponService;
 
@@ -107,6 +110,20 @@ class CouponServiceTest {
         assertEquals(0, result.getUsageCount());
         verify(couponRepository).existsByCode(validRequest.getCode());
         verify(couponRepository).save(any(Coupon.class));
+        verify(couponUsageCounter).createStripes(savedEntity);
+    }
+
+    @Test
+    void testCreateCoupon_WithStripes() {
+        validRequest.setStripes(8);
+        when(couponRepository.existsByCode(validRequest.getCode())).thenReturn(false);
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(i -> i.getArgument(0));
+
+        Coupon result = couponService.createCoupon(validRequest);
+
+        assertEquals(8, result.getStripeCount());
+        assertTrue(result.isStriped());
+        verify(couponUsageCounter).createStripes(result);
     }
 
     @Test
@@ -153,6 +170,17 @@ class CouponServiceTest {
         assertEquals(2000, out.getDiscountAmount());
         verify(couponRepository).findById(couponId);
         verify(couponRepository).save(any());
+        verify(couponUsageCounter).resizeStripes(out);
+    }
+
+    @Test
+    void testUpdateCoupon_SameMaxUsage_KeepsStripes() {
+        when(couponRepository.findById(couponId)).thenReturn(Optional.of(savedEntity));
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(i -> i.getArgument(0));
+
+        couponService.updateCoupon(couponId, validRequest);
+
+        verify(couponUsageCounter, never()).resizeStripes(any());
     }
 
     @Test
@@ -0,0 +1,179 @@
+package id.ac.ui.cs.advprog.everest.modules.coupon.service;
+
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.CouponStripe;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponStripeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CouponUsageCounter.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "coupon.stripes.reconcile-interval=0s"
+})
+class CouponUsageCounterTest {
+
+    @Autowired
+    private CouponUsageCounter couponUsageCounter;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponStripeRepository couponStripeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Coupon saveCoupon(int maxUsage, Integer stripes, LocalDate validUntil) {
+        Coupon coupon = couponRepository.saveAndFlush(Coupon.builder()
+                .code("TEST" + UUID.randomUUID().toString().substring(0, 8))
+                .discountAmount(10000)
+                .maxUsage(maxUsage)
+                .usageCount(0)
+                .stripeCount(stripes)
+                .validUntil(validUntil)
+                .build());
+        couponUsageCounter.createStripes(coupon);
+        entityManager.flush();
+        return coupon;
+    }
+
+    private List<Integer> capacities(UUID couponId) {
+        entityManager.clear();
+        return couponStripeRepository.findByCouponIdOrderByStripe(couponId).stream()
+                .map(CouponStripe::getCapacity)
+                .toList();
+    }
+
+    private int stripeUsage(UUID couponId) {
+        entityManager.clear();
+        return couponStripeRepository.findByCouponIdOrderByStripe(couponId).stream()
+                .mapToInt(CouponStripe::getUsageCount)
+                .sum();
+    }
+
+    @Test
+    void split_shouldShareTotalEvenly() {
+        assertArrayEquals(new int[]{3, 3, 2, 2}, CouponUsageCounter.split(10, 4));
+        assertArrayEquals(new int[]{1, 0, 0}, CouponUsageCounter.split(1, 3));
+    }
+
+    @Test
+    void createStripes_shouldSplitMaxUsage() {
+        Coupon coupon = saveCoupon(10, 4, LocalDate.now().plusDays(30));
+
+        assertEquals(List.of(3, 3, 2, 2), capacities(coupon.getId()));
+    }
+
+    @Test
+    void createStripes_shouldSkipPlainCoupons() {
+        Coupon coupon = saveCoupon(10, null, LocalDate.now().plusDays(30));
+
+        assertTrue(capacities(coupon.getId()).isEmpty());
+    }
+
+    @Test
+    void redeem_striped_shouldSpillOverUntilMaxUsage() {
+        Coupon coupon = saveCoupon(5, 4, LocalDate.now().plusDays(30));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(couponUsageCounter.redeem(coupon, LocalDate.now()));
+        }
+        assertFalse(couponUsageCounter.redeem(coupon, LocalDate.now()));
+
+        assertEquals(5, stripeUsage(coupon.getId()));
+        assertEquals(0, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+    }
+
+    @Test
+    void redeem_striped_shouldRejectExpiredCoupon() {
+        Coupon coupon = saveCoupon(5, 4, LocalDate.now().minusDays(1));
+
+        assertFalse(couponUsageCounter.redeem(coupon, LocalDate.now()));
+        assertEquals(0, stripeUsage(coupon.getId()));
+    }
+
+    @Test
+    void redeem_plain_shouldCountOnCouponRow() {
+        Coupon coupon = saveCoupon(1, null, LocalDate.now().plusDays(30));
+
+        assertTrue(couponUsageCounter.redeem(coupon, LocalDate.now()));
+        assertFalse(couponUsageCounter.redeem(coupon, LocalDate.now()));
+
+        entityManager.clear();
+        assertEquals(1, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+    }
+
+    @Test
+    void release_striped_shouldFindAUsedStripe() {
+        Coupon coupon = saveCoupon(8, 8, LocalDate.now().plusDays(30));
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+
+        couponUsageCounter.release(coupon);
+        couponUsageCounter.release(coupon);
+
+        assertEquals(0, stripeUsage(coupon.getId()));
+    }
+
+    @Test
+    void resizeStripes_shouldKeepUsageAndShareRemainingLimit() {
+        Coupon coupon = saveCoupon(4, 2, LocalDate.now().plusDays(30));
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        entityManager.clear();
+
+        coupon.setMaxUsage(7);
+        couponUsageCounter.resizeStripes(coupon);
+        entityManager.flush();
+
+        assertEquals(7, capacities(coupon.getId()).stream().mapToInt(Integer::intValue).sum());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(couponUsageCounter.redeem(coupon, LocalDate.now()));
+        }
+        assertFalse(couponUsageCounter.redeem(coupon, LocalDate.now()));
+    }
+
+    @Test
+    void resizeStripes_belowUsage_shouldLeaveNoRoom() {
+        Coupon coupon = saveCoupon(4, 2, LocalDate.now().plusDays(30));
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        entityManager.clear();
+
+        coupon.setMaxUsage(1);
+        couponUsageCounter.resizeStripes(coupon);
+        entityManager.flush();
+
+        assertFalse(couponUsageCounter.redeem(coupon, LocalDate.now()));
+        assertEquals(2, stripeUsage(coupon.getId()));
+    }
+
+    @Test
+    void reconcile_shouldCopyStripeUsageToCouponRow() {
+        Coupon coupon = saveCoupon(10, 4, LocalDate.now().plusDays(30));
+        Coupon plain = saveCoupon(10, null, LocalDate.now().plusDays(30));
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        couponUsageCounter.redeem(coupon, LocalDate.now());
+        couponUsageCounter.redeem(plain, LocalDate.now());
+
+        couponUsageCounter.reconcile();
+
+        entityManager.clear();
+        assertEquals(2, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+        assertEquals(1, couponRepository.findById(plain.getId()).orElseThrow().getUsageCount());
+    }
+}
@@ -2,19 +2,31 @@ package id.ac.ui.cs.advprog.everest.modules.repairorder.controller;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderExporter;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderIdempotency;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderService;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,13 +35,17 @@ import static org.mockito.Mockito.*;
 public class RepairOrderControllerTest {
 
     private RepairOrderService repairOrderService;
+    private RepairOrderIdempotency repairOrderIdempotency;
+    private RepairOrderExporter repairOrderExporter;
     private RepairOrderController controller;
     private AuthenticatedUser user;
 
     @BeforeEach
     void setUp() {
         repairOrderService = mock(RepairOrderService.class);
-        controller = new RepairOrderController(repairOrderService);
+        repairOrderIdempotency = mock(RepairOrderIdempotency.class);
+        repairOrderExporter = mock(RepairOrderExporter.class);
+        controller = new RepairOrderController(repairOrderService, repairOrderIdempotency, repairOrderExporter);
         user = new AuthenticatedUser(
                 UUID.randomUUID(),
                 "customer@example.com",
@@ -56,7 +72,7 @@ public class RepairOrderControllerTest {
 
         when(repairOrderService.createRepairOrder(request, user)).thenReturn(expectedResponse);
 
-        ResponseEntity<?> response = controller.createRepairOrder(request, user);
+        ResponseEntity<?> response = controller.createRepairOrder(request, null, user);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
@@ -68,10 +84,69 @@ public class RepairOrderControllerTest {
         when(repairOrderService.createRepairOrder(request, user)).thenThrow(new RuntimeException("Service failure"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> controller.createRepairOrder(request, user));
+                () -> controller.createRepairOrder(request, null, user));
         assertEquals("Service failure", ex.getMessage());
     }
 
+    @Test
+    void whenCreateRepairOrder_withIdempotencyKey_shouldGoThroughIdempotency() {
+        CreateAndUpdateRepairOrderRequest request = new CreateAndUpdateRepairOrderRequest();
+        GenericResponse<ViewRepairOrderResponse> expectedResponse = new GenericResponse<>(
+                true,
+                "Repair order created successfully",
+                null
+        );
+        when(repairOrderIdempotency.createRepairOrder("retry-1", request, user)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = controller.createRepairOrder(request, "retry-1", user);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+        verifyNoInteractions(repairOrderService);
+    }
+
+    @Test
+    void whenCreateRepairOrders_shouldReturnPerItemResults() {
+        CreateAndUpdateRepairOrderRequest item = new CreateAndUpdateRepairOrderRequest();
+        BulkCreateRepairOrderRequest request = new BulkCreateRepairOrderRequest();
+        request.setRepairOrders(List.of(item, item));
+        GenericResponse<List<BulkCreateRepairOrderResult>> expectedResponse = new GenericResponse<>(
+                true,
+                "Created 1 of 2 repair orders",
+                List.of(
+                        new BulkCreateRepairOrderResult(0, true, "Repair order created successfully", null),
+                        new BulkCreateRepairOrderResult(1, false, "Coupon not found", null)
+                )
+        );
+        when(repairOrderService.createRepairOrders(request.getRepairOrders(), user)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = controller.createRepairOrders(request, user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void whenExportRepairOrders_asCsv_shouldStreamThroughExporter() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = controller.exportRepairOrders("CSV", user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"repair-orders.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        verifyNoInteractions(repairOrderExporter);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(repairOrderExporter).export(user, RepairOrderExporter.Format.CSV, out);
+    }
+
+    @Test
+    void whenExportRepairOrders_withUnknownFormat_shouldThrowValidation() {
+        assertThrows(ValidationException.class, () -> controller.exportRepairOrders("xml", user));
+        verifyNoInteractions(repairOrderExporter);
+    }
+
     @Test
     void whenGetRepairOrders_shouldReturnList() {
         GenericResponse<List<ViewRepairOrderResponse>> expectedResponse = new GenericResponse<>(
@@ -80,9 +155,9 @@ public class RepairOrderControllerTest {
                 Collections.emptyList()
         );
 
-        when(repairOrderService.getRepairOrders(user)).thenReturn(expectedResponse);
+        when(repairOrderService.getRepairOrders(user, null, null, null)).thenReturn(expectedResponse);
 
-        ResponseEntity<?> response = controller.getRepairOrders(user);
+        ResponseEntity<?> response = controller.getRepairOrders(null, null, null, user);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
@@ -90,10 +165,10 @@ public class RepairOrderControllerTest {
 
     @Test
     void whenGetRepairOrders_unauthorized_shouldThrowAccessDenied() {
-        when(repairOrderService.getRepairOrders(user)).thenThrow(new AccessDeniedException("Forbidden"));
+        when(repairOrderService.getRepairOrders(user, null, null, null)).thenThrow(new AccessDeniedException("Forbidden"));
 
         AccessDeniedException ex = assertThrows(AccessDeniedException.class,
-                () -> controller.getRepairOrders(user));
+                () -> controller.getRepairOrders(null, null, null, user));
         assertEquals("Forbidden", ex.getMessage());
     }
 
@@ -108,10 +183,61 @@ public class RepairOrderControllerTest {
         );
         when(repairOrderService.getRepairOrderById(repairOrderId, user)).thenReturn(expectedResponse);
 
-        ResponseEntity<?> response = controller.getRepairOrderById(repairOrderId, user);
+        ResponseEntity<?> response = controller.getRepairOrderById(repairOrderId, null, user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void whenGetRepairOrderById_shouldTagResponseWithUpdateTime() {
+        String repairOrderId = "order123";
+        LocalDateTime updatedAt = LocalDateTime.now();
+        GenericResponse<ViewRepairOrderResponse> expectedResponse = new GenericResponse<>(
+                true,
+                "Repair order retrieved successfully",
+                ViewRepairOrderResponse.builder().updatedAt(updatedAt).build()
+        );
+        when(repairOrderService.getRepairOrderById(repairOrderId, user)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = controller.getRepairOrderById(repairOrderId, null, user);
+
+        assertEquals(ETags.of(updatedAt), response.getHeaders().getETag());
+        verify(repairOrderService, never()).getRepairOrderETag(any(), any());
+    }
+
+    @Test
+    void whenGetRepairOrderById_withCurrentETag_shouldReturnNotModified() {
+        String repairOrderId = "order123";
+        String etag = ETags.of(LocalDateTime.now());
+        when(repairOrderService.getRepairOrderETag(repairOrderId, user)).thenReturn(Optional.of(etag));
+
+        ResponseEntity<?> response = controller.getRepairOrderById(repairOrderId, "W/" + etag, user);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(repairOrderService, never()).getRepairOrderById(any(), any());
+    }
+
+    @Test
+    void whenGetRepairOrderById_withStaleETag_shouldReturnOrder() {
+        String repairOrderId = "order123";
+        LocalDateTime updatedAt = LocalDateTime.now();
+        GenericResponse<ViewRepairOrderResponse> expectedResponse = new GenericResponse<>(
+                true,
+                "Repair order retrieved successfully",
+                ViewRepairOrderResponse.builder().updatedAt(updatedAt).build()
+        );
+        when(repairOrderService.getRepairOrderETag(repairOrderId, user)).thenReturn(Optional.of(ETags.of(updatedAt)));
+        when(repairOrderService.getRepairOrderById(repairOrderId, user)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = controller.getRepairOrderById(
+                repairOrderId, ETags.of(updatedAt.minusSeconds(1)), user);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
+        assertEquals(ETags.of(updatedAt), response.getHeaders().getETag());
     }
 
     @Test
@@ -121,7 +247,7 @@ public class RepairOrderControllerTest {
                 .thenThrow(new IllegalArgumentException("Repair order not found"));
 
         Exception ex = assertThrows(IllegalArgumentException.class,
-                () -> controller.getRepairOrderById(repairOrderId, user));
+                () -> controller.getRepairOrderById(repairOrderId, null, user));
         assertEquals("Repair order not found", ex.getMessage());
     }
 
@@ -132,7 +258,7 @@ public class RepairOrderControllerTest {
                 .thenThrow(new AccessDeniedException("Not allowed"));
 
         AccessDeniedException ex = assertThrows(AccessDeniedException.class,
-                () -> controller.getRepairOrderById(repairOrderId, user));
+                () -> controller.getRepairOrderById(repairOrderId, null, user));
         assertEquals("Not allowed", ex.getMessage());
     }
 
@@ -143,7 +269,7 @@ public class RepairOrderControllerTest {
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> controller.getRepairOrderById(repairOrderId, user));
+                () -> controller.getRepairOrderById(repairOrderId, null, user));
         assertEquals("Unexpected error", ex.getMessage());
     }
 
@@ -218,4 +344,20 @@ public class RepairOrderControllerTest {
                 () -> controller.deleteRepairOrder(repairOrderId, user));
         assertEquals("Not allowed", ex.getMessage());
     }
+
+    @Test
+    void whenClaimNextRepairOrder_shouldReturnClaimedOrder() {
+        GenericResponse<ViewRepairOrderResponse> expectedResponse = new GenericResponse<>(
+                true,
+                "Repair order claimed successfully",
+                null
+        );
+
+        when(repairOrderService.claimNextRepairOrder(user)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = controller.claimNextRepairOrder(user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
 }
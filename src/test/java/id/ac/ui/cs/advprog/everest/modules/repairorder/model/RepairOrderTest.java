@@ -122,10 +122,10 @@ class RepairOrderTest {
     }
 
     @Test
-    void testNullTechnicianId() {
+    void testNullTechnicianId_isAllowedForUnassignedOrders() {
         RepairOrder repairOrder = RepairOrder.builder()
                 .customerId(validCustomerId)
-                .technicianId(null) // Invalid: null technicianId
+                .technicianId(null) // Valid: order waits to be claimed
                 .itemName(validItemName)
                 .itemCondition(validItemCondition)
                 .issueDescription(validIssueDescription)
@@ -134,9 +134,7 @@ class RepairOrderTest {
                 .build();
 
         Set<ConstraintViolation<RepairOrder>> violations = validator.validate(repairOrder);
-        assertFalse(violations.isEmpty());
-        assertEquals(1, violations.size());
-        assertEquals("technicianId", violations.iterator().next().getPropertyPath().toString());
+        assertTrue(violations.isEmpty());
     }
 
     @ParameterizedTest
@@ -379,8 +377,8 @@ class RepairOrderTest {
                 .build();
 
         Set<ConstraintViolation<RepairOrder>> violations = validator.validate(repairOrder);
-        // We expect 7 violations (null customerId, null technicianId, blank itemName,
-        // blank itemCondition, blank issueDescription, past date, null status)
-        assertEquals(7, violations.size(), "Should have 7 constraint violations");
+        // We expect 6 violations (null customerId, blank itemName, blank itemCondition,
+        // blank issueDescription, past date, null status); a null technicianId is allowed
+        assertEquals(6, violations.size(), "Should have 6 constraint violations");
     }
 }
\ No newline at end of file
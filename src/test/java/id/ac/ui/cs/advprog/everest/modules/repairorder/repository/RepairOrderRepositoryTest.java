@@ -0,0 +1,238 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.repository;
+
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderPager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class RepairOrderRepositoryTest {
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PaymentMethod paymentMethod;
+
+    @BeforeEach
+    void setUp() {
+        paymentMethod = entityManager.persist(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+    }
+
+    private RepairOrder persistOrder(UUID technicianId, RepairOrderStatus status) {
+        return persistOrder(UUID.randomUUID(), technicianId, status);
+    }
+
+    private RepairOrder persistOrder(UUID customerId, UUID technicianId, RepairOrderStatus status) {
+        return entityManager.persistAndFlush(RepairOrder.builder()
+                .customerId(customerId)
+                .technicianId(technicianId)
+                .status(status)
+                .itemName("Laptop")
+                .itemCondition("Screen not working")
+                .issueDescription("Black screen after startup")
+                .desiredServiceDate(LocalDate.now().plusDays(2))
+                .paymentMethod(paymentMethod)
+                .build());
+    }
+
+    @Test
+    void findFirstUnassigned_shouldReturnOldestPendingOrderWithoutTechnician() {
+        persistOrder(UUID.randomUUID(), RepairOrderStatus.PENDING_CONFIRMATION);
+        RepairOrder oldest = persistOrder(null, RepairOrderStatus.PENDING_CONFIRMATION);
+        persistOrder(null, RepairOrderStatus.PENDING_CONFIRMATION);
+        persistOrder(null, RepairOrderStatus.CANCELLED);
+
+        Optional<RepairOrder> claimed = repairOrderRepository
+                .findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION);
+
+        assertTrue(claimed.isPresent());
+        assertEquals(oldest.getId(), claimed.get().getId());
+    }
+
+    @Test
+    void assignTechnician_shouldOnlyAssignUnassignedOrders() {
+        RepairOrder repairOrder = persistOrder(null, RepairOrderStatus.PENDING_CONFIRMATION);
+        UUID first = UUID.randomUUID();
+
+        assertEquals(1, repairOrderRepository.assignTechnician(repairOrder.getId(), first, LocalDateTime.now()));
+        assertEquals(0, repairOrderRepository.assignTechnician(repairOrder.getId(), UUID.randomUUID(), LocalDateTime.now()));
+
+        entityManager.clear();
+        assertEquals(first, repairOrderRepository.findById(repairOrder.getId()).orElseThrow().getTechnicianId());
+    }
+
+    @Test
+    void assignTechnician_shouldBumpTheVersionReadByFindVersionById() {
+        UUID customerId = UUID.randomUUID();
+        RepairOrder repairOrder = persistOrder(customerId, null, RepairOrderStatus.PENDING_CONFIRMATION);
+        LocalDateTime claimedAt = repairOrder.getUpdatedAt().plusSeconds(1).truncatedTo(ChronoUnit.MICROS);
+
+        repairOrderRepository.assignTechnician(repairOrder.getId(), UUID.randomUUID(), claimedAt);
+        entityManager.clear();
+
+        RepairOrderRepository.RepairOrderVersion version =
+                repairOrderRepository.findVersionById(repairOrder.getId()).orElseThrow();
+        assertEquals(customerId, version.getCustomerId());
+        assertEquals(claimedAt, version.getUpdatedAt());
+        assertTrue(repairOrderRepository.findVersionById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void save_shouldNotOverwriteClaimedTechnician() {
+        RepairOrder stale = persistOrder(null, RepairOrderStatus.PENDING_CONFIRMATION);
+        UUID technicianId = UUID.randomUUID();
+        repairOrderRepository.assignTechnician(stale.getId(), technicianId, LocalDateTime.now());
+
+        // A customer update loaded before the claim still holds a null technician
+        stale.setItemName("Phone");
+        repairOrderRepository.saveAndFlush(stale);
+        entityManager.clear();
+
+        RepairOrder reloaded = repairOrderRepository.findById(stale.getId()).orElseThrow();
+        assertEquals("Phone", reloaded.getItemName());
+        assertEquals(technicianId, reloaded.getTechnicianId());
+    }
+
+    @Test
+    void pager_shouldWalkEveryOrderOnceNewestFirst() {
+        UUID customerId = UUID.randomUUID();
+        List<RepairOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orders.add(persistOrder(customerId, UUID.randomUUID(), RepairOrderStatus.PENDING_CONFIRMATION));
+        }
+        persistOrder(UUID.randomUUID(), UUID.randomUUID(), RepairOrderStatus.PENDING_CONFIRMATION);
+        // Reload at the stored timestamp precision, as a fresh request would see the rows
+        entityManager.clear();
+        orders = repairOrderRepository.findByCustomerId(customerId);
+        RepairOrderPager pager = new RepairOrderPager(repairOrderRepository, 2, 100);
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Window<ViewRepairOrderResponse> page = pager.byCustomer(customerId, null, cursor, null);
+            page.forEach(order -> seen.add(order.getId()));
+            cursor = RepairOrderPager.nextCursor(page);
+            pages++;
+        } while (cursor != null);
+
+        List<UUID> expected = orders.stream()
+                .sorted(Comparator.comparing(RepairOrder::getCreatedAt).thenComparing(RepairOrder::getId).reversed())
+                .map(RepairOrder::getId)
+                .toList();
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void pager_shouldFilterByStatus() {
+        UUID technicianId = UUID.randomUUID();
+        RepairOrder pending = persistOrder(UUID.randomUUID(), technicianId, RepairOrderStatus.PENDING_CONFIRMATION);
+        persistOrder(UUID.randomUUID(), technicianId, RepairOrderStatus.CANCELLED);
+        RepairOrderPager pager = new RepairOrderPager(repairOrderRepository, 20, 100);
+
+        Window<ViewRepairOrderResponse> page = pager.byTechnician(
+                technicianId, RepairOrderStatus.PENDING_CONFIRMATION, null, null);
+
+        assertEquals(List.of(pending.getId()), page.stream().map(ViewRepairOrderResponse::getId).toList());
+        assertNull(RepairOrderPager.nextCursor(page));
+    }
+
+    @Test
+    void pager_shouldClampPageSizeAndRejectNonPositiveSizes() {
+        UUID customerId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            persistOrder(customerId, UUID.randomUUID(), RepairOrderStatus.PENDING_CONFIRMATION);
+        }
+        RepairOrderPager pager = new RepairOrderPager(repairOrderRepository, 20, 2);
+
+        Window<ViewRepairOrderResponse> page = pager.byCustomer(customerId, null, null, 50);
+
+        assertEquals(2, page.size());
+        assertNotNull(RepairOrderPager.nextCursor(page));
+        assertThrows(ValidationException.class, () -> pager.byCustomer(customerId, null, null, 0));
+    }
+
+    @Test
+    void findViewById_shouldReadForeignKeysWithoutLoadingEntities() {
+        RepairOrder repairOrder = persistOrder(null, RepairOrderStatus.PENDING_CONFIRMATION);
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        ViewRepairOrderResponse view = repairOrderRepository.findViewById(repairOrder.getId()).orElseThrow();
+
+        assertEquals(repairOrder.getId(), view.getId());
+        assertEquals(paymentMethod.getId(), view.getPaymentMethodId());
+        assertNull(view.getCouponId());
+        assertNull(view.getTechnicianId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void pager_shouldReadEachPageInOneStatementWithoutLoadingEntities() {
+        UUID customerId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            persistOrder(customerId, UUID.randomUUID(), RepairOrderStatus.PENDING_CONFIRMATION);
+        }
+        entityManager.clear();
+        RepairOrderPager pager = new RepairOrderPager(repairOrderRepository, 2, 100);
+        Window<ViewRepairOrderResponse> first = pager.byCustomer(customerId, null, null, null);
+        Statistics statistics = statistics();
+
+        Window<ViewRepairOrderResponse> second = pager.byCustomer(
+                customerId, RepairOrderStatus.PENDING_CONFIRMATION, RepairOrderPager.nextCursor(first), null);
+
+        assertEquals(2, second.size());
+        assertTrue(second.stream().allMatch(view -> paymentMethod.getId().equals(view.getPaymentMethodId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,222 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
+import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.coupon.service.CouponUsageCounter;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Creates repair orders in bulk against the real repositories, each bulk request in one
+ * transaction, and compares it with creating the same orders one by one.
+ */
+@DataJpaTest
+@Import({JpaConfig.class, CouponUsageCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "coupon.stripes.reconcile-interval=0s"
+})
+class RepairOrderBulkCreateTest {
+    private static final Logger logger = LoggerFactory.getLogger(RepairOrderBulkCreateTest.class);
+
+    private static final int[] BATCH_SIZES = {1, 10, 100, 1_000};
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponUsageCounter couponUsageCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RepairOrderServiceImpl repairOrderService;
+    private PaymentMethod paymentMethod;
+    private AuthenticatedUser customer;
+
+    @BeforeEach
+    void setUp() {
+        TechnicianAssignmentService technicianAssignmentService = mock(TechnicianAssignmentService.class);
+        when(technicianAssignmentService.assign()).thenAnswer(invocation -> Optional.of(UUID.randomUUID()));
+        repairOrderService = new RepairOrderServiceImpl(
+                mock(UserServiceGrpcClient.class),
+                technicianAssignmentService,
+                repairOrderRepository,
+                mock(RepairOrderPager.class),
+                mock(RepairOrderVersions.class),
+                mock(StatusEventRegistry.class),
+                paymentMethodRepository,
+                couponRepository,
+                couponUsageCounter,
+                transactionManager,
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(5)
+        );
+        paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        customer = new AuthenticatedUser(
+                UUID.randomUUID(),
+                "customer@example.com",
+                "Customer",
+                UserRole.CUSTOMER,
+                "12301894239",
+                Instant.now(),
+                Instant.now(),
+                "Depok",
+                null,
+                0,
+                0L
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        repairOrderRepository.deleteAll();
+        couponRepository.deleteAll();
+        paymentMethodRepository.deleteAll();
+    }
+
+    @Test
+    void createRepairOrders_shouldRedeemCouponOnceAndBatchInserts() {
+        Coupon coupon = couponRepository.save(Coupon.builder()
+                .code("BULK")
+                .discountAmount(10000)
+                .maxUsage(100)
+                .usageCount(0)
+                .validUntil(LocalDate.now().plusDays(30))
+                .build());
+        List<CreateAndUpdateRepairOrderRequest> requests = requests(100, "BULK");
+        Statistics statistics = statistics();
+
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        assertTrue(response.getData().stream().allMatch(BulkCreateRepairOrderResult::isSuccess));
+        assertEquals(100, repairOrderRepository.findByCustomerId(customer.id()).size());
+        assertEquals(100, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+        assertEquals(100, statistics.getEntityInsertCount());
+        // One lookup each for payment methods and coupons, one coupon update and a few insert batches
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                () -> statistics.getPrepareStatementCount() + " statements for 100 orders");
+    }
+
+    @Test
+    void createRepairOrders_couponShortOfItems_shouldNotUseCoupon() {
+        Coupon coupon = couponRepository.save(Coupon.builder()
+                .code("SHORT")
+                .discountAmount(10000)
+                .maxUsage(3)
+                .usageCount(0)
+                .validUntil(LocalDate.now().plusDays(30))
+                .build());
+        List<CreateAndUpdateRepairOrderRequest> requests = new ArrayList<>(requests(4, "SHORT"));
+        requests.addAll(requests(1, null));
+
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        assertEquals(1, response.getData().stream().filter(BulkCreateRepairOrderResult::isSuccess).count());
+        assertTrue(response.getData().get(4).isSuccess());
+        assertEquals(1, repairOrderRepository.findByCustomerId(customer.id()).size());
+        assertEquals(0, couponRepository.findById(coupon.getId()).orElseThrow().getUsageCount());
+    }
+
+    // Benchmark rather than a pass/fail bound: the gain from batching depends on the database
+    // round trip, which an in-memory database all but removes, so the times are logged and only
+    // the counts are asserted
+    @Test
+    void benchmark_bulkVersusSequentialCreates() {
+        for (int size : BATCH_SIZES) {
+            List<CreateAndUpdateRepairOrderRequest> requests = requests(size, null);
+
+            long start = System.nanoTime();
+            for (CreateAndUpdateRepairOrderRequest request : requests) {
+                repairOrderService.createRepairOrder(request, customer);
+            }
+            long sequential = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            repairOrderService.createRepairOrders(requests, customer);
+            long bulk = System.nanoTime() - start;
+
+            assertEquals(2L * size, repairOrderRepository.findByCustomerId(customer.id()).size());
+            repairOrderRepository.deleteAll();
+            logger.info("Creating {} repair orders: sequential {} ms, bulk {} ms ({}x)",
+                    size, sequential / 1_000_000, bulk / 1_000_000,
+                    String.format("%.2f", (double) sequential / bulk));
+        }
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private List<CreateAndUpdateRepairOrderRequest> requests(int count, String couponCode) {
+        List<CreateAndUpdateRepairOrderRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CreateAndUpdateRepairOrderRequest request = new CreateAndUpdateRepairOrderRequest();
+            request.setItemName("Laptop " + i);
+            request.setItemCondition("Screen not working");
+            request.setIssueDescription("Black screen after startup");
+            request.setDesiredServiceDate(LocalDate.now().plusDays(2));
+            request.setPaymentMethodId(paymentMethod.getId());
+            request.setCouponCode(couponCode);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
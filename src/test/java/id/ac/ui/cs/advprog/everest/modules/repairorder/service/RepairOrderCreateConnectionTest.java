@@ -0,0 +1,202 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.utils.RequestMetadataUtil;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianRequest;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates repair orders against an in-process user service that stalls on
+ * GetRandomTechnician, with more concurrent requests than pooled connections.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repair-order-create;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "repair-order.technician-roster.enabled=false"
+})
+class RepairOrderCreateConnectionTest {
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    @Autowired
+    private RepairOrderService repairOrderService;
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private SlowUserService slowUserService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class SlowUserServiceConfig {
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        SlowUserService slowUserService() {
+            return new SlowUserService();
+        }
+
+        @Bean
+        @Primary
+        UserServiceGrpcClient slowUserServiceClient(SlowUserService slowUserService, RequestMetadataUtil metadataUtil) {
+            return new UserServiceGrpcClient(UserServiceGrpc.newBlockingStub(slowUserService.channel), metadataUtil);
+        }
+    }
+
+    static class SlowUserService extends UserServiceGrpc.UserServiceImplBase {
+        private final UUID technicianId = UUID.randomUUID();
+        private final CountDownLatch entered = new CountDownLatch(CONCURRENT_REQUESTS);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final String serverName = InProcessServerBuilder.generateName();
+        private Server server;
+        private ManagedChannel channel;
+
+        void start() throws IOException {
+            server = InProcessServerBuilder.forName(serverName).addService(this).build().start();
+            channel = InProcessChannelBuilder.forName(serverName).build();
+        }
+
+        void stop() {
+            release.countDown();
+            channel.shutdownNow();
+            server.shutdownNow();
+        }
+
+        @Override
+        public void getRandomTechnician(GetRandomTechnicianRequest request,
+                                        StreamObserver<GetRandomTechnicianResponse> responseObserver) {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responseObserver.onNext(GetRandomTechnicianResponse.newBuilder()
+                    .setTechnician(UserData.newBuilder()
+                            .setIdentity(UserIdentity.newBuilder().setId(technicianId.toString())))
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Test
+    void createRepairOrder_shouldNotHoldPooledConnectionsWhileResolvingTechnician() throws Exception {
+        PaymentMethod paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        AuthenticatedUser customer = new AuthenticatedUser(
+                UUID.randomUUID(),
+                "customer@example.com",
+                "Customer",
+                UserRole.CUSTOMER,
+                "12301894239",
+                Instant.now(),
+                Instant.now(),
+                "Depok",
+                null,
+                0,
+                0L
+        );
+        CreateAndUpdateRepairOrderRequest request = new CreateAndUpdateRepairOrderRequest();
+        request.setItemName("Laptop");
+        request.setItemCondition("Screen not working");
+        request.setIssueDescription("Black screen after startup");
+        request.setDesiredServiceDate(LocalDate.now().plusDays(2));
+        request.setPaymentMethodId(paymentMethod.getId());
+
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(executor.submit(() -> repairOrderService.createRepairOrder(request, customer)));
+            }
+
+            // Every request is now blocked on the remote call, twice as many as there are connections;
+            // the concurrent payment method lookups may still be finishing, but must not keep a connection
+            assertTrue(slowUserService.entered.await(10, TimeUnit.SECONDS));
+            assertTrue(awaitIdle(pool, Duration.ofSeconds(5)));
+            assertEquals(1, paymentMethodRepository.count());
+
+            slowUserService.release.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            slowUserService.release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(CONCURRENT_REQUESTS, repairOrderRepository.findByCustomerId(customer.id()).size());
+        assertEquals(CONCURRENT_REQUESTS, meterRegistry.get(RepairOrderServiceImpl.CREATE_PHASE_METRIC)
+                .tag("phase", "write").timer().count());
+    }
+
+    private static boolean awaitIdle(HikariDataSource pool, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pool.getHikariPoolMXBean().getActiveConnections() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
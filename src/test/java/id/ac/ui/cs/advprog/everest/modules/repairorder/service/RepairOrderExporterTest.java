@@ -0,0 +1,194 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RepairOrderExporterTest {
+    private static final int FETCH_SIZE = 50;
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private RepairOrderExporter repairOrderExporter;
+    private PaymentMethod paymentMethod;
+
+    @BeforeEach
+    void setUp() {
+        repairOrderExporter = new RepairOrderExporter(
+                repairOrderRepository, objectMapper, transactionManager, FETCH_SIZE);
+        paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repairOrderRepository.deleteAll();
+        paymentMethodRepository.deleteAll();
+    }
+
+    private List<RepairOrder> saveOrders(int count, UUID customerId, UUID technicianId, String itemName) {
+        List<RepairOrder> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(RepairOrder.builder()
+                    .customerId(customerId)
+                    .technicianId(technicianId)
+                    .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                    .itemName(itemName)
+                    .itemCondition("Screen not working")
+                    .issueDescription("Black screen after startup")
+                    .desiredServiceDate(LocalDate.now().plusDays(2))
+                    .paymentMethod(paymentMethod)
+                    .build());
+        }
+        return repairOrderRepository.saveAll(orders);
+    }
+
+    private static AuthenticatedUser user(UUID id, UserRole role) {
+        return new AuthenticatedUser(id, "user@example.com", "User", role, "12301894239",
+                Instant.now(), Instant.now(), "Depok", null, 0, 0L);
+    }
+
+    private List<String> export(AuthenticatedUser user, RepairOrderExporter.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        repairOrderExporter.export(user, format, out);
+        String body = out.toString(StandardCharsets.UTF_8);
+        return body.isEmpty() ? List.of() : List.of(body.split("\n"));
+    }
+
+    @Test
+    void export_ndjson_shouldWriteOneCustomerOrderPerLineNewestFirst() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        saveOrders(3, customerId, UUID.randomUUID(), "Laptop");
+        saveOrders(2, UUID.randomUUID(), UUID.randomUUID(), "Phone");
+
+        List<String> lines = export(user(customerId, UserRole.CUSTOMER), RepairOrderExporter.Format.NDJSON);
+
+        assertEquals(3, lines.size());
+        List<ViewRepairOrderResponse> views = new ArrayList<>();
+        for (String line : lines) {
+            views.add(objectMapper.readValue(line, ViewRepairOrderResponse.class));
+        }
+        assertTrue(views.stream().allMatch(view -> customerId.equals(view.getCustomerId())));
+        for (int i = 1; i < views.size(); i++) {
+            assertFalse(views.get(i).getCreatedAt().isAfter(views.get(i - 1).getCreatedAt()));
+        }
+        JsonNode first = objectMapper.readTree(lines.getFirst());
+        assertEquals(paymentMethod.getId().toString(), first.get("paymentMethodId").asText());
+    }
+
+    @Test
+    void export_csv_shouldWriteHeaderAndTechnicianOrders() {
+        UUID technicianId = UUID.randomUUID();
+        List<RepairOrder> assigned = saveOrders(2, UUID.randomUUID(), technicianId, "Laptop, \"gaming\"");
+        saveOrders(1, UUID.randomUUID(), UUID.randomUUID(), "Phone");
+
+        List<String> lines = export(user(technicianId, UserRole.TECHNICIAN), RepairOrderExporter.Format.CSV);
+
+        assertEquals(3, lines.size());
+        assertTrue(lines.getFirst().startsWith("id,customerId,technicianId,status,"));
+        for (String line : lines.subList(1, lines.size())) {
+            assertTrue(line.contains(technicianId.toString()));
+            assertTrue(line.contains(",\"Laptop, \"\"gaming\"\"\","));
+        }
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(assigned.getFirst().getId().toString())));
+    }
+
+    @Test
+    void export_withNoOrders_shouldWriteOnlyTheCsvHeader() {
+        assertEquals(0, export(user(UUID.randomUUID(), UserRole.CUSTOMER), RepairOrderExporter.Format.NDJSON).size());
+        assertEquals(1, export(user(UUID.randomUUID(), UserRole.CUSTOMER), RepairOrderExporter.Format.CSV).size());
+    }
+
+    @Test
+    void export_shouldStreamRowsWithoutLoadingEntities() {
+        UUID customerId = UUID.randomUUID();
+        int count = FETCH_SIZE * 20;
+        saveOrders(count, customerId, UUID.randomUUID(), "Laptop");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CountingOutputStream out = new CountingOutputStream();
+        repairOrderExporter.export(user(customerId, UserRole.CUSTOMER), RepairOrderExporter.Format.NDJSON, out);
+
+        assertEquals(count, out.lines);
+        // Rows go straight into views, so the persistence context never holds an order
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void format_of_shouldIgnoreCaseAndRejectUnknownFormats() {
+        assertEquals(RepairOrderExporter.Format.CSV, RepairOrderExporter.Format.of("csv"));
+        assertEquals(RepairOrderExporter.Format.NDJSON, RepairOrderExporter.Format.of("NDJSON"));
+        assertThrows(ValidationException.class, () -> RepairOrderExporter.Format.of("xml"));
+    }
+
+    // Counts lines without keeping what was written
+    private static class CountingOutputStream extends OutputStream {
+        private int lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.exception.ValidationException;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.IdempotencyConflictException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.InvalidRepairOrderStateException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrderIdempotencyKey;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderIdempotencyKeyRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@ActiveProfiles("test")
+class RepairOrderIdempotencyTest {
+    private static final String KEY = "7f8e3c1a-retry";
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private RepairOrderIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RepairOrderService repairOrderService;
+    private RepairOrderIdempotency idempotency;
+    private AuthenticatedUser customer;
+    private CreateAndUpdateRepairOrderRequest request;
+    private GenericResponse<ViewRepairOrderResponse> created;
+
+    @BeforeEach
+    void setUp() {
+        repairOrderService = mock(RepairOrderService.class);
+        idempotency = newInstance(Duration.ofSeconds(2), Duration.ofMinutes(1));
+        customer = new AuthenticatedUser(
+                UUID.randomUUID(),
+                "customer@example.com",
+                "Customer",
+                UserRole.CUSTOMER,
+                "12301894239",
+                Instant.now(),
+                Instant.now(),
+                "Depok",
+                null,
+                0,
+                0L
+        );
+
+        PaymentMethod paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        RepairOrder order = repairOrderRepository.save(RepairOrder.builder()
+                .customerId(customer.id())
+                .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                .itemName("Laptop")
+                .itemCondition("Screen not working")
+                .issueDescription("Black screen after startup")
+                .desiredServiceDate(LocalDate.now().plusDays(2))
+                .paymentMethod(paymentMethod)
+                .build());
+        created = new GenericResponse<>(true, "Repair order created successfully",
+                repairOrderRepository.findViewById(order.getId()).orElseThrow());
+
+        request = new CreateAndUpdateRepairOrderRequest();
+        request.setItemName("Laptop");
+        request.setItemCondition("Screen not working");
+        request.setIssueDescription("Black screen after startup");
+        request.setDesiredServiceDate(LocalDate.now().plusDays(2));
+        request.setPaymentMethodId(paymentMethod.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+        repairOrderRepository.deleteAll();
+        paymentMethodRepository.deleteAll();
+    }
+
+    // Shares the database but not the in-memory layer, like another instance of the service
+    private RepairOrderIdempotency newInstance(Duration waitTimeout, Duration lockTimeout) {
+        return new RepairOrderIdempotency(repairOrderService, repairOrderRepository, idempotencyKeyRepository,
+                transactionManager, Duration.ofHours(24), 100, waitTimeout, lockTimeout, Duration.ZERO);
+    }
+
+    @Test
+    void retry_shouldReplayOriginalResponseWithoutCreatingAgain() {
+        when(repairOrderService.createRepairOrder(request, customer)).thenReturn(created);
+
+        GenericResponse<ViewRepairOrderResponse> first = idempotency.createRepairOrder(KEY, request, customer);
+        GenericResponse<ViewRepairOrderResponse> retry = idempotency.createRepairOrder(KEY, request, customer);
+
+        assertSame(created, first);
+        assertSame(created, retry);
+        verify(repairOrderService, times(1)).createRepairOrder(any(), any());
+        RepairOrderIdempotencyKey record = idempotencyKeyRepository
+                .findByCustomerIdAndIdempotencyKey(customer.id(), KEY).orElseThrow();
+        assertEquals(created.getData().getId(), record.getRepairOrderId());
+    }
+
+    @Test
+    void retryOnAnotherInstance_shouldReplayFromDatabase() {
+        when(repairOrderService.createRepairOrder(request, customer)).thenReturn(created);
+        idempotency.createRepairOrder(KEY, request, customer);
+
+        GenericResponse<ViewRepairOrderResponse> retry = newInstance(Duration.ofSeconds(2), Duration.ofMinutes(1))
+                .createRepairOrder(KEY, request, customer);
+
+        assertTrue(retry.isSuccess());
+        assertEquals(created.getMessage(), retry.getMessage());
+        assertEquals(created.getData().getId(), retry.getData().getId());
+        verify(repairOrderService, times(1)).createRepairOrder(any(), any());
+    }
+
+    @Test
+    void sameKeyForAnotherCustomer_shouldCreateSeparately() {
+        AuthenticatedUser other = new AuthenticatedUser(UUID.randomUUID(), "other@example.com", "Other",
+                UserRole.CUSTOMER, "12301894240", Instant.now(), Instant.now(), "Depok", null, 0, 0L);
+        when(repairOrderService.createRepairOrder(any(), any())).thenReturn(created);
+
+        idempotency.createRepairOrder(KEY, request, customer);
+        idempotency.createRepairOrder(KEY, request, other);
+
+        verify(repairOrderService, times(2)).createRepairOrder(any(), any());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequest_shouldBeRejected() {
+        when(repairOrderService.createRepairOrder(request, customer)).thenReturn(created);
+        idempotency.createRepairOrder(KEY, request, customer);
+
+        CreateAndUpdateRepairOrderRequest changed = new CreateAndUpdateRepairOrderRequest();
+        changed.setItemName("Phone");
+        changed.setItemCondition(request.getItemCondition());
+        changed.setIssueDescription(request.getIssueDescription());
+        changed.setDesiredServiceDate(request.getDesiredServiceDate());
+        changed.setPaymentMethodId(request.getPaymentMethodId());
+
+        assertThrows(ValidationException.class, () -> idempotency.createRepairOrder(KEY, changed, customer));
+        assertThrows(ValidationException.class, () -> newInstance(Duration.ofSeconds(2), Duration.ofMinutes(1))
+                .createRepairOrder(KEY, changed, customer));
+        verify(repairOrderService, times(1)).createRepairOrder(any(), any());
+    }
+
+    @Test
+    void failedCreate_shouldFreeKeyForRetry() {
+        when(repairOrderService.createRepairOrder(request, customer))
+                .thenThrow(new InvalidRepairOrderStateException("Invalid payment method"))
+                .thenReturn(created);
+
+        assertThrows(InvalidRepairOrderStateException.class,
+                () -> idempotency.createRepairOrder(KEY, request, customer));
+        assertTrue(idempotencyKeyRepository.findAll().isEmpty());
+
+        assertSame(created, idempotency.createRepairOrder(KEY, request, customer));
+        verify(repairOrderService, times(2)).createRepairOrder(any(), any());
+    }
+
+    @Test
+    void concurrentDuplicates_shouldWaitForFirstExecution() throws Exception {
+        when(repairOrderService.createRepairOrder(request, customer)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return created;
+        });
+        RepairOrderIdempotency otherInstance = newInstance(Duration.ofSeconds(5), Duration.ofMinutes(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<GenericResponse<ViewRepairOrderResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                RepairOrderIdempotency instance = i % 2 == 0 ? idempotency : otherInstance;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return instance.createRepairOrder(KEY, request, customer);
+                }));
+            }
+            start.countDown();
+
+            for (Future<GenericResponse<ViewRepairOrderResponse>> result : results) {
+                assertEquals(created.getData().getId(), result.get(10, TimeUnit.SECONDS).getData().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repairOrderService, times(1)).createRepairOrder(any(), any());
+    }
+
+    @Test
+    void duplicateOnAnotherInstance_shouldConflictWhileFirstIsStillRunning() {
+        idempotencyKeyRepository.save(RepairOrderIdempotencyKey.builder()
+                .customerId(customer.id())
+                .idempotencyKey(KEY)
+                .requestHash(RepairOrderIdempotency.fingerprint(request))
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(24))
+                .build());
+
+        RepairOrderIdempotency impatient = newInstance(Duration.ofMillis(200), Duration.ofMinutes(1));
+
+        assertThrows(IdempotencyConflictException.class, () -> impatient.createRepairOrder(KEY, request, customer));
+        verifyNoInteractions(repairOrderService);
+    }
+
+    @Test
+    void abandonedClaim_shouldBeTakenOver() {
+        idempotencyKeyRepository.save(RepairOrderIdempotencyKey.builder()
+                .customerId(customer.id())
+                .idempotencyKey(KEY)
+                .requestHash(RepairOrderIdempotency.fingerprint(request))
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(LocalDateTime.now().plusHours(24))
+                .build());
+        when(repairOrderService.createRepairOrder(request, customer)).thenReturn(created);
+
+        assertSame(created, idempotency.createRepairOrder(KEY, request, customer));
+        verify(repairOrderService).createRepairOrder(request, customer);
+    }
+
+    @Test
+    void expiredKey_shouldBeReusable() {
+        idempotencyKeyRepository.save(RepairOrderIdempotencyKey.builder()
+                .customerId(customer.id())
+                .idempotencyKey(KEY)
+                .requestHash("0".repeat(64))
+                .repairOrderId(UUID.randomUUID())
+                .responseMessage("Repair order created successfully")
+                .createdAt(LocalDateTime.now().minusDays(2))
+                .expiresAt(LocalDateTime.now().minusDays(1))
+                .build());
+        when(repairOrderService.createRepairOrder(request, customer)).thenReturn(created);
+
+        assertSame(created, idempotency.createRepairOrder(KEY, request, customer));
+
+        idempotency.purgeExpired();
+        assertEquals(1, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void malformedKey_shouldBeRejected() {
+        assertThrows(ValidationException.class, () -> idempotency.createRepairOrder(" ", request, customer));
+        assertThrows(ValidationException.class,
+                () -> idempotency.createRepairOrder("k".repeat(256), request, customer));
+        verifyNoInteractions(repairOrderService);
+    }
+}
@@ -2,38 +2,55 @@ package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.exception.ResourceNotFoundException;
 import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
+import id.ac.ui.cs.advprog.everest.common.utils.KeysetCursor;
 import id.ac.ui.cs.advprog.everest.modules.coupon.model.Coupon;
 import id.ac.ui.cs.advprog.everest.modules.coupon.repository.CouponRepository;
+import id.ac.ui.cs.advprog.everest.modules.coupon.service.CouponUsageCounter;
 import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
 import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
 import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderRequest;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.BulkCreateRepairOrderResult;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.CreateAndUpdateRepairOrderRequest;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.dto.ViewRepairOrderResponse;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.DatabaseException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.InvalidRepairOrderStateException;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.RepairOrderTimeoutException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.exception.TechnicianUnavailableException;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.GetRandomTechnicianResponse;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,12 +58,25 @@ class RepairOrderServiceImplTest {
     @Mock
     private UserServiceGrpcClient userServiceGrpcClient;
     @Mock
+    private TechnicianAssignmentService technicianAssignmentService;
+    @Mock
     private RepairOrderRepository repairOrderRepository;
     @Mock
     private CouponRepository couponRepository;
     @Mock
+    private CouponUsageCounter couponUsageCounter;
+    @Mock
+    private RepairOrderPager repairOrderPager;
+    @Mock
+    private RepairOrderVersions repairOrderVersions;
+
+    @Mock
+    private StatusEventRegistry statusEventRegistry;
+    @Mock
     private PaymentMethodRepository paymentMethodRepository;
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
     private RepairOrderServiceImpl repairOrderService;
 
     private UUID customerId;
@@ -56,12 +86,28 @@ class RepairOrderServiceImplTest {
     private AuthenticatedUser customer;
     private CreateAndUpdateRepairOrderRequest validRequest;
     private RepairOrder sampleRepairOrder;
+    private ViewRepairOrderResponse sampleView;
     private GetRandomTechnicianResponse randomTechnicianResponse;
     private PaymentMethod paymentMethod;
     private Coupon coupon;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repairOrderService = new RepairOrderServiceImpl(
+                userServiceGrpcClient,
+                technicianAssignmentService,
+                repairOrderRepository,
+                repairOrderPager,
+                repairOrderVersions,
+                statusEventRegistry,
+                paymentMethodRepository,
+                couponRepository,
+                couponUsageCounter,
+                transactionManager,
+                meterRegistry,
+                Duration.ofSeconds(5)
+        );
         customerId = UUID.randomUUID();
         technicianId = UUID.randomUUID();
         paymentMethodId = UUID.randomUUID();
@@ -135,6 +181,22 @@ class RepairOrderServiceImplTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+
+        // Sample repair order as read by the listing and lookup queries
+        sampleView = ViewRepairOrderResponse.builder()
+                .id(sampleRepairOrder.getId())
+                .customerId(customerId)
+                .technicianId(technicianId)
+                .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                .itemName(sampleRepairOrder.getItemName())
+                .itemCondition(sampleRepairOrder.getItemCondition())
+                .issueDescription(sampleRepairOrder.getIssueDescription())
+                .desiredServiceDate(sampleRepairOrder.getDesiredServiceDate())
+                .paymentMethodId(paymentMethodId)
+                .couponId(couponId)
+                .createdAt(sampleRepairOrder.getCreatedAt())
+                .updatedAt(sampleRepairOrder.getUpdatedAt())
+                .build();
     }
 
     // CREATE REPAIR ORDER TESTS
@@ -144,6 +206,7 @@ class RepairOrderServiceImplTest {
         when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
         when(repairOrderRepository.save(any(RepairOrder.class))).thenReturn(sampleRepairOrder);
 
         // Act
@@ -164,9 +227,8 @@ class RepairOrderServiceImplTest {
         verify(userServiceGrpcClient).getRandomTechnician();
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository).saveAndFlush(coupon); // Verify usage count increment
+        verify(couponUsageCounter).redeem(eq(coupon), any(LocalDate.class)); // Verify usage count increment
         verify(repairOrderRepository).save(any(RepairOrder.class));
-        assertEquals(3, coupon.getUsageCount()); // Verify usage count was incremented
     }
 
     @Test
@@ -205,15 +267,16 @@ class RepairOrderServiceImplTest {
         verify(userServiceGrpcClient).getRandomTechnician();
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository, never()).findByCode(any(String.class));
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verify(repairOrderRepository).save(any(RepairOrder.class));
     }
 
     @Test
     void createRepairOrder_CouponNotFound_ThrowsException() {
         // Arrange
-        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
-        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -222,10 +285,8 @@ class RepairOrderServiceImplTest {
         );
         assertEquals("Coupon not found", exception.getMessage());
 
-        verify(userServiceGrpcClient).getRandomTechnician();
-        verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
@@ -241,8 +302,9 @@ class RepairOrderServiceImplTest {
                 .validUntil(LocalDate.now().minusDays(1)) // Expired
                 .build();
 
-        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
-        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(expiredCoupon));
 
         // Act & Assert
@@ -251,10 +313,8 @@ class RepairOrderServiceImplTest {
         );
         assertEquals("Coupon has expired", exception.getMessage());
 
-        verify(userServiceGrpcClient).getRandomTechnician();
-        verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
@@ -270,8 +330,9 @@ class RepairOrderServiceImplTest {
                 .validUntil(LocalDate.now().plusDays(30))
                 .build();
 
-        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
-        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(maxUsedCoupon));
 
         // Act & Assert
@@ -280,38 +341,39 @@ class RepairOrderServiceImplTest {
         );
         assertEquals("Coupon has reached its maximum usage limit", exception.getMessage());
 
-        verify(userServiceGrpcClient).getRandomTechnician();
-        verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
     @Test
-    void createRepairOrder_CouponOptimisticLockingFailure_ThrowsException() {
+    void createRepairOrder_CouponUsedUpConcurrently_ThrowsException() {
         // Arrange
         when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
-        when(couponRepository.saveAndFlush(coupon)).thenThrow(new OptimisticLockingFailureException("Concurrent modification"));
+        // Other orders used the last redemptions after the coupon was validated
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(false);
 
         // Act & Assert
         InvalidRepairOrderStateException exception = assertThrows(InvalidRepairOrderStateException.class, () ->
                 repairOrderService.createRepairOrder(validRequest, customer)
         );
-        assertEquals("Coupon usage conflict, please try again", exception.getMessage());
+        assertEquals("Coupon has reached its maximum usage limit", exception.getMessage());
 
         verify(userServiceGrpcClient).getRandomTechnician();
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository).saveAndFlush(coupon);
+        verify(couponUsageCounter).redeem(eq(coupon), any(LocalDate.class));
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
     @Test
     void createRepairOrder_InvalidPaymentMethod_ThrowsException() {
         // Arrange
-        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -319,9 +381,8 @@ class RepairOrderServiceImplTest {
                 repairOrderService.createRepairOrder(validRequest, customer)
         );
 
-        verify(userServiceGrpcClient).getRandomTechnician();
         verify(paymentMethodRepository).findById(paymentMethodId);
-        verify(couponRepository, never()).findByCode(any(String.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
@@ -338,6 +399,120 @@ class RepairOrderServiceImplTest {
         verifyNoInteractions(repairOrderRepository);
     }
 
+    @Test
+    void createRepairOrder_UsesAssignedTechnician_WithoutRemoteCall() {
+        // Arrange
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
+        when(repairOrderRepository.save(any(RepairOrder.class))).thenReturn(sampleRepairOrder);
+
+        // Act
+        GenericResponse<ViewRepairOrderResponse> response = repairOrderService.createRepairOrder(validRequest, customer);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(repairOrderRepository).save(argThat(order -> technicianId.equals(order.getTechnicianId())));
+        verify(technicianAssignmentService, never()).release(any());
+        verifyNoInteractions(userServiceGrpcClient);
+    }
+
+    @Test
+    void createRepairOrder_ResolvesTechnicianBeforeTransaction_AndTimesBothPhases() {
+        // Arrange
+        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
+        when(repairOrderRepository.save(any(RepairOrder.class))).thenReturn(sampleRepairOrder);
+
+        // Act
+        repairOrderService.createRepairOrder(validRequest, customer);
+
+        // Assert
+        InOrder inOrder = inOrder(userServiceGrpcClient, transactionManager, repairOrderRepository);
+        inOrder.verify(userServiceGrpcClient).getRandomTechnician();
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(repairOrderRepository).save(any(RepairOrder.class));
+        inOrder.verify(transactionManager).commit(any());
+        for (String phase : List.of("resolve", "write")) {
+            assertEquals(1, meterRegistry.get(RepairOrderServiceImpl.CREATE_PHASE_METRIC)
+                    .tag("phase", phase).timer().count());
+        }
+    }
+
+    @Test
+    void createRepairOrder_ResolvesLookupsConcurrently() {
+        // Arrange: each lookup only returns once all three are in flight
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(userServiceGrpcClient.getRandomTechnician())
+                .thenAnswer(invocation -> awaitOthers(allStarted, randomTechnicianResponse));
+        when(paymentMethodRepository.findById(paymentMethodId))
+                .thenAnswer(invocation -> awaitOthers(allStarted, Optional.of(paymentMethod)));
+        when(couponRepository.findByCode("DISCOUNT10"))
+                .thenAnswer(invocation -> awaitOthers(allStarted, Optional.of(coupon)));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
+        when(repairOrderRepository.save(any(RepairOrder.class))).thenReturn(sampleRepairOrder);
+
+        // Act
+        GenericResponse<ViewRepairOrderResponse> response = repairOrderService.createRepairOrder(validRequest, customer);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(repairOrderRepository).save(argThat(order ->
+                technicianId.equals(order.getTechnicianId())
+                        && order.getPaymentMethod() == paymentMethod
+                        && order.getCoupon() == coupon));
+    }
+
+    @Test
+    void createRepairOrder_LookupTimeout_ThrowsTimeoutException() {
+        // Arrange
+        repairOrderService = new RepairOrderServiceImpl(userServiceGrpcClient, technicianAssignmentService,
+                repairOrderRepository, repairOrderPager, repairOrderVersions, statusEventRegistry, paymentMethodRepository, couponRepository, couponUsageCounter, transactionManager,
+                meterRegistry, Duration.ofMillis(50));
+        when(userServiceGrpcClient.getRandomTechnician()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return randomTechnicianResponse;
+        });
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+
+        // Act & Assert
+        assertThrows(RepairOrderTimeoutException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        verifyNoInteractions(transactionManager, repairOrderRepository);
+    }
+
+    private static <T> T awaitOthers(CountDownLatch allStarted, T value) throws InterruptedException {
+        allStarted.countDown();
+        if (!allStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Lookups did not run concurrently");
+        }
+        return value;
+    }
+
+    @Test
+    void createRepairOrder_PullMode_LeavesOrderUnassigned() {
+        // Arrange
+        when(technicianAssignmentService.isPullMode()).thenReturn(true);
+        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
+        when(repairOrderRepository.save(any(RepairOrder.class))).thenReturn(sampleRepairOrder);
+
+        // Act
+        GenericResponse<ViewRepairOrderResponse> response = repairOrderService.createRepairOrder(validRequest, customer);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(repairOrderRepository).save(argThat(order -> order.getTechnicianId() == null));
+        verify(technicianAssignmentService, never()).assign();
+        verifyNoInteractions(userServiceGrpcClient);
+    }
+
     @Test
     void createRepairOrder_NullCustomer_ThrowsException() {
         // Act & Assert
@@ -354,6 +529,9 @@ class RepairOrderServiceImplTest {
     @Test
     void createRepairOrder_NoTechnicianAvailable_ThrowsException() {
         // Arrange
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
         GetRandomTechnicianResponse emptyResponse = GetRandomTechnicianResponse.newBuilder().build();
         when(userServiceGrpcClient.getRandomTechnician()).thenReturn(emptyResponse);
 
@@ -363,8 +541,7 @@ class RepairOrderServiceImplTest {
         );
 
         verify(userServiceGrpcClient).getRandomTechnician();
-        verifyNoInteractions(paymentMethodRepository);
-        verifyNoInteractions(couponRepository);
+        verify(couponUsageCounter, never()).redeem(any(), any());
         verifyNoInteractions(repairOrderRepository);
     }
 
@@ -374,6 +551,7 @@ class RepairOrderServiceImplTest {
         when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
         when(repairOrderRepository.save(any(RepairOrder.class))).thenThrow(mock(DataAccessException.class));
 
         // Act & Assert
@@ -384,19 +562,341 @@ class RepairOrderServiceImplTest {
         verify(userServiceGrpcClient).getRandomTechnician();
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository).saveAndFlush(coupon);
+        verify(couponUsageCounter).redeem(eq(coupon), any(LocalDate.class));
         verify(repairOrderRepository).save(any(RepairOrder.class));
     }
 
+    // The failing lookup waits until the technician is assigned, so there is a load to give back
+    private CountDownLatch stubAssignment() {
+        CountDownLatch assigned = new CountDownLatch(1);
+        when(technicianAssignmentService.assign()).thenAnswer(invocation -> {
+            assigned.countDown();
+            return Optional.of(technicianId);
+        });
+        return assigned;
+    }
+
+    private static <T> T afterAssignment(CountDownLatch assigned, T value) throws InterruptedException {
+        if (!assigned.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Technician was not assigned");
+        }
+        return value;
+    }
+
+    @Test
+    void createRepairOrder_InvalidPaymentMethod_ReleasesAssignedTechnician() {
+        // Arrange
+        CountDownLatch assigned = stubAssignment();
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(paymentMethodRepository.findById(paymentMethodId))
+                .thenAnswer(invocation -> afterAssignment(assigned, Optional.empty()));
+
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrder_CouponNotFound_ReleasesAssignedTechnician() {
+        // Arrange
+        CountDownLatch assigned = stubAssignment();
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10"))
+                .thenAnswer(invocation -> afterAssignment(assigned, Optional.empty()));
+
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrder_LookupTimeout_ReleasesAssignedTechnician() {
+        // Arrange
+        repairOrderService = new RepairOrderServiceImpl(userServiceGrpcClient, technicianAssignmentService,
+                repairOrderRepository, repairOrderPager, repairOrderVersions, statusEventRegistry, paymentMethodRepository, couponRepository, couponUsageCounter, transactionManager,
+                meterRegistry, Duration.ofMillis(50));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findById(paymentMethodId)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Optional.of(paymentMethod);
+        });
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+
+        // Act & Assert
+        assertThrows(RepairOrderTimeoutException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        // The assignment may still be in flight when the timeout fires, it is given back once it lands
+        verify(technicianAssignmentService, timeout(1_000)).release(technicianId);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrder_CouponUsedUpConcurrently_ReleasesAssignedTechnician() {
+        // Arrange
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+        verify(repairOrderRepository, never()).save(any(RepairOrder.class));
+    }
+
+    @Test
+    void createRepairOrder_DatabaseException_ReleasesAssignedTechnician() {
+        // Arrange
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
+        when(repairOrderRepository.save(any(RepairOrder.class))).thenThrow(mock(DataAccessException.class));
+
+        // Act & Assert
+        assertThrows(DatabaseException.class, () ->
+                repairOrderService.createRepairOrder(validRequest, customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+    }
+
+    // BULK CREATE REPAIR ORDER TESTS
+    private CreateAndUpdateRepairOrderRequest copyOfValidRequest(String couponCode) {
+        CreateAndUpdateRepairOrderRequest request = new CreateAndUpdateRepairOrderRequest();
+        request.setItemName(validRequest.getItemName());
+        request.setItemCondition(validRequest.getItemCondition());
+        request.setIssueDescription(validRequest.getIssueDescription());
+        request.setDesiredServiceDate(validRequest.getDesiredServiceDate());
+        request.setPaymentMethodId(validRequest.getPaymentMethodId());
+        request.setCouponCode(couponCode);
+        return request;
+    }
+
+    private void stubSaveAllAssigningIds() {
+        when(repairOrderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<RepairOrder> orders = invocation.getArgument(0);
+            orders.forEach(order -> order.setId(UUID.randomUUID()));
+            return orders;
+        });
+    }
+
+    @Test
+    void createRepairOrders_Success_ResolvesOnceAndSavesInOneCall() {
+        // Arrange
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(
+                copyOfValidRequest("DISCOUNT10"), copyOfValidRequest("DISCOUNT10"), copyOfValidRequest(null));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(couponRepository.findByCodeIn(Set.of("DISCOUNT10"))).thenReturn(List.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class), eq(2))).thenReturn(true);
+        stubSaveAllAssigningIds();
+
+        // Act
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals("Created 3 of 3 repair orders", response.getMessage());
+        assertEquals(3, response.getData().size());
+        for (int i = 0; i < 3; i++) {
+            BulkCreateRepairOrderResult result = response.getData().get(i);
+            assertEquals(i, result.getIndex());
+            assertTrue(result.isSuccess());
+            assertNotNull(result.getRepairOrder().getId());
+            assertEquals(technicianId, result.getRepairOrder().getTechnicianId());
+        }
+        assertEquals(couponId, response.getData().get(0).getRepairOrder().getCouponId());
+        assertNull(response.getData().get(2).getRepairOrder().getCouponId());
+
+        verify(paymentMethodRepository, never()).findById(any());
+        verify(couponRepository, never()).findByCode(any());
+        verify(couponUsageCounter).redeem(eq(coupon), any(LocalDate.class), eq(2));
+        verify(repairOrderRepository).saveAll(anyList());
+        verify(repairOrderRepository, never()).save(any(RepairOrder.class));
+        verify(technicianAssignmentService, never()).release(any());
+        verifyNoInteractions(userServiceGrpcClient);
+    }
+
+    @Test
+    void createRepairOrders_WithoutRoster_FetchesFallbackTechnicianOnce() {
+        // Arrange
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(copyOfValidRequest(null), copyOfValidRequest(null));
+        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        stubSaveAllAssigningIds();
+
+        // Act
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        // Assert
+        assertEquals(technicianId, response.getData().get(0).getRepairOrder().getTechnicianId());
+        assertEquals(technicianId, response.getData().get(1).getRepairOrder().getTechnicianId());
+        verify(userServiceGrpcClient).getRandomTechnician();
+        verifyNoInteractions(couponRepository);
+    }
+
+    @Test
+    void createRepairOrders_InvalidItems_FailOnlyThoseItems() {
+        // Arrange
+        CreateAndUpdateRepairOrderRequest unknownPaymentMethod = copyOfValidRequest(null);
+        unknownPaymentMethod.setPaymentMethodId(UUID.randomUUID());
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(
+                unknownPaymentMethod, copyOfValidRequest("UNKNOWN"), copyOfValidRequest(null));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findAllById(anySet())).thenReturn(List.of(paymentMethod));
+        when(couponRepository.findByCodeIn(Set.of("UNKNOWN"))).thenReturn(List.of());
+        stubSaveAllAssigningIds();
+
+        // Act
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        // Assert
+        assertEquals("Created 1 of 3 repair orders", response.getMessage());
+        assertFalse(response.getData().get(0).isSuccess());
+        assertEquals("Invalid payment method", response.getData().get(0).getMessage());
+        assertFalse(response.getData().get(1).isSuccess());
+        assertEquals("Coupon not found", response.getData().get(1).getMessage());
+        assertNull(response.getData().get(1).getRepairOrder());
+        assertTrue(response.getData().get(2).isSuccess());
+        verify(technicianAssignmentService, times(1)).assign();
+        verify(repairOrderRepository).saveAll(argThat(orders -> ((List<?>) orders).size() == 1));
+    }
+
+    @Test
+    void createRepairOrders_CouponCannotCoverGroup_FailsGroupAndReleasesTechnicians() {
+        // Arrange
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(
+                copyOfValidRequest("DISCOUNT10"), copyOfValidRequest(null), copyOfValidRequest("DISCOUNT10"));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(couponRepository.findByCodeIn(Set.of("DISCOUNT10"))).thenReturn(List.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class), eq(2))).thenReturn(false);
+        stubSaveAllAssigningIds();
+
+        // Act
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        // Assert
+        assertEquals("Created 1 of 3 repair orders", response.getMessage());
+        assertEquals("Coupon has reached its maximum usage limit", response.getData().get(0).getMessage());
+        assertEquals("Coupon has reached its maximum usage limit", response.getData().get(2).getMessage());
+        assertTrue(response.getData().get(1).isSuccess());
+        verify(technicianAssignmentService, times(2)).release(technicianId);
+    }
+
+    @Test
+    void createRepairOrders_CouponCannotCoverGroup_DoesNotReleaseFallbackTechnician() {
+        // Arrange: the roster is unavailable, so every item gets the uncounted fallback technician
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(
+                copyOfValidRequest("DISCOUNT10"), copyOfValidRequest("DISCOUNT10"));
+        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(randomTechnicianResponse);
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(couponRepository.findByCodeIn(Set.of("DISCOUNT10"))).thenReturn(List.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class), eq(2))).thenReturn(false);
+        stubSaveAllAssigningIds();
+
+        // Act
+        GenericResponse<List<BulkCreateRepairOrderResult>> response =
+                repairOrderService.createRepairOrders(requests, customer);
+
+        // Assert
+        assertEquals("Created 0 of 2 repair orders", response.getMessage());
+        verify(technicianAssignmentService, never()).release(any());
+    }
+
+    @Test
+    void createRepairOrders_TooManyItems_ThrowsException() {
+        // Arrange
+        List<CreateAndUpdateRepairOrderRequest> requests =
+                Collections.nCopies(BulkCreateRepairOrderRequest.MAX_ITEMS + 1, validRequest);
+
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () ->
+                repairOrderService.createRepairOrders(requests, customer)
+        );
+        verifyNoInteractions(paymentMethodRepository, couponRepository, repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrders_EmptyRequest_ThrowsException() {
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () ->
+                repairOrderService.createRepairOrders(List.of(), customer)
+        );
+        verifyNoInteractions(paymentMethodRepository, couponRepository, repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrders_DatabaseException_ThrowsException() {
+        // Arrange
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(repairOrderRepository.saveAll(anyList())).thenThrow(mock(DataAccessException.class));
+
+        // Act & Assert
+        assertThrows(DatabaseException.class, () ->
+                repairOrderService.createRepairOrders(List.of(copyOfValidRequest(null)), customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+    }
+
+    @Test
+    void createRepairOrders_CouponRedeemFails_ReleasesAllTechnicians() {
+        // Arrange
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(
+                copyOfValidRequest("DISCOUNT10"), copyOfValidRequest(null));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId));
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(couponRepository.findByCodeIn(Set.of("DISCOUNT10"))).thenReturn(List.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class), eq(1)))
+                .thenThrow(mock(DataAccessException.class));
+
+        // Act & Assert
+        assertThrows(DatabaseException.class, () ->
+                repairOrderService.createRepairOrders(requests, customer)
+        );
+        verify(technicianAssignmentService, times(2)).release(technicianId);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void createRepairOrders_FallbackTechnicianUnavailable_ReleasesTechniciansAlreadyAssigned() {
+        // Arrange: the roster runs dry after the first item and the user service has nobody either
+        List<CreateAndUpdateRepairOrderRequest> requests = List.of(copyOfValidRequest(null), copyOfValidRequest(null));
+        when(technicianAssignmentService.assign()).thenReturn(Optional.of(technicianId), Optional.empty());
+        when(paymentMethodRepository.findAllById(Set.of(paymentMethodId))).thenReturn(List.of(paymentMethod));
+        when(userServiceGrpcClient.getRandomTechnician()).thenReturn(GetRandomTechnicianResponse.newBuilder().build());
+
+        // Act & Assert
+        assertThrows(TechnicianUnavailableException.class, () ->
+                repairOrderService.createRepairOrders(requests, customer)
+        );
+        verify(technicianAssignmentService).release(technicianId);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
     // GET REPAIR ORDERS TESTS
     @Test
     void getRepairOrders_Success() {
         // Arrange
-        List<RepairOrder> repairOrders = Collections.singletonList(sampleRepairOrder);
-        when(repairOrderRepository.findByCustomerId(customerId)).thenReturn(repairOrders);
+        List<ViewRepairOrderResponse> repairOrders = Collections.singletonList(sampleView);
+        when(repairOrderPager.byCustomer(customerId, null, null, null)).thenReturn(Window.from(repairOrders, ScrollPosition::offset));
 
         // Act
-        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer);
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer, null, null, null);
 
         // Assert
         assertTrue(response.isSuccess());
@@ -407,17 +907,17 @@ class RepairOrderServiceImplTest {
         assertEquals(paymentMethodId, response.getData().getFirst().getPaymentMethodId());
         assertEquals(couponId, response.getData().getFirst().getCouponId());
 
-        verify(repairOrderRepository).findByCustomerId(customerId);
+        verify(repairOrderPager).byCustomer(customerId, null, null, null);
     }
 
     @Test
     void getRepairOrders_EmptyList_Success() {
         // Arrange
-        List<RepairOrder> emptyList = List.of();
-        when(repairOrderRepository.findByCustomerId(customerId)).thenReturn(emptyList);
+        List<ViewRepairOrderResponse> emptyList = List.of();
+        when(repairOrderPager.byCustomer(customerId, null, null, null)).thenReturn(Window.from(emptyList, ScrollPosition::offset));
 
         // Act
-        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer);
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer, null, null, null);
 
         // Assert
         assertTrue(response.isSuccess());
@@ -425,36 +925,67 @@ class RepairOrderServiceImplTest {
         assertNotNull(response.getData());
         assertTrue(response.getData().isEmpty());
 
-        verify(repairOrderRepository).findByCustomerId(customerId);
+        verify(repairOrderPager).byCustomer(customerId, null, null, null);
+    }
+
+    @Test
+    void getRepairOrders_WithMorePages_ReturnsNextCursor() {
+        // Arrange
+        KeysetCursor last = new KeysetCursor(sampleRepairOrder.getCreatedAt(), sampleRepairOrder.getId());
+        Window<ViewRepairOrderResponse> page = Window.from(List.of(sampleView), i -> last.toScrollPosition(), true);
+        when(repairOrderPager.byCustomer(customerId, RepairOrderStatus.PENDING_CONFIRMATION, "previous", 1))
+                .thenReturn(page);
+
+        // Act
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService
+                .getRepairOrders(customer, RepairOrderStatus.PENDING_CONFIRMATION, "previous", 1);
+
+        // Assert
+        assertEquals(1, response.getData().size());
+        assertEquals(last, KeysetCursor.decode(response.getNextCursor()));
+    }
+
+    @Test
+    void getRepairOrders_LastPage_HasNoNextCursor() {
+        // Arrange
+        when(repairOrderPager.byCustomer(customerId, null, null, null))
+                .thenReturn(Window.from(List.of(sampleView), ScrollPosition::offset));
+
+        // Act
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService
+                .getRepairOrders(customer, null, null, null);
+
+        // Assert
+        assertNull(response.getNextCursor());
     }
 
     @Test
     void getRepairOrders_NullCustomer_ThrowsException() {
         // Act & Assert
         assertThrows(InvalidRepairOrderStateException.class, () ->
-                repairOrderService.getRepairOrders(null)
+                repairOrderService.getRepairOrders(null, null, null, null)
         );
 
-        verifyNoInteractions(repairOrderRepository);
+        verifyNoInteractions(repairOrderRepository, repairOrderPager);
     }
 
     @Test
     void getRepairOrders_DatabaseException_ThrowsException() {
         // Arrange
-        when(repairOrderRepository.findByCustomerId(customerId)).thenThrow(mock(DataAccessException.class));
+        when(repairOrderPager.byCustomer(customerId, null, null, null)).thenThrow(mock(DataAccessException.class));
 
         // Act & Assert
         assertThrows(DatabaseException.class, () ->
-                repairOrderService.getRepairOrders(customer)
+                repairOrderService.getRepairOrders(customer, null, null, null)
         );
 
-        verify(repairOrderRepository).findByCustomerId(customerId);
+        verify(repairOrderPager).byCustomer(customerId, null, null, null);
     }
 
     @Test
     void getRepairOrderById_Success() {
         String repairOrderId = sampleRepairOrder.getId().toString();
-        when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleRepairOrder));
+        when(repairOrderRepository.findViewById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleView));
 
         GenericResponse<ViewRepairOrderResponse> response = repairOrderService.getRepairOrderById(repairOrderId, customer);
 
@@ -464,7 +995,7 @@ class RepairOrderServiceImplTest {
         assertEquals(sampleRepairOrder.getId(), response.getData().getId());
         assertEquals(customerId, response.getData().getCustomerId());
 
-        verify(repairOrderRepository).findById(sampleRepairOrder.getId());
+        verify(repairOrderRepository).findViewById(sampleRepairOrder.getId());
     }
 
     @Test
@@ -501,13 +1032,13 @@ class RepairOrderServiceImplTest {
     @Test
     void getRepairOrderById_OrderNotFound_ThrowsException() {
         String repairOrderId = UUID.randomUUID().toString();
-        when(repairOrderRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(repairOrderRepository.findViewById(any(UUID.class))).thenReturn(Optional.empty());
 
         assertThrows(InvalidRepairOrderStateException.class, () ->
                 repairOrderService.getRepairOrderById(repairOrderId, customer)
         );
 
-        verify(repairOrderRepository).findById(any(UUID.class));
+        verify(repairOrderRepository).findViewById(any(UUID.class));
     }
 
     @Test
@@ -528,25 +1059,76 @@ class RepairOrderServiceImplTest {
                 0L
         );
 
-        when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleRepairOrder));
+        when(repairOrderRepository.findViewById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleView));
 
         assertThrows(InvalidRepairOrderStateException.class, () ->
                 repairOrderService.getRepairOrderById(repairOrderId, differentCustomer)
         );
 
-        verify(repairOrderRepository).findById(sampleRepairOrder.getId());
+        verify(repairOrderRepository).findViewById(sampleRepairOrder.getId());
     }
 
     @Test
     void getRepairOrderById_DatabaseException_ThrowsException() {
         String repairOrderId = sampleRepairOrder.getId().toString();
-        when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenThrow(mock(DataAccessException.class));
+        when(repairOrderRepository.findViewById(sampleRepairOrder.getId())).thenThrow(mock(DataAccessException.class));
 
         assertThrows(DatabaseException.class, () ->
                 repairOrderService.getRepairOrderById(repairOrderId, customer)
         );
 
-        verify(repairOrderRepository).findById(sampleRepairOrder.getId());
+        verify(repairOrderRepository).findViewById(sampleRepairOrder.getId());
+    }
+
+    // REPAIR ORDER ETAG TESTS
+    private RepairOrderRepository.RepairOrderVersion version(UUID owner, LocalDateTime updatedAt) {
+        return new RepairOrderRepository.RepairOrderVersion() {
+            @Override
+            public UUID getCustomerId() {
+                return owner;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+
+    @Test
+    void getRepairOrderETag_Owner_ReturnsTagOfUpdateTime() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 6, 5, 10, 15, 30, 123_456_000);
+        when(repairOrderVersions.get(sampleRepairOrder.getId())).thenReturn(Optional.of(version(customerId, updatedAt)));
+
+        Optional<String> etag = repairOrderService.getRepairOrderETag(sampleRepairOrder.getId().toString(), customer);
+
+        assertEquals(Optional.of(ETags.of(updatedAt)), etag);
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void getRepairOrderETag_OtherCustomer_ReturnsEmpty() {
+        when(repairOrderVersions.get(sampleRepairOrder.getId()))
+                .thenReturn(Optional.of(version(UUID.randomUUID(), LocalDateTime.now())));
+
+        assertTrue(repairOrderService.getRepairOrderETag(sampleRepairOrder.getId().toString(), customer).isEmpty());
+    }
+
+    @Test
+    void getRepairOrderETag_MissingOrMalformed_ReturnsEmpty() {
+        when(repairOrderVersions.get(sampleRepairOrder.getId())).thenReturn(Optional.empty());
+
+        assertTrue(repairOrderService.getRepairOrderETag(sampleRepairOrder.getId().toString(), customer).isEmpty());
+        assertTrue(repairOrderService.getRepairOrderETag("not-a-uuid", customer).isEmpty());
+        assertTrue(repairOrderService.getRepairOrderETag(null, customer).isEmpty());
+    }
+
+    @Test
+    void getRepairOrderETag_DatabaseError_ThrowsDatabaseException() {
+        when(repairOrderVersions.get(sampleRepairOrder.getId())).thenThrow(mock(DataAccessException.class));
+
+        assertThrows(DatabaseException.class, () ->
+                repairOrderService.getRepairOrderETag(sampleRepairOrder.getId().toString(), customer));
     }
 
     // UPDATE REPAIR ORDER TESTS
@@ -584,12 +1166,14 @@ class RepairOrderServiceImplTest {
         assertEquals("Repair order updated successfully", response.getMessage());
         assertNotNull(response.getData());
         assertEquals(sampleRepairOrder.getId(), response.getData().getId());
+        verify(repairOrderVersions).evict(sampleRepairOrder.getId());
 
         verify(repairOrderRepository).findById(sampleRepairOrder.getId());
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
         // Should not increment usage count for same coupon
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).redeem(any(), any());
+        verify(couponUsageCounter, never()).release(any());
         verify(repairOrderRepository).save(any(RepairOrder.class));
     }
 
@@ -620,6 +1204,7 @@ class RepairOrderServiceImplTest {
         when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleRepairOrder));
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT20")).thenReturn(Optional.of(newCoupon));
+        when(couponUsageCounter.redeem(eq(newCoupon), any(LocalDate.class))).thenReturn(true);
 
         RepairOrder updatedOrder = RepairOrder.builder()
                 .id(sampleRepairOrder.getId())
@@ -652,10 +1237,9 @@ class RepairOrderServiceImplTest {
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT20");
         // Should increment new coupon and decrement old coupon
-        verify(couponRepository, times(2)).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter).redeem(eq(newCoupon), any(LocalDate.class));
+        verify(couponUsageCounter).release(coupon);
         verify(repairOrderRepository).save(any(RepairOrder.class));
-        assertEquals(2, newCoupon.getUsageCount()); // Incremented
-        assertEquals(1, coupon.getUsageCount()); // Decremented
     }
 
     @Test
@@ -703,9 +1287,8 @@ class RepairOrderServiceImplTest {
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository, never()).findByCode(any());
         // Should decrement old coupon usage
-        verify(couponRepository).saveAndFlush(coupon);
+        verify(couponUsageCounter).release(coupon);
         verify(repairOrderRepository).save(any(RepairOrder.class));
-        assertEquals(1, coupon.getUsageCount()); // Decremented from 2 to 1
     }
 
     @Test
@@ -730,6 +1313,7 @@ class RepairOrderServiceImplTest {
         when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(orderWithoutCoupon));
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
+        when(couponUsageCounter.redeem(eq(coupon), any(LocalDate.class))).thenReturn(true);
 
         RepairOrder updatedOrder = RepairOrder.builder()
                 .id(sampleRepairOrder.getId())
@@ -761,13 +1345,13 @@ class RepairOrderServiceImplTest {
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT10");
         // Should increment new coupon usage
-        verify(couponRepository).saveAndFlush(coupon);
+        verify(couponUsageCounter).redeem(eq(coupon), any(LocalDate.class));
+        verify(couponUsageCounter, never()).release(any());
         verify(repairOrderRepository).save(any(RepairOrder.class));
-        assertEquals(3, coupon.getUsageCount()); // Incremented from 2 to 3
     }
 
     @Test
-    void updateRepairOrder_CouponOptimisticLockingFailure_ThrowsException() {
+    void updateRepairOrder_CouponUsedUpConcurrently_ThrowsException() {
         // Arrange
         String repairOrderId = sampleRepairOrder.getId().toString();
         UUID newCouponId = UUID.randomUUID();
@@ -791,18 +1375,19 @@ class RepairOrderServiceImplTest {
         when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleRepairOrder));
         when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
         when(couponRepository.findByCode("DISCOUNT20")).thenReturn(Optional.of(newCoupon));
-        when(couponRepository.saveAndFlush(newCoupon)).thenThrow(new OptimisticLockingFailureException("Concurrent modification"));
+        when(couponUsageCounter.redeem(eq(newCoupon), any(LocalDate.class))).thenReturn(false);
 
         // Act & Assert
         InvalidRepairOrderStateException exception = assertThrows(InvalidRepairOrderStateException.class, () ->
                 repairOrderService.updateRepairOrder(repairOrderId, updateRequest, customer)
         );
 
-        assertEquals("Coupon usage conflict, please try again", exception.getMessage());
+        assertEquals("Coupon has reached its maximum usage limit", exception.getMessage());
         verify(repairOrderRepository).findById(sampleRepairOrder.getId());
         verify(paymentMethodRepository).findById(paymentMethodId);
         verify(couponRepository).findByCode("DISCOUNT20");
-        verify(couponRepository).saveAndFlush(newCoupon);
+        verify(couponUsageCounter).redeem(eq(newCoupon), any(LocalDate.class));
+        verify(couponUsageCounter, never()).release(any());
         verify(repairOrderRepository, never()).save(any(RepairOrder.class));
     }
 
@@ -977,9 +1562,13 @@ class RepairOrderServiceImplTest {
         assertNull(response.getData());
 
         verify(repairOrderRepository).findById(sampleRepairOrder.getId());
-        verify(couponRepository).saveAndFlush(coupon); // Should decrement usage count
+        verify(couponUsageCounter).release(coupon); // Should decrement usage count
         verify(repairOrderRepository).delete(sampleRepairOrder);
-        assertEquals(1, coupon.getUsageCount()); // Decremented from 2 to 1
+        verify(technicianAssignmentService).release(technicianId);
+        verify(repairOrderVersions).evict(sampleRepairOrder.getId());
+        verify(statusEventRegistry).publish(
+                argThat(event -> StatusChangeEvent.DELETED.equals(event.getStatus())),
+                eq(customerId), eq(technicianId));
     }
 
     @Test
@@ -1012,28 +1601,10 @@ class RepairOrderServiceImplTest {
         assertNull(response.getData());
 
         verify(repairOrderRepository).findById(sampleRepairOrder.getId());
-        verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        verify(couponUsageCounter, never()).release(any());
         verify(repairOrderRepository).delete(orderWithoutCoupon);
     }
 
-    @Test
-    void deleteRepairOrder_CouponOptimisticLockingFailure_ThrowsException() {
-        // Arrange
-        String repairOrderId = sampleRepairOrder.getId().toString();
-        when(repairOrderRepository.findById(sampleRepairOrder.getId())).thenReturn(Optional.of(sampleRepairOrder));
-        when(couponRepository.saveAndFlush(coupon)).thenThrow(new OptimisticLockingFailureException("Concurrent modification"));
-
-        // Act & Assert
-        InvalidRepairOrderStateException exception = assertThrows(InvalidRepairOrderStateException.class, () ->
-                repairOrderService.deleteRepairOrder(repairOrderId, customer)
-        );
-
-        assertEquals("Coupon usage conflict, please try again", exception.getMessage());
-        verify(repairOrderRepository).findById(sampleRepairOrder.getId());
-        verify(couponRepository).saveAndFlush(coupon);
-        verify(repairOrderRepository, never()).delete(any(RepairOrder.class));
-    }
-
     @Test
     void deleteRepairOrder_NullId_ThrowsException() {
         // Act & Assert
@@ -1136,7 +1707,7 @@ class RepairOrderServiceImplTest {
                 repairOrderService.deleteRepairOrder(repairOrderId, customer)
         );
         verify(repairOrderRepository).findById(sampleRepairOrder.getId());
-        verify(couponRepository).saveAndFlush(coupon);
+        verify(couponUsageCounter).release(coupon);
         verify(repairOrderRepository).delete(sampleRepairOrder);
     }
 
@@ -1156,6 +1727,9 @@ class RepairOrderServiceImplTest {
     @Test
     void createRepairOrder_InvalidTechnicianId_ThrowsException() {
         // Arrange
+        // Lookups run concurrently and the failing one cancels the others
+        lenient().when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
+        lenient().when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
         UserIdentity invalidTechnicianIdentity = UserIdentity.newBuilder()
                 .setId("invalid-uuid") // Invalid UUID format
                 .build();
@@ -1167,8 +1741,6 @@ class RepairOrderServiceImplTest {
                 .build();
 
         when(userServiceGrpcClient.getRandomTechnician()).thenReturn(invalidResponse);
-        when(paymentMethodRepository.findById(paymentMethodId)).thenReturn(Optional.of(paymentMethod));
-        when(couponRepository.findByCode("DISCOUNT10")).thenReturn(Optional.of(coupon));
 
         // Act & Assert
         InvalidRepairOrderStateException exception = assertThrows(InvalidRepairOrderStateException.class, () ->
@@ -1177,16 +1749,15 @@ class RepairOrderServiceImplTest {
 
         assertEquals("Invalid technician ID or malformed data", exception.getMessage());
         verify(userServiceGrpcClient).getRandomTechnician();
-        verify(paymentMethodRepository).findById(paymentMethodId);
-        verify(couponRepository).findByCode("DISCOUNT10");
-        verify(couponRepository).saveAndFlush(coupon);
-        verify(repairOrderRepository, never()).save(any(RepairOrder.class));
+        // The technician is resolved before the transaction starts, so nothing is written
+        verifyNoInteractions(transactionManager, repairOrderRepository);
+        verify(couponUsageCounter, never()).redeem(any(), any());
     }
 
     @Test
     void getViewRepairOrderResponse_NullPaymentMethod_HandlesGracefully() {
         // Arrange
-        RepairOrder orderWithoutPaymentMethod = RepairOrder.builder()
+        ViewRepairOrderResponse orderWithoutPaymentMethod = ViewRepairOrderResponse.builder()
                 .id(UUID.randomUUID())
                 .customerId(customerId)
                 .technicianId(technicianId)
@@ -1195,16 +1766,16 @@ class RepairOrderServiceImplTest {
                 .itemCondition("Screen not working")
                 .issueDescription("Black screen after startup")
                 .desiredServiceDate(LocalDate.now().plusDays(2))
-                .paymentMethod(null)
-                .coupon(null)
+                .paymentMethodId(null)
+                .couponId(null)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(repairOrderRepository.findByCustomerId(customerId)).thenReturn(List.of(orderWithoutPaymentMethod));
+        when(repairOrderPager.byCustomer(customerId, null, null, null)).thenReturn(Window.from(List.of(orderWithoutPaymentMethod), ScrollPosition::offset));
 
         // Act
-        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer);
+        GenericResponse<List<ViewRepairOrderResponse>> response = repairOrderService.getRepairOrders(customer, null, null, null);
 
         // Assert
         assertTrue(response.isSuccess());
@@ -1213,7 +1784,7 @@ class RepairOrderServiceImplTest {
         ViewRepairOrderResponse responseData = response.getData().getFirst();
         assertNull(responseData.getPaymentMethodId());
         assertNull(responseData.getCouponId());
-        verify(repairOrderRepository).findByCustomerId(customerId);
+        verify(repairOrderPager).byCustomer(customerId, null, null, null);
     }
 
     @Test
@@ -1264,8 +1835,8 @@ class RepairOrderServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Repair order updated successfully", response.getMessage());
 
-        // Verify coupon usage count remains at 0 (Math.max(0, 0-1) = 0)
-        verify(couponRepository).saveAndFlush(zeroUsageCoupon);
+        // The guarded release matches no row at zero usage, so the count stays at 0
+        verify(couponUsageCounter).release(zeroUsageCoupon);
         assertEquals(0, zeroUsageCoupon.getUsageCount());
     }
 
@@ -1306,9 +1877,77 @@ class RepairOrderServiceImplTest {
         assertTrue(response.isSuccess());
         assertEquals("Repair order deleted successfully", response.getMessage());
 
-        // Verify coupon usage count remains at 0 (Math.max(0, 0-1) = 0)
-        verify(couponRepository).saveAndFlush(zeroUsageCoupon);
+        // The guarded release matches no row at zero usage, so the count stays at 0
+        verify(couponUsageCounter).release(zeroUsageCoupon);
         assertEquals(0, zeroUsageCoupon.getUsageCount());
         verify(repairOrderRepository).delete(orderWithZeroUsageCoupon);
     }
-}
\ No newline at end of file
+
+    // CLAIM REPAIR ORDER TESTS
+    @Test
+    void claimNextRepairOrder_Success() {
+        // Arrange
+        sampleRepairOrder.setTechnicianId(null);
+        when(repairOrderRepository.findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION))
+                .thenReturn(Optional.of(sampleRepairOrder));
+        when(repairOrderRepository.assignTechnician(eq(sampleRepairOrder.getId()), eq(customerId), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        // Act
+        GenericResponse<ViewRepairOrderResponse> response = repairOrderService.claimNextRepairOrder(customer);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        assertEquals("Repair order claimed successfully", response.getMessage());
+        assertEquals(customerId, response.getData().getTechnicianId());
+        assertNotNull(response.getData().getUpdatedAt());
+        verify(repairOrderRepository, never()).save(any());
+        verify(repairOrderVersions).evict(sampleRepairOrder.getId());
+
+        ArgumentCaptor<StatusChangeEvent> event = ArgumentCaptor.forClass(StatusChangeEvent.class);
+        verify(statusEventRegistry).publish(event.capture(), eq(sampleRepairOrder.getCustomerId()), eq(customerId));
+        assertEquals(StatusChangeEvent.ResourceType.REPAIR_ORDER, event.getValue().getResourceType());
+        assertEquals(sampleRepairOrder.getId(), event.getValue().getResourceId());
+        assertEquals("PENDING_CONFIRMATION", event.getValue().getStatus());
+    }
+
+    @Test
+    void claimNextRepairOrder_EmptyPool_ThrowsNotFound() {
+        // Arrange
+        when(repairOrderRepository.findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> repairOrderService.claimNextRepairOrder(customer));
+        verify(repairOrderRepository, never()).assignTechnician(any(), any(), any());
+    }
+
+    @Test
+    void claimNextRepairOrder_AlreadyClaimed_ThrowsException() {
+        // Arrange
+        sampleRepairOrder.setTechnicianId(null);
+        when(repairOrderRepository.findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION))
+                .thenReturn(Optional.of(sampleRepairOrder));
+        when(repairOrderRepository.assignTechnician(eq(sampleRepairOrder.getId()), eq(customerId), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidRepairOrderStateException.class, () -> repairOrderService.claimNextRepairOrder(customer));
+    }
+
+    @Test
+    void claimNextRepairOrder_NullTechnician_ThrowsException() {
+        assertThrows(InvalidRepairOrderStateException.class, () -> repairOrderService.claimNextRepairOrder(null));
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void claimNextRepairOrder_DatabaseError_ThrowsDatabaseException() {
+        // Arrange
+        when(repairOrderRepository.findFirstByTechnicianIdIsNullAndStatusOrderByCreatedAtAsc(RepairOrderStatus.PENDING_CONFIRMATION))
+                .thenThrow(mock(DataAccessException.class));
+
+        // Act & Assert
+        assertThrows(DatabaseException.class, () -> repairOrderService.claimNextRepairOrder(customer));
+    }
+}
@@ -0,0 +1,139 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.LeastLoadedAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.PowerOfTwoChoicesAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.RandomAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.TechnicianAssignmentStrategy;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TechnicianAssignmentServiceTest {
+
+    private static final List<TechnicianAssignmentStrategy> STRATEGIES = List.of(
+            new RandomAssignmentStrategy(),
+            new LeastLoadedAssignmentStrategy(),
+            new PowerOfTwoChoicesAssignmentStrategy());
+
+    private TechnicianRoster roster;
+    private RepairOrderRepository repairOrderRepository;
+    private final UUID busy = UUID.randomUUID();
+    private final UUID idle = UUID.randomUUID();
+    private List<UserData> technicians;
+
+    @BeforeEach
+    void setUp() {
+        roster = mock(TechnicianRoster.class);
+        repairOrderRepository = mock(RepairOrderRepository.class);
+        technicians = List.of(technician(busy), technician(idle));
+        when(roster.technicians()).thenReturn(technicians);
+        when(repairOrderRepository.countByTechnicianAndStatusIn(TechnicianAssignmentService.OPEN_STATUSES))
+                .thenReturn(List.of(orderCount(busy, 5)));
+    }
+
+    private static UserData technician(UUID id) {
+        return UserData.newBuilder().setIdentity(UserIdentity.newBuilder().setId(id.toString())).build();
+    }
+
+    private static RepairOrderRepository.TechnicianOrderCount orderCount(UUID technicianId, long count) {
+        return new RepairOrderRepository.TechnicianOrderCount() {
+            @Override
+            public UUID getTechnicianId() {
+                return technicianId;
+            }
+
+            @Override
+            public long getOrderCount() {
+                return count;
+            }
+        };
+    }
+
+    private TechnicianAssignmentService service(String strategy) {
+        return new TechnicianAssignmentService(roster, repairOrderRepository, STRATEGIES, strategy, "push");
+    }
+
+    @Test
+    void leastLoaded_shouldFillIdleTechnicianFirst_andCountAssignments() {
+        TechnicianAssignmentService service = service(LeastLoadedAssignmentStrategy.NAME);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(idle), service.assign());
+        }
+        assertEquals(5, service.loads().load(idle));
+        verify(repairOrderRepository, times(1)).countByTechnicianAndStatusIn(any());
+    }
+
+    @Test
+    void powerOfTwo_shouldPreferLessLoadedOfTwoTechnicians() {
+        TechnicianAssignmentService service = service(PowerOfTwoChoicesAssignmentStrategy.NAME);
+
+        // With only two technicians both are always sampled
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(idle), service.assign());
+        }
+    }
+
+    @Test
+    void random_shouldPickFromRoster() {
+        TechnicianAssignmentService service = service(RandomAssignmentStrategy.NAME);
+
+        UUID assigned = service.assign().orElseThrow();
+        assertTrue(assigned.equals(busy) || assigned.equals(idle));
+    }
+
+    @Test
+    void release_shouldFreeCapacity() {
+        TechnicianAssignmentService service = service(LeastLoadedAssignmentStrategy.NAME);
+        service.assign();
+
+        service.release(idle);
+
+        assertEquals(0, service.loads().load(idle));
+    }
+
+    @Test
+    void assign_shouldReseedCounts_whenRosterChanges() {
+        TechnicianAssignmentService service = service(LeastLoadedAssignmentStrategy.NAME);
+        service.assign();
+
+        UUID newcomer = UUID.randomUUID();
+        when(roster.technicians()).thenReturn(List.of(technician(busy), technician(newcomer)));
+
+        assertEquals(Optional.of(newcomer), service.assign());
+        assertEquals(0, service.loads().load(idle));
+        verify(repairOrderRepository, times(2)).countByTechnicianAndStatusIn(any());
+    }
+
+    @Test
+    void assign_shouldBeEmpty_whenRosterIsEmpty() {
+        when(roster.technicians()).thenReturn(List.of());
+
+        assertTrue(service(LeastLoadedAssignmentStrategy.NAME).assign().isEmpty());
+        verifyNoInteractions(repairOrderRepository);
+    }
+
+    @Test
+    void constructor_shouldRejectUnknownStrategy() {
+        assertThrows(IllegalStateException.class, () -> service("round-robin"));
+    }
+
+    @Test
+    void constructor_shouldParseAssignmentMode() {
+        assertFalse(service(RandomAssignmentStrategy.NAME).isPullMode());
+        assertTrue(new TechnicianAssignmentService(roster, repairOrderRepository, STRATEGIES,
+                RandomAssignmentStrategy.NAME, "pull").isPullMode());
+        assertThrows(IllegalStateException.class, () -> new TechnicianAssignmentService(
+                roster, repairOrderRepository, STRATEGIES, RandomAssignmentStrategy.NAME, "broadcast"));
+    }
+}
@@ -0,0 +1,162 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.messaging.RepairEventPublisher;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.strategy.LeastLoadedAssignmentStrategy;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.service.TechnicianReportAuditLogger;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.service.TechnicianReportServiceImpl;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.service.TechnicianReportVersions;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Walks an order through its technician report against the real repositories and checks
+ * that the load seeded on the next roster refresh agrees with what the technician holds.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TechnicianLoadReseedTest {
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private TechnicianReportRepository technicianReportRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UUID technicianId = UUID.randomUUID();
+    private TechnicianRoster roster;
+    private TechnicianAssignmentService technicianAssignmentService;
+    private TechnicianReportServiceImpl technicianReportService;
+    private AuthenticatedUser technician;
+    private RepairOrder repairOrder;
+    private TechnicianReport technicianReport;
+
+    @BeforeEach
+    void setUp() {
+        roster = mock(TechnicianRoster.class);
+        refreshRoster();
+        technicianAssignmentService = new TechnicianAssignmentService(roster, repairOrderRepository,
+                List.of(new LeastLoadedAssignmentStrategy()), LeastLoadedAssignmentStrategy.NAME, "push");
+        technicianReportService = new TechnicianReportServiceImpl(
+                technicianReportRepository,
+                repairOrderRepository,
+                mock(RepairEventPublisher.class),
+                mock(TechnicianReportAuditLogger.class),
+                technicianAssignmentService,
+                mock(RepairOrderPager.class),
+                mock(TechnicianReportVersions.class),
+                mock(RepairOrderVersions.class),
+                mock(StatusEventRegistry.class),
+                transactionManager
+        );
+        technician = new AuthenticatedUser(technicianId, "technician@example.com", "Technician",
+                UserRole.TECHNICIAN, "1234567890", Instant.now(), Instant.now(), "Depok", null, 0, 0L);
+
+        PaymentMethod paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        repairOrder = repairOrderRepository.save(RepairOrder.builder()
+                .customerId(UUID.randomUUID())
+                .technicianId(technicianId)
+                .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                .itemName("Laptop")
+                .itemCondition("Screen not working")
+                .issueDescription("Black screen after startup")
+                .desiredServiceDate(LocalDate.now().plusDays(2))
+                .paymentMethod(paymentMethod)
+                .build());
+        TechnicianReport report = TechnicianReport.builder()
+                .reportId(UUID.randomUUID())
+                .repairOrder(repairOrder)
+                .technicianId(technicianId)
+                .diagnosis("Broken screen")
+                .actionPlan("Replace the screen")
+                .estimatedCost(100L)
+                .estimatedTimeSeconds(3600L)
+                .build();
+        report.submit();
+        report.approve();
+        technicianReport = technicianReportRepository.save(report);
+    }
+
+    @AfterEach
+    void tearDown() {
+        technicianReportRepository.deleteAll();
+        repairOrderRepository.deleteAll();
+        paymentMethodRepository.deleteAll();
+    }
+
+    // The roster hands out a new list on every refresh, which is what makes the loads reseed
+    private void refreshRoster() {
+        UserData technicianData = UserData.newBuilder()
+                .setIdentity(UserIdentity.newBuilder().setId(technicianId.toString()))
+                .build();
+        when(roster.technicians()).thenReturn(List.of(technicianData));
+    }
+
+    private long loadAfterNextAssignment() {
+        assertEquals(Optional.of(technicianId), technicianAssignmentService.assign());
+        return technicianAssignmentService.loads().load(technicianId);
+    }
+
+    @Test
+    void completedOrder_shouldStayReleased_afterRosterRefresh() {
+        String reportId = technicianReport.getReportId().toString();
+
+        assertTrue(technicianReportService.startWork(reportId, technician).isSuccess());
+        assertEquals(RepairOrderStatus.IN_PROGRESS,
+                repairOrderRepository.findById(repairOrder.getId()).orElseThrow().getStatus());
+        refreshRoster();
+        // The order being worked on, plus the new assignment
+        assertEquals(2, loadAfterNextAssignment());
+
+        assertTrue(technicianReportService.completeWork(reportId, technician).isSuccess());
+        assertEquals(RepairOrderStatus.COMPLETED,
+                repairOrderRepository.findById(repairOrder.getId()).orElseThrow().getStatus());
+        assertEquals(1, technicianAssignmentService.loads().load(technicianId));
+        refreshRoster();
+        // Reseeded from the database, the completed order is no longer counted
+        assertEquals(1, loadAfterNextAssignment());
+    }
+}
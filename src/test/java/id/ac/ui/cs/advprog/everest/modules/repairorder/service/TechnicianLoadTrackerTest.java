@@ -0,0 +1,109 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechnicianLoadTrackerTest {
+
+    private final UUID busy = UUID.randomUUID();
+    private final UUID idle = UUID.randomUUID();
+    private TechnicianLoadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new TechnicianLoadTracker();
+        tracker.reset(List.of(busy, idle), Map.of(busy, 3L));
+    }
+
+    @Test
+    void reset_shouldSeedCounts_andDefaultMissingTechniciansToZero() {
+        assertEquals(3, tracker.load(busy));
+        assertEquals(0, tracker.load(idle));
+        assertEquals(Optional.of(idle), tracker.leastLoaded());
+    }
+
+    @Test
+    void leastLoaded_shouldFollowIncrementsAndDecrements() {
+        for (int i = 0; i < 4; i++) {
+            tracker.increment(idle);
+        }
+        assertEquals(Optional.of(busy), tracker.leastLoaded());
+
+        tracker.decrement(idle);
+        tracker.decrement(idle);
+        assertEquals(Optional.of(idle), tracker.leastLoaded());
+    }
+
+    @Test
+    void decrement_shouldNotGoBelowZero() {
+        tracker.decrement(idle);
+
+        assertEquals(0, tracker.load(idle));
+    }
+
+    @Test
+    void untrackedTechnicians_shouldBeIgnored() {
+        UUID outsider = UUID.randomUUID();
+
+        tracker.increment(outsider);
+
+        assertEquals(0, tracker.load(outsider));
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void reset_shouldDropTechniciansNoLongerOnTheRoster() {
+        tracker.reset(List.of(busy), Map.of(busy, 1L));
+
+        assertEquals(1, tracker.size());
+        assertEquals(Optional.of(busy), tracker.leastLoaded());
+        assertEquals(0, tracker.load(idle));
+    }
+
+    @Test
+    void concurrentUpdates_shouldKeepCountsExact() throws Exception {
+        List<UUID> technicians = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            technicians.add(UUID.randomUUID());
+        }
+        tracker.reset(technicians, Map.of());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        UUID technician = technicians.get(i % technicians.size());
+                        tracker.increment(technician);
+                        if (i % 2 == 0) {
+                            tracker.decrement(technician);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int total = technicians.stream().mapToInt(tracker::load).sum();
+        assertEquals(8 * 500, total);
+        UUID least = tracker.leastLoaded().orElseThrow();
+        int min = technicians.stream().mapToInt(tracker::load).min().orElseThrow();
+        assertEquals(min, tracker.load(least));
+    }
+}
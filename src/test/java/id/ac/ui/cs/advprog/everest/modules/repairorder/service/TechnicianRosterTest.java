@@ -0,0 +1,130 @@
+package id.ac.ui.cs.advprog.everest.modules.repairorder.service;
+
+import id.ac.ui.cs.advprog.everest.common.service.UserServiceGrpcClient;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.ListUsersResponse;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserData;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserIdentity;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TechnicianRosterTest {
+
+    private UserServiceGrpcClient userServiceGrpcClient;
+    private MutableClock clock;
+    private TechnicianRoster roster;
+
+    @BeforeEach
+    void setUp() {
+        userServiceGrpcClient = mock(UserServiceGrpcClient.class);
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        roster = new TechnicianRoster(userServiceGrpcClient, false, 2,
+                Duration.ofMinutes(1), 0.2, Duration.ofMinutes(5), clock);
+    }
+
+    private static UserData technician() {
+        return UserData.newBuilder()
+                .setIdentity(UserIdentity.newBuilder()
+                        .setId(UUID.randomUUID().toString())
+                        .setRole(UserRole.TECHNICIAN))
+                .build();
+    }
+
+    private static ListUsersResponse page(int totalPages, UserData... users) {
+        return ListUsersResponse.newBuilder()
+                .addAllUsers(List.of(users))
+                .setTotalPages(totalPages)
+                .build();
+    }
+
+    @Test
+    void pick_shouldBeEmpty_beforeFirstRefresh() {
+        assertTrue(roster.pick().isEmpty());
+        verifyNoInteractions(userServiceGrpcClient);
+    }
+
+    @Test
+    void refresh_shouldLoadEveryPage() {
+        UserData first = technician();
+        UserData second = technician();
+        UserData third = technician();
+        when(userServiceGrpcClient.listUsersByRole(0, 2, UserRole.TECHNICIAN)).thenReturn(page(2, first, second));
+        when(userServiceGrpcClient.listUsersByRole(1, 2, UserRole.TECHNICIAN)).thenReturn(page(2, third));
+
+        roster.refresh();
+
+        assertEquals(List.of(first, second, third), roster.technicians());
+        assertTrue(roster.technicians().contains(roster.pick().orElseThrow()));
+        verify(userServiceGrpcClient, times(2)).listUsersByRole(anyInt(), eq(2), eq(UserRole.TECHNICIAN));
+    }
+
+    @Test
+    void refresh_shouldKeepPreviousRoster_whenAPageFails() {
+        UserData technician = technician();
+        when(userServiceGrpcClient.listUsersByRole(0, 2, UserRole.TECHNICIAN)).thenReturn(page(1, technician));
+        roster.refresh();
+
+        when(userServiceGrpcClient.listUsersByRole(0, 2, UserRole.TECHNICIAN))
+                .thenThrow(new RuntimeException("Failed to list users by role"));
+
+        assertThrows(RuntimeException.class, roster::refresh);
+        assertEquals(List.of(technician), roster.technicians());
+    }
+
+    @Test
+    void pick_shouldBeEmpty_whenRosterIsStale() {
+        when(userServiceGrpcClient.listUsersByRole(0, 2, UserRole.TECHNICIAN)).thenReturn(page(1, technician()));
+        roster.refresh();
+
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(roster.pick().isPresent());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(roster.pick().isEmpty());
+    }
+
+    @Test
+    void nextDelay_shouldStayWithinJitter() {
+        for (int i = 0; i < 100; i++) {
+            long delay = roster.nextDelay().toMillis();
+            assertTrue(delay >= 48_000 && delay <= 72_000, "delay: " + delay);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package id.ac.ui.cs.advprog.everest.modules.statusevent.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.authentication.CurrentUser;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.controller.StatusEventController;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class StatusEventRegistryTest {
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private StatusEventRegistry registry;
+    private MockMvc mockMvc;
+    private AuthenticatedUser currentUser;
+
+    private void setUp(int replaySize, int maxPending, Duration replayTtl) {
+        // No background sweep, the tests run it themselves
+        registry = new StatusEventRegistry(replaySize, maxPending, Duration.ofMinutes(1), Duration.ZERO, replayTtl);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StatusEventController(registry))
+                .setCustomArgumentResolvers(new HandlerMethodArgumentResolver() {
+                    @Override
+                    public boolean supportsParameter(MethodParameter parameter) {
+                        return parameter.hasParameterAnnotation(CurrentUser.class);
+                    }
+
+                    @Override
+                    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+                        return currentUser;
+                    }
+                })
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        registry.stop();
+    }
+
+    private static AuthenticatedUser user(UserRole role) {
+        return new AuthenticatedUser(UUID.randomUUID(), "user@example.com", "User", role, "12301894239",
+                Instant.now(), Instant.now(), "Depok", null, 0, 0L);
+    }
+
+    private static StatusChangeEvent event(String status) {
+        UUID repairOrderId = UUID.randomUUID();
+        return StatusChangeEvent.builder()
+                .resourceType(StatusChangeEvent.ResourceType.REPAIR_ORDER)
+                .resourceId(repairOrderId)
+                .repairOrderId(repairOrderId)
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private MvcResult connect(AuthenticatedUser user, String lastEventId) throws Exception {
+        currentUser = user;
+        var builder = get("/api/v1/status-events");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // Events are written from another thread, so the stream is polled until it shows up
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content;
+        while (!(content = result.getResponse().getContentAsString()).contains(expected)) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + expected + " in: " + content);
+            }
+            Thread.sleep(10);
+        }
+        return content;
+    }
+
+    private static String lastEventId(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        String id = null;
+        while (matcher.find()) {
+            id = matcher.group(1);
+        }
+        return id;
+    }
+
+    @Test
+    void publish_shouldReachOnlyTheRecipientsConnections() throws Exception {
+        setUp(10, 10, Duration.ofMinutes(5));
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        AuthenticatedUser technician = user(UserRole.TECHNICIAN);
+        MvcResult customerStream = connect(customer, null);
+        MvcResult technicianStream = connect(technician, null);
+
+        registry.publish(event("PENDING_CONFIRMATION"), customer.id());
+        registry.publish(event("IN_PROGRESS"), customer.id(), technician.id(), null, technician.id());
+
+        String customerContent = awaitContent(customerStream, "IN_PROGRESS");
+        String technicianContent = awaitContent(technicianStream, "IN_PROGRESS");
+        assertTrue(customerContent.contains("\"status\":\"PENDING_CONFIRMATION\""));
+        assertTrue(customerContent.contains("\"resourceType\":\"REPAIR_ORDER\""));
+        assertFalse(technicianContent.contains("PENDING_CONFIRMATION"));
+        assertEquals(1, technicianContent.split("IN_PROGRESS", -1).length - 1);
+    }
+
+    @Test
+    void subscribe_withLastEventId_shouldReplayOnlyMissedEvents() throws Exception {
+        setUp(10, 10, Duration.ofMinutes(5));
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        MvcResult first = connect(customer, null);
+        registry.publish(event("SUBMITTED"), customer.id());
+        String lastId = lastEventId(awaitContent(first, "SUBMITTED"));
+
+        registry.publish(event("APPROVED"), customer.id());
+        registry.publish(event("IN_PROGRESS"), customer.id());
+        MvcResult resumed = connect(customer, lastId);
+
+        String content = awaitContent(resumed, "IN_PROGRESS");
+        assertFalse(content.contains("SUBMITTED"));
+        assertTrue(content.indexOf("APPROVED") < content.indexOf("IN_PROGRESS"));
+        assertFalse(content.contains("resync"));
+    }
+
+    @Test
+    void subscribe_withLastEventIdNoLongerKept_shouldAskForResync() throws Exception {
+        setUp(2, 10, Duration.ofMinutes(5));
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        MvcResult first = connect(customer, null);
+        registry.publish(event("SUBMITTED"), customer.id());
+        String lastId = lastEventId(awaitContent(first, "SUBMITTED"));
+        for (int i = 0; i < 3; i++) {
+            registry.publish(event("APPROVED"), customer.id());
+        }
+
+        String content = awaitContent(connect(customer, lastId), "event:resync");
+
+        assertFalse(content.contains("APPROVED"));
+        assertTrue(Long.parseLong(lastEventId(content)) > Long.parseLong(lastId));
+        assertTrue(awaitContent(connect(customer, "not-an-id"), "event:resync").contains("event:resync"));
+    }
+
+    @Test
+    void publish_toConnectionTooFarBehind_shouldCloseIt() throws Exception {
+        setUp(10, 0, Duration.ofMinutes(5));
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        connect(customer, null);
+        assertEquals(1, registry.subscriberCount(customer.id()));
+
+        registry.publish(event("SUBMITTED"), customer.id());
+
+        assertEquals(0, registry.subscriberCount(customer.id()));
+    }
+
+    @Test
+    void publish_insideTransaction_shouldWaitForCommit() throws Exception {
+        setUp(10, 10, Duration.ofMinutes(5));
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        MvcResult stream = connect(customer, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.publish(event("SUBMITTED"), customer.id());
+        registry.publish(event("REJECTED"), customer.id());
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(stream.getResponse().getContentAsString().contains("SUBMITTED"));
+        synchronizations.getFirst().afterCommit();
+        awaitContent(stream, "SUBMITTED");
+        // The second change was rolled back, only completion is signalled
+        synchronizations.getLast().afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertFalse(stream.getResponse().getContentAsString().contains("REJECTED"));
+    }
+
+    @Test
+    void sweep_shouldSendHeartbeatsAndForgetDisconnectedUsers() throws Exception {
+        setUp(10, 10, Duration.ZERO);
+        AuthenticatedUser customer = user(UserRole.CUSTOMER);
+        AuthenticatedUser technician = user(UserRole.TECHNICIAN);
+        MvcResult stream = connect(customer, null);
+        registry.publish(event("SUBMITTED"), customer.id(), technician.id());
+        String lastId = lastEventId(awaitContent(stream, "SUBMITTED"));
+
+        registry.sweep();
+
+        awaitContent(stream, ":heartbeat");
+        assertEquals(1, registry.subscriberCount(customer.id()));
+        // The technician was not connected, so their events are gone and a resume has to resync
+        assertTrue(awaitContent(connect(technician, lastId), "event:resync").contains("event:resync"));
+    }
+}
@@ -2,6 +2,7 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.controller;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.CreateTechnicianReportDraftRequest;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.TechnicianReportDraftResponse;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.service.TechnicianReportService;
@@ -12,8 +13,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -225,7 +228,7 @@ class TechnicianReportControllerTest {
 
         when(technicianReportService.getTechnicianReportById(reportId, technician)).thenReturn(response);
 
-        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, technician);
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, null, technician);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
@@ -238,7 +241,7 @@ class TechnicianReportControllerTest {
 
         when(technicianReportService.getTechnicianReportById(reportId, technician)).thenReturn(response);
 
-        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, technician);
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, null, technician);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
@@ -251,9 +254,54 @@ class TechnicianReportControllerTest {
 
         when(technicianReportService.getTechnicianReportById(reportId, customer)).thenReturn(response);
 
-        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, customer);
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, null, customer);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(response, result.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTechnicianReportById_ShouldTagResponseWithLastUpdate() {
+        String reportId = draftResponse.getReportId().toString();
+        LocalDateTime lastUpdatedAt = LocalDateTime.now();
+        draftResponse.setLastUpdatedAt(lastUpdatedAt);
+        GenericResponse<TechnicianReportDraftResponse> response = new GenericResponse<>(true, "OK", draftResponse);
+
+        when(technicianReportService.getTechnicianReportById(reportId, technician)).thenReturn(response);
+
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, null, technician);
+
+        assertEquals(ETags.of(lastUpdatedAt), result.getHeaders().getETag());
+        verify(technicianReportService, never()).getTechnicianReportETag(any(), any());
+    }
+
+    @Test
+    void getTechnicianReportById_WithCurrentETag_ShouldReturnNotModified() {
+        String reportId = draftResponse.getReportId().toString();
+        String etag = ETags.of(LocalDateTime.now());
+
+        when(technicianReportService.getTechnicianReportETag(reportId, technician)).thenReturn(Optional.of(etag));
+
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, etag, technician);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertEquals(etag, result.getHeaders().getETag());
+        assertNull(result.getBody());
+        verify(technicianReportService, never()).getTechnicianReportById(any(), any());
+    }
+
+    @Test
+    void getTechnicianReportById_WithETagNotReadable_ShouldFallThroughToRead() {
+        String reportId = draftResponse.getReportId().toString();
+        GenericResponse<TechnicianReportDraftResponse> response = new GenericResponse<>(false, "Unauthorized", null);
+
+        when(technicianReportService.getTechnicianReportETag(reportId, customer)).thenReturn(Optional.empty());
+        when(technicianReportService.getTechnicianReportById(reportId, customer)).thenReturn(response);
+
+        ResponseEntity<?> result = controller.getTechnicianReportById(reportId, "*", customer);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(response, result.getBody());
+        assertNull(result.getHeaders().getETag());
+    }
+}
@@ -7,6 +7,7 @@ import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderSt
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -110,6 +111,16 @@ class TechnicianReportTest {
         assertNotNull(technicianReport1.getReportId());
     }
 
+    @Test
+    void testOnUpdateBumpsLastUpdatedAt() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(1);
+        technicianReport.setLastUpdatedAt(before);
+
+        technicianReport.onUpdate();
+
+        assertTrue(technicianReport.getLastUpdatedAt().isAfter(before));
+    }
+
     @Test
     void testInitializeStateWithNullStatus() {
         TechnicianReport technicianReport1 = new TechnicianReport();
@@ -2,16 +2,23 @@ package id.ac.ui.cs.advprog.everest.modules.technicianreport.service;
 
 import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
 import id.ac.ui.cs.advprog.everest.common.dto.GenericResponse;
+import id.ac.ui.cs.advprog.everest.common.utils.ETags;
 import id.ac.ui.cs.advprog.everest.messaging.RepairEventPublisher;
 import id.ac.ui.cs.advprog.everest.messaging.events.RepairOrderCompletedEvent;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.*;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
 import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderPager;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderVersions;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianAssignmentService;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.CreateTechnicianReportDraftRequest;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.dto.TechnicianReportDraftResponse;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.exception.InvalidTechnicianReportStateException;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
 import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository.TechnicianReportVersion;
 import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -44,6 +52,24 @@ class TechnicianReportServiceImplTest {
     @Mock
     private RepairEventPublisher repairEventPublisher;
 
+    @Mock
+    private TechnicianAssignmentService technicianAssignmentService;
+
+    @Mock
+    private RepairOrderPager repairOrderPager;
+
+    @Mock
+    private TechnicianReportVersions technicianReportVersions;
+
+    @Mock
+    private RepairOrderVersions repairOrderVersions;
+
+    @Mock
+    private StatusEventRegistry statusEventRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TechnicianReportServiceImpl technicianReportService;
 
@@ -139,6 +165,9 @@ class TechnicianReportServiceImplTest {
         assertEquals(technicianId, response.getData().getTechnicianId());
         assertEquals("Test diagnosis", response.getData().getDiagnosis());
         assertEquals("Test action plan", response.getData().getActionPlan());
+        // Drafts are not announced to the customer
+        verify(statusEventRegistry).publish(
+                argThat(event -> "DRAFT".equals(event.getStatus())), eq(technicianId), isNull());
 
         verify(repairOrderRepository).findById(repairOrderId);
         verify(technicianReportRepository).save(any(TechnicianReport.class));
@@ -343,6 +372,7 @@ class TechnicianReportServiceImplTest {
 
         verify(technicianReportRepository).findByReportId(reportId);
         verify(technicianReportRepository).save(mockTechnicianReport);
+        verify(technicianReportVersions).evict(reportId);
     }
 
     @Test
@@ -595,6 +625,11 @@ class TechnicianReportServiceImplTest {
 
         verify(technicianReportRepository).findByReportId(reportId);
         verify(technicianReportRepository).save(mockTechnicianReport);
+        verify(statusEventRegistry).publish(
+                argThat(event -> event.getResourceType() == StatusChangeEvent.ResourceType.TECHNICIAN_REPORT
+                        && reportId.equals(event.getResourceId())
+                        && "SUBMITTED".equals(event.getStatus())),
+                eq(technicianId), eq(customerId));
     }
 
     @Test
@@ -877,7 +912,14 @@ class TechnicianReportServiceImplTest {
         assertNotNull(response.getData());
         assertEquals("IN_PROGRESS", mockRepairOrder.getStatus().name());
         verify(technicianReportRepository).findByReportId(reportId);
+        verify(repairOrderRepository).save(mockRepairOrder);
         verify(technicianReportRepository).save(mockTechnicianReport);
+        verify(repairOrderVersions).evict(repairOrderId);
+        verify(statusEventRegistry).publish(
+                argThat(event -> event.getResourceType() == StatusChangeEvent.ResourceType.REPAIR_ORDER
+                        && repairOrderId.equals(event.getResourceId())
+                        && "IN_PROGRESS".equals(event.getStatus())),
+                eq(customerId), eq(technicianId));
     }
 
     @Test
@@ -965,8 +1007,12 @@ class TechnicianReportServiceImplTest {
         assertTrue(response.isSuccess());
         assertNotNull(response.getData());
         assertEquals("COMPLETED", mockTechnicianReport.getStatus()); // Status before complete
+        assertEquals(RepairOrderStatus.COMPLETED, mockRepairOrder.getStatus());
         verify(technicianReportRepository).findByReportId(reportId);
+        verify(repairOrderRepository).save(mockRepairOrder);
         verify(technicianReportRepository).save(mockTechnicianReport);
+        verify(repairOrderVersions).evict(repairOrderId);
+        verify(technicianAssignmentService).release(mockRepairOrder.getTechnicianId());
     }
 
     @Test
@@ -1184,4 +1230,69 @@ class TechnicianReportServiceImplTest {
         verify(technicianReportRepository).findByReportId(reportId);
     }
 
-}
\ No newline at end of file
+    private static TechnicianReportVersion version(UUID technicianId, String status, LocalDateTime lastUpdatedAt) {
+        return new TechnicianReportVersion() {
+            @Override
+            public UUID getTechnicianId() {
+                return technicianId;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdatedAt() {
+                return lastUpdatedAt;
+            }
+        };
+    }
+
+    @Test
+    void getTechnicianReportETag_Technician_ShouldReturnTagOfLastUpdate() {
+        LocalDateTime lastUpdatedAt = LocalDateTime.now();
+        when(technicianReportVersions.get(reportId))
+                .thenReturn(Optional.of(version(technicianId, "DRAFT", lastUpdatedAt)));
+
+        Optional<String> etag = technicianReportService.getTechnicianReportETag(reportId.toString(), technician);
+
+        assertEquals(Optional.of(ETags.of(lastUpdatedAt)), etag);
+        verifyNoInteractions(technicianReportRepository);
+    }
+
+    @Test
+    void getTechnicianReportETag_CustomerAndDraft_ShouldReturnEmpty() {
+        when(technicianReportVersions.get(reportId))
+                .thenReturn(Optional.of(version(technicianId, "DRAFT", LocalDateTime.now())));
+
+        assertTrue(technicianReportService.getTechnicianReportETag(reportId.toString(), customer).isEmpty());
+    }
+
+    @Test
+    void getTechnicianReportETag_CustomerAndSubmitted_ShouldReturnTag() {
+        LocalDateTime lastUpdatedAt = LocalDateTime.now();
+        when(technicianReportVersions.get(reportId))
+                .thenReturn(Optional.of(version(technicianId, "SUBMITTED", lastUpdatedAt)));
+
+        assertEquals(Optional.of(ETags.of(lastUpdatedAt)),
+                technicianReportService.getTechnicianReportETag(reportId.toString(), customer));
+    }
+
+    @Test
+    void getTechnicianReportETag_OtherTechnician_ShouldReturnEmpty() {
+        when(technicianReportVersions.get(reportId))
+                .thenReturn(Optional.of(version(UUID.randomUUID(), "DRAFT", LocalDateTime.now())));
+
+        assertTrue(technicianReportService.getTechnicianReportETag(reportId.toString(), technician).isEmpty());
+    }
+
+    @Test
+    void getTechnicianReportETag_InvalidIdOrDatabaseError_ShouldReturnEmpty() {
+        when(technicianReportVersions.get(reportId)).thenThrow(mock(DataAccessException.class));
+
+        assertTrue(technicianReportService.getTechnicianReportETag("not-a-uuid", technician).isEmpty());
+        assertTrue(technicianReportService.getTechnicianReportETag(null, technician).isEmpty());
+        assertTrue(technicianReportService.getTechnicianReportETag(reportId.toString(), technician).isEmpty());
+    }
+}
@@ -0,0 +1,156 @@
+package id.ac.ui.cs.advprog.everest.modules.technicianreport.service;
+
+import id.ac.ui.cs.advprog.everest.authentication.AuthenticatedUser;
+import id.ac.ui.cs.advprog.everest.config.JpaConfig;
+import id.ac.ui.cs.advprog.everest.messaging.RepairEventPublisher;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.PaymentMethod;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.model.enums.PaymentType;
+import id.ac.ui.cs.advprog.everest.modules.paymentmethod.repository.PaymentMethodRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.RepairOrder;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.model.enums.RepairOrderStatus;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.repository.RepairOrderRepository;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderPager;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.RepairOrderVersions;
+import id.ac.ui.cs.advprog.everest.modules.repairorder.service.TechnicianAssignmentService;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.dto.StatusChangeEvent;
+import id.ac.ui.cs.advprog.everest.modules.statusevent.service.StatusEventRegistry;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.model.TechnicianReport;
+import id.ac.ui.cs.advprog.everest.modules.technicianreport.repository.TechnicianReportRepository;
+import id.ac.ui.cs.advprog.kilimanjaro.auth.grpc.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Starts and completes work against the real repositories and checks that each repair order
+ * status change announced is the one stored, and is handed over while its transaction is
+ * still open so the registry holds it back until commit.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class TechnicianReportStatusEventTest {
+
+    @Autowired
+    private RepairOrderRepository repairOrderRepository;
+
+    @Autowired
+    private TechnicianReportRepository technicianReportRepository;
+
+    @Autowired
+    private PaymentMethodRepository paymentMethodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<StatusChangeEvent> repairOrderEvents = new ArrayList<>();
+    private TechnicianReportServiceImpl technicianReportService;
+    private AuthenticatedUser technician;
+    private RepairOrder repairOrder;
+    private TechnicianReport technicianReport;
+
+    @BeforeEach
+    void setUp() {
+        StatusEventRegistry statusEventRegistry = mock(StatusEventRegistry.class);
+        doAnswer(invocation -> {
+            StatusChangeEvent event = invocation.getArgument(0);
+            if (event.getResourceType() == StatusChangeEvent.ResourceType.REPAIR_ORDER) {
+                assertTrue(TransactionSynchronizationManager.isActualTransactionActive(),
+                        "Repair order status published outside its transaction");
+                repairOrderEvents.add(event);
+            }
+            return null;
+        }).when(statusEventRegistry).publish(any(), any(UUID[].class));
+
+        technicianReportService = new TechnicianReportServiceImpl(
+                technicianReportRepository,
+                repairOrderRepository,
+                mock(RepairEventPublisher.class),
+                mock(TechnicianReportAuditLogger.class),
+                mock(TechnicianAssignmentService.class),
+                mock(RepairOrderPager.class),
+                mock(TechnicianReportVersions.class),
+                mock(RepairOrderVersions.class),
+                statusEventRegistry,
+                transactionManager
+        );
+
+        UUID technicianId = UUID.randomUUID();
+        technician = new AuthenticatedUser(technicianId, "technician@example.com", "Technician",
+                UserRole.TECHNICIAN, "1234567890", Instant.now(), Instant.now(), "Depok", null, 0, 0L);
+        PaymentMethod paymentMethod = paymentMethodRepository.save(PaymentMethod.builder()
+                .type(PaymentType.BANK_TRANSFER)
+                .provider("Bank XYZ")
+                .accountNumber("123456789")
+                .accountName("John Doe")
+                .build());
+        repairOrder = repairOrderRepository.save(RepairOrder.builder()
+                .customerId(UUID.randomUUID())
+                .technicianId(technicianId)
+                .status(RepairOrderStatus.PENDING_CONFIRMATION)
+                .itemName("Laptop")
+                .itemCondition("Screen not working")
+                .issueDescription("Black screen after startup")
+                .desiredServiceDate(LocalDate.now().plusDays(2))
+                .paymentMethod(paymentMethod)
+                .build());
+        TechnicianReport report = TechnicianReport.builder()
+                .reportId(UUID.randomUUID())
+                .repairOrder(repairOrder)
+                .technicianId(technicianId)
+                .diagnosis("Broken screen")
+                .actionPlan("Replace the screen")
+                .estimatedCost(100L)
+                .estimatedTimeSeconds(3600L)
+                .build();
+        report.submit();
+        report.approve();
+        technicianReport = technicianReportRepository.save(report);
+    }
+
+    @AfterEach
+    void tearDown() {
+        technicianReportRepository.deleteAll();
+        repairOrderRepository.deleteAll();
+        paymentMethodRepository.deleteAll();
+    }
+
+    private void assertPublishedStatusIsStored(RepairOrderStatus expected) {
+        RepairOrderStatus stored = repairOrderRepository.findById(repairOrder.getId()).orElseThrow().getStatus();
+        assertEquals(expected, stored);
+        StatusChangeEvent published = repairOrderEvents.getLast();
+        assertEquals(repairOrder.getId(), published.getResourceId());
+        assertEquals(stored.name(), published.getStatus());
+    }
+
+    @Test
+    void startAndCompleteWork_shouldPublishTheStoredRepairOrderStatus() {
+        String reportId = technicianReport.getReportId().toString();
+
+        assertTrue(technicianReportService.startWork(reportId, technician).isSuccess());
+        assertPublishedStatusIsStored(RepairOrderStatus.IN_PROGRESS);
+
+        assertTrue(technicianReportService.completeWork(reportId, technician).isSuccess());
+        assertPublishedStatusIsStored(RepairOrderStatus.COMPLETED);
+        assertEquals(2, repairOrderEvents.size());
+    }
+}